@@ -0,0 +1,127 @@
+package org.ncu.mf_loan_system.benchmark;
+
+import org.ncu.mf_loan_system.entities.Loan;
+import org.ncu.mf_loan_system.entities.Payment;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Pure in-memory loan math; no Spring context or database involved. Each benchmark only
+// takes the state it depends on, so its parameters are the only ones it is run across.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LoanMathBenchmark {
+
+    private static final BigDecimal INSTALLMENT = new BigDecimal("10.25");
+
+    // Loan terms without payments: EMI and the paid-off check don't depend on history
+    @State(Scope.Thread)
+    public static class Terms {
+
+        @Param({"12", "60", "360"})
+        private int tenorMonths;
+
+        private Loan loan;
+
+        @Setup
+        public void setUp() {
+            loan = newLoan(tenorMonths);
+        }
+    }
+
+    // A loan with paymentCount payments on file, for the paths that walk the history
+    @State(Scope.Thread)
+    public static class History {
+
+        @Param({"1", "12", "120", "1200"})
+        private int paymentCount;
+
+        private Loan loan;
+        private List<Payment> payments;
+
+        @Setup
+        public void setUp() {
+            loan = newLoan(60);
+            // Small installments so the loan stays open however many payments are on file
+            payments = new ArrayList<>(paymentCount);
+            for (int i = 0; i < paymentCount; i++) {
+                Payment payment = new Payment();
+                payment.setAmount(INSTALLMENT);
+                payment.setPaymentDate(loan.getStartDate().plusDays(i));
+                payments.add(payment);
+            }
+            loan.setPayments(payments);
+            loan.rebuildLedger();
+        }
+    }
+
+    // applyPayment mutates the loan, so every measured batch starts again from a fresh, unpaid one
+    @State(Scope.Thread)
+    public static class Posting {
+
+        static final int BATCH = 1000;
+
+        private Loan loan;
+
+        @Setup(Level.Iteration)
+        public void setUp() {
+            loan = newLoan(60);
+        }
+    }
+
+    private static Loan newLoan(int tenorMonths) {
+        Loan loan = new Loan();
+        loan.setPrincipalAmount(new BigDecimal("250000.00"));
+        loan.setInterestRate(new BigDecimal("11.50"));
+        loan.setStartDate(LocalDate.of(2025, 1, 1));
+        loan.setEndDate(loan.getStartDate().plusMonths(tenorMonths));
+        return loan;
+    }
+
+    @Benchmark
+    public BigDecimal calculateEMI(Terms terms) {
+        return terms.loan.calculateEMI();
+    }
+
+    @Benchmark
+    public boolean isFullyPaid(Terms terms) {
+        return terms.loan.isFullyPaid();
+    }
+
+    // Posting one payment against the running totals (the hot path for repayments). Timed per
+    // batch of Posting.BATCH postings, which stays far below the principal, so the loan never
+    // reaches PAID mid-measurement; divide the score by the batch size for a single posting.
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    @Warmup(iterations = 20, batchSize = Posting.BATCH)
+    @Measurement(iterations = 50, batchSize = Posting.BATCH)
+    public BigDecimal applyPayment(Posting posting) {
+        Payment payment = new Payment();
+        payment.setAmount(INSTALLMENT);
+        posting.loan.applyPayment(payment);
+        return posting.loan.getTotalPaid();
+    }
+
+    // Full recomputation from history, used on payment edits and deletes
+    @Benchmark
+    public BigDecimal rebuildLedger(History history) {
+        history.loan.rebuildLedger();
+        return history.loan.getTotalPaid();
+    }
+
+    // The stream reduction the services used per loan before running totals existed
+    @Benchmark
+    public BigDecimal streamReduceTotalPaid(History history) {
+        return history.payments.stream()
+                .map(Payment::getAmount)
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+    }
+}
@@ -0,0 +1,106 @@
+package org.ncu.mf_loan_system.benchmark;
+
+import org.ncu.mf_loan_system.LoanManagementApplication;
+import org.ncu.mf_loan_system.entities.Loan;
+import org.ncu.mf_loan_system.service.LoanService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Boots the application against an embedded H2 database seeded with loanCount loans;
+// size the dataset with e.g. -Djmh.args="OutstandingAmount -p loanCount=1000000"
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class OutstandingAmountBenchmark {
+
+    private static final int INSERT_BATCH = 1000;
+
+    @Param({"1000", "100000"})
+    private int loanCount;
+
+    @Param({"3"})
+    private int paymentsPerLoan;
+
+    private ConfigurableApplicationContext context;
+    private LoanService loanService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SpringApplication application = new SpringApplication(LoanManagementApplication.class);
+        application.setWebApplicationType(WebApplicationType.NONE);
+        // Passed as arguments so they override application.properties
+        context = application.run(
+                "--spring.datasource.url=jdbc:h2:mem:benchmark;MODE=MySQL;DB_CLOSE_DELAY=-1",
+                "--spring.datasource.driver-class-name=org.h2.Driver",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.jpa.hibernate.ddl-auto=create-drop",
+                "--spring.jpa.show-sql=false",
+                "--loan.classification.cron=-",
+                "--logging.level.root=WARN");
+        loanService = context.getBean(LoanService.class);
+        seed(context.getBean(JdbcTemplate.class));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public BigDecimal getTotalOutstandingAmount() {
+        return loanService.getTotalOutstandingAmount();
+    }
+
+    // Plain JDBC batches; going through the services would dominate setup time at large sizes
+    private void seed(JdbcTemplate jdbc) {
+        jdbc.update("INSERT INTO clients (id, name, email, phone) VALUES (1, 'Benchmark', 'bench@example.com', '+1234567890')");
+
+        BigDecimal principal = new BigDecimal("10000.00");
+        BigDecimal rate = new BigDecimal("12.00");
+        int months = 12;
+        // The reducing-balance figures the application itself books for these terms
+        BigDecimal monthlyRate = Loan.monthlyRate(rate);
+        BigDecimal emi = Loan.emi(principal, monthlyRate, Loan.growthFactor(monthlyRate, months));
+        BigDecimal interestDue = Loan.scheduledInterest(principal, monthlyRate, emi, months);
+        BigDecimal totalDue = principal.add(interestDue);
+        BigDecimal payment = new BigDecimal("500.00");
+        BigDecimal totalPaid = payment.multiply(BigDecimal.valueOf(paymentsPerLoan));
+        BigDecimal interestRepaid = totalPaid.min(interestDue);
+        LocalDate startDate = LocalDate.of(2025, 1, 1);
+        Date start = Date.valueOf(startDate);
+        Date end = Date.valueOf(startDate.plusMonths(months));
+
+        List<Object[]> loans = new ArrayList<>(INSERT_BATCH);
+        List<Object[]> payments = new ArrayList<>(INSERT_BATCH * paymentsPerLoan);
+        long paymentId = 1;
+        for (long id = 1; id <= loanCount; id++) {
+            loans.add(new Object[]{id, 1L, principal, rate, start, end, "ACTIVE", totalPaid,
+                    totalPaid.subtract(interestRepaid), interestRepaid, interestDue, totalDue.subtract(totalPaid)});
+            for (int p = 0; p < paymentsPerLoan; p++) {
+                payments.add(new Object[]{paymentId++, id, payment, start});
+            }
+            if (loans.size() == INSERT_BATCH || id == loanCount) {
+                jdbc.batchUpdate("INSERT INTO loans (id, client_id, principal_amount, interest_rate, start_date, end_date, " +
+                        "status, total_paid, principal_repaid, interest_repaid, interest_due, outstanding_balance, " +
+                        "version) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, 0)", loans);
+                jdbc.batchUpdate("INSERT INTO payments (id, loan_id, amount, payment_date) VALUES (?, ?, ?, ?)", payments);
+                loans.clear();
+                payments.clear();
+            }
+        }
+    }
+}
@@ -1,27 +1,126 @@
 package org.ncu.mf_loan_system;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.aspectj.lang.JoinPoint;
+import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.annotation.*;
+import org.ncu.mf_loan_system.dto.BulkPaymentRequest;
+import org.ncu.mf_loan_system.dto.BulkPaymentResult;
+import org.ncu.mf_loan_system.entities.AuditEvent;
+import org.ncu.mf_loan_system.entities.AuditEvent.EventType;
+import org.ncu.mf_loan_system.entities.Loan;
+import org.ncu.mf_loan_system.entities.Payment;
+import org.ncu.mf_loan_system.service.AuditTrail;
 //import org.ncu.mf_loan_system.service.LoanServiceImpl;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
 
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
 @Aspect
 @Component
 public class LoggingAndAlertAspect {
     private final Logger logger = LoggerFactory.getLogger(LoggingAndAlertAspect.class);
 
-    // Log when a loan is created
-    @AfterReturning(value = "execution(* org.ncu.mf_loan_system.service.LoanService.createLoan(..))")
-    public void logAfterLoanCreated(JoinPoint joinPoint) {
-        logger.info("New loan issued: {}", joinPoint.getArgs()[0]);
+    private final MeterRegistry meterRegistry;
+    private final AuditTrail auditTrail;
+
+    // Timers resolved once per method/outcome/exception instead of on every call
+    private final Map<TimerKey, Timer> timers = new ConcurrentHashMap<>();
+
+    public LoggingAndAlertAspect(MeterRegistry meterRegistry, AuditTrail auditTrail) {
+        this.meterRegistry = meterRegistry;
+        this.auditTrail = auditTrail;
+    }
+
+    // Latency of every LoanService, PaymentService and ClientService call, published as
+    // "loan.service" (histogram buckets configured in application.properties)
+    @Around("execution(* org.ncu.mf_loan_system.service.LoanService.*(..)) || " +
+            "execution(* org.ncu.mf_loan_system.service.PaymentService.*(..)) || " +
+            "execution(* org.ncu.mf_loan_system.service.ClientService.*(..))")
+    public Object timeServiceCall(ProceedingJoinPoint joinPoint) throws Throwable {
+        long start = System.nanoTime();
+        String exception = "none";
+        try {
+            return joinPoint.proceed();
+        } catch (Throwable ex) {
+            exception = ex.getClass().getSimpleName();
+            throw ex;
+        } finally {
+            timerFor(joinPoint, exception).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private Timer timerFor(ProceedingJoinPoint joinPoint, String exception) {
+        TimerKey key = new TimerKey(joinPoint.getSignature().getDeclaringType().getSimpleName(),
+                joinPoint.getSignature().getName(), exception);
+        return timers.computeIfAbsent(key, k -> Timer.builder("loan.service")
+                .description("Service layer call latency")
+                .tag("service", k.service())
+                .tag("method", k.method())
+                .tag("outcome", "none".equals(k.exception()) ? "success" : "error")
+                .tag("exception", k.exception())
+                .register(meterRegistry));
+    }
+
+    private record TimerKey(String service, String method, String exception) {
+    }
+
+    // Audit trail events; recorded asynchronously so the request thread never waits on I/O
+    @AfterReturning(value = "execution(* org.ncu.mf_loan_system.service.LoanService.createLoan(..))", returning = "loan")
+    public void auditLoanCreated(Loan loan) {
+        auditTrail.record(new AuditEvent(EventType.LOAN_CREATED, loan.getId(), loan.getId(), loan.getPrincipalAmount()));
+    }
+
+    @AfterReturning(value = "execution(* org.ncu.mf_loan_system.service.LoanService.updateLoan(..))", returning = "loan")
+    public void auditLoanUpdated(Loan loan) {
+        auditTrail.record(new AuditEvent(EventType.LOAN_UPDATED, loan.getId(), loan.getId(), loan.getPrincipalAmount()));
+    }
+
+    @AfterReturning(value = "execution(* org.ncu.mf_loan_system.service.LoanService.deleteLoan(..)) && args(id)", argNames = "id")
+    public void auditLoanDeleted(Long id) {
+        auditTrail.record(new AuditEvent(EventType.LOAN_DELETED, id, id, null));
+    }
+
+    @AfterReturning(value = "execution(* org.ncu.mf_loan_system.service.LoanService.processPayment(..)) && args(loanId, amount)",
+            argNames = "loanId,amount")
+    public void auditPaymentProcessed(Long loanId, BigDecimal amount) {
+        auditTrail.record(new AuditEvent(EventType.PAYMENT_RECORDED, null, loanId, amount));
+    }
+
+    @AfterReturning(value = "execution(* org.ncu.mf_loan_system.service.PaymentService.createPayment(..))", returning = "payment")
+    public void auditPaymentCreated(Payment payment) {
+        auditTrail.record(new AuditEvent(EventType.PAYMENT_RECORDED, payment.getId(), payment.getLoan().getId(),
+                payment.getAmount()));
+    }
+
+    @AfterReturning(value = "(execution(* org.ncu.mf_loan_system.service.PaymentService.createPayments(..)) && args(requests)) || " +
+            "(execution(* org.ncu.mf_loan_system.service.PaymentService.postJournalBatch(..)) && args(*, requests, *))",
+            returning = "results", argNames = "requests,results")
+    public void auditBulkPayments(List<BulkPaymentRequest> requests, List<BulkPaymentResult> results) {
+        for (BulkPaymentResult result : results) {
+            if (result.posted()) {
+                auditTrail.record(new AuditEvent(EventType.PAYMENT_RECORDED, result.paymentId(), result.loanId(),
+                        requests.get(result.index()).amount()));
+            }
+        }
+    }
+
+    @AfterReturning(value = "execution(* org.ncu.mf_loan_system.service.PaymentService.updatePayment(..))", returning = "payment")
+    public void auditPaymentUpdated(Payment payment) {
+        auditTrail.record(new AuditEvent(EventType.PAYMENT_UPDATED, payment.getId(), payment.getLoan().getId(),
+                payment.getAmount()));
     }
 
-    // Log after a payment is recorded
-    @AfterReturning(value = "execution(* org.ncu.mf_loan_system.service.PaymentService.createPayment(..))")
-    public void logAfterPaymentCreated(JoinPoint joinPoint) {
-        logger.info("New payment recorded: {}", joinPoint.getArgs()[0]);
+    @AfterReturning(value = "execution(* org.ncu.mf_loan_system.service.PaymentService.deletePayment(..)) && args(id)", argNames = "id")
+    public void auditPaymentDeleted(Long id) {
+        auditTrail.record(new AuditEvent(EventType.PAYMENT_DELETED, id, null, null));
     }
 
     // Log errors
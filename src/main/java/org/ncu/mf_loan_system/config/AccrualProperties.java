@@ -0,0 +1,31 @@
+package org.ncu.mf_loan_system.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "loan.accrual")
+public class AccrualProperties {
+    // Loan id ranges accrued in parallel; each holds one pooled connection while it runs,
+    // so keep this below the connection pool size
+    private int partitions = 4;
+    // Width of the loan id window updated per transaction
+    private int chunkSize = 5000;
+
+    // Getters and Setters
+    public int getPartitions() {
+        return partitions;
+    }
+
+    public void setPartitions(int partitions) {
+        this.partitions = partitions;
+    }
+
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    public void setChunkSize(int chunkSize) {
+        this.chunkSize = chunkSize;
+    }
+}
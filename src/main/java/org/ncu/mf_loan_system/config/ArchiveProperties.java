@@ -0,0 +1,30 @@
+package org.ncu.mf_loan_system.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "loan.archive")
+public class ArchiveProperties {
+    // A PAID loan moves to the archive tables once its last payment is this many days old
+    private int paidAgeDays = 180;
+    // Loans moved per transaction
+    private int chunkSize = 500;
+
+    // Getters and Setters
+    public int getPaidAgeDays() {
+        return paidAgeDays;
+    }
+
+    public void setPaidAgeDays(int paidAgeDays) {
+        this.paidAgeDays = paidAgeDays;
+    }
+
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    public void setChunkSize(int chunkSize) {
+        this.chunkSize = chunkSize;
+    }
+}
@@ -0,0 +1,84 @@
+package org.ncu.mf_loan_system.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+@ConfigurationProperties(prefix = "audit")
+public class AuditProperties {
+
+    public enum OverflowPolicy { DROP, BLOCK }
+
+    // Events the queue holds before overflow applies
+    private int capacity = 65_536;
+    // Rows per JDBC batch insert
+    private int batchSize = 500;
+    // How long the writer sleeps when the buffer is empty
+    private Duration pollInterval = Duration.ofMillis(200);
+    // DROP discards new events when full; BLOCK makes the caller wait up to blockTimeout, then drops
+    private OverflowPolicy overflow = OverflowPolicy.DROP;
+    private Duration blockTimeout = Duration.ofMillis(50);
+    // Longest wait between retries of a batch the database rejected
+    private Duration maxRetryBackoff = Duration.ofSeconds(30);
+    // How long stop() keeps draining and retrying before the remaining events are given up
+    private Duration shutdownTimeout = Duration.ofSeconds(10);
+
+    // Getters and Setters
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public void setCapacity(int capacity) {
+        this.capacity = capacity;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    public Duration getPollInterval() {
+        return pollInterval;
+    }
+
+    public void setPollInterval(Duration pollInterval) {
+        this.pollInterval = pollInterval;
+    }
+
+    public OverflowPolicy getOverflow() {
+        return overflow;
+    }
+
+    public void setOverflow(OverflowPolicy overflow) {
+        this.overflow = overflow;
+    }
+
+    public Duration getBlockTimeout() {
+        return blockTimeout;
+    }
+
+    public void setBlockTimeout(Duration blockTimeout) {
+        this.blockTimeout = blockTimeout;
+    }
+
+    public Duration getMaxRetryBackoff() {
+        return maxRetryBackoff;
+    }
+
+    public void setMaxRetryBackoff(Duration maxRetryBackoff) {
+        this.maxRetryBackoff = maxRetryBackoff;
+    }
+
+    public Duration getShutdownTimeout() {
+        return shutdownTimeout;
+    }
+
+    public void setShutdownTimeout(Duration shutdownTimeout) {
+        this.shutdownTimeout = shutdownTimeout;
+    }
+}
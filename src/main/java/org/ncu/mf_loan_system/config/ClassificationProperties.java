@@ -0,0 +1,40 @@
+package org.ncu.mf_loan_system.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "loan.classification")
+public class ClassificationProperties {
+    // Days past the next payment date before an ACTIVE loan is OVERDUE
+    private int overdueAfterDays = 1;
+    // Days past the next payment date before an OVERDUE loan is DEFAULTED
+    private int defaultAfterDays = 90;
+    // Width of the loan id window updated per transaction
+    private int chunkSize = 5000;
+
+    // Getters and Setters
+    public int getOverdueAfterDays() {
+        return overdueAfterDays;
+    }
+
+    public void setOverdueAfterDays(int overdueAfterDays) {
+        this.overdueAfterDays = overdueAfterDays;
+    }
+
+    public int getDefaultAfterDays() {
+        return defaultAfterDays;
+    }
+
+    public void setDefaultAfterDays(int defaultAfterDays) {
+        this.defaultAfterDays = defaultAfterDays;
+    }
+
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    public void setChunkSize(int chunkSize) {
+        this.chunkSize = chunkSize;
+    }
+}
@@ -0,0 +1,50 @@
+package org.ncu.mf_loan_system.config;
+
+import org.ncu.mf_loan_system.entities.Client;
+import org.ncu.mf_loan_system.repository.ClientRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+// Fills the client search keys on rows saved before they existed, a chunk per transaction;
+// a single query that finds nothing once every row has been migrated
+@Component
+public class ClientSearchBackfillRunner implements ApplicationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(ClientSearchBackfillRunner.class);
+
+    private static final int CHUNK = 1000;
+
+    private final ClientRepository clientRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    public ClientSearchBackfillRunner(ClientRepository clientRepository, PlatformTransactionManager transactionManager) {
+        this.clientRepository = clientRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        int migrated = 0;
+        int chunk;
+        do {
+            chunk = transactionTemplate.execute(status -> {
+                List<Client> clients = clientRepository.findWithoutSearchKeys(Limit.of(CHUNK));
+                clients.forEach(Client::refreshSearchKeys);
+                return clients.size();
+            });
+            migrated += chunk;
+        } while (chunk == CHUNK);
+
+        if (migrated > 0) {
+            logger.info("Backfilled search keys for {} clients", migrated);
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package org.ncu.mf_loan_system.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+@Component
+@Order(0)
+public class IdGeneratorAlignmentRunner implements ApplicationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(IdGeneratorAlignmentRunner.class);
+
+    // Must match the allocationSize of the pooled generators on Payment, Loan and Client
+    private static final int ALLOCATION_SIZE = 50;
+
+    // Tables whose ids used to come from AUTO_INCREMENT; each generator's id_generators row
+    // is named after its table
+    private static final List<String> TABLES = List.of("payments", "loans", "clients");
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public IdGeneratorAlignmentRunner(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    // Move each pooled table generator past the highest existing id so the first allocated
+    // block cannot collide with old rows
+    @Override
+    @Transactional
+    public void run(ApplicationArguments args) {
+        TABLES.forEach(this::align);
+    }
+
+    private void align(String table) {
+        Long maxId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM " + table, Long.class);
+        long floor = maxId + ALLOCATION_SIZE;
+
+        int updated = jdbcTemplate.update(
+                "UPDATE id_generators SET gen_value = ? WHERE gen_name = ? AND gen_value < ?",
+                floor, table, floor);
+        if (updated == 0) {
+            Integer rows = jdbcTemplate.queryForObject(
+                    "SELECT COUNT(*) FROM id_generators WHERE gen_name = ?", Integer.class, table);
+            if (rows == 0) {
+                jdbcTemplate.update("INSERT INTO id_generators (gen_name, gen_value) VALUES (?, ?)", table, floor);
+                updated = 1;
+            }
+        }
+        if (updated > 0) {
+            logger.info("{} id generator aligned to {}", table, floor);
+        }
+    }
+}
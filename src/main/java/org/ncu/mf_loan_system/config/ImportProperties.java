@@ -0,0 +1,30 @@
+package org.ncu.mf_loan_system.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "loan.import")
+public class ImportProperties {
+    // CSV rows validated, resolved and inserted per transaction
+    private int chunkSize = 1000;
+    // Rejected rows returned inline with the import report
+    private int reportErrors = 100;
+
+    // Getters and Setters
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    public void setChunkSize(int chunkSize) {
+        this.chunkSize = chunkSize;
+    }
+
+    public int getReportErrors() {
+        return reportErrors;
+    }
+
+    public void setReportErrors(int reportErrors) {
+        this.reportErrors = reportErrors;
+    }
+}
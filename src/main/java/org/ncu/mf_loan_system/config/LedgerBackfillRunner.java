@@ -0,0 +1,98 @@
+package org.ncu.mf_loan_system.config;
+
+import org.ncu.mf_loan_system.dto.LoanDueDate;
+import org.ncu.mf_loan_system.entities.Installment;
+import org.ncu.mf_loan_system.entities.Loan;
+import org.ncu.mf_loan_system.repository.InstallmentRepository;
+import org.ncu.mf_loan_system.repository.LoanRepository;
+import org.ncu.mf_loan_system.service.ParAgingService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+@Component
+@Order(1)
+public class LedgerBackfillRunner implements ApplicationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(LedgerBackfillRunner.class);
+
+    private static final int CHUNK = 500;
+
+    private final LoanRepository loanRepository;
+    private final InstallmentRepository installmentRepository;
+    private final ParAgingService parAgingService;
+    private final TransactionTemplate transactionTemplate;
+
+    public LedgerBackfillRunner(LoanRepository loanRepository, InstallmentRepository installmentRepository,
+                                ParAgingService parAgingService, PlatformTransactionManager transactionManager) {
+        this.loanRepository = loanRepository;
+        this.installmentRepository = installmentRepository;
+        this.parAgingService = parAgingService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    // Fills the @Version column, then re-derives the running totals of loans persisted before
+    // the ledger followed the schedule's interest (or before it existed at all), a chunk per
+    // transaction; a no-op once every row has been migrated
+    @Override
+    public void run(ApplicationArguments args) {
+        transactionTemplate.executeWithoutResult(status -> loanRepository.backfillVersion());
+
+        int migrated = 0;
+        long afterId = 0;
+        List<Long> chunk;
+        do {
+            long from = afterId;
+            chunk = transactionTemplate.execute(status -> restate(from));
+            migrated += chunk.size();
+            if (!chunk.isEmpty()) {
+                afterId = chunk.get(chunk.size() - 1);
+            }
+        } while (chunk.size() == CHUNK);
+
+        if (migrated > 0) {
+            logger.info("Backfilled payment ledger for {} loans", migrated);
+        }
+    }
+
+    private List<Long> restate(long afterId) {
+        List<Long> loanIds = loanRepository.findIdsWithoutInterestDue(afterId, Limit.of(CHUNK));
+        if (loanIds.isEmpty()) {
+            return loanIds;
+        }
+        Set<Long> scheduled = new HashSet<>(installmentRepository.findScheduledLoanIds(loanIds));
+        List<Installment> schedules = new ArrayList<>();
+        List<Loan> loans = loanRepository.findAllById(loanIds);
+        for (Loan loan : loans) {
+            // Replays the payment history against the scheduled interest; also settles status
+            loan.rebuildLedger();
+            if (!scheduled.contains(loan.getId())) {
+                schedules.addAll(loan.buildSchedule());
+            }
+        }
+        installmentRepository.saveAll(schedules);
+        loanRepository.flush();
+        Map<Long, LocalDate> dueDates = new HashMap<>();
+        for (LoanDueDate due : installmentRepository.findNextDueDates(loanIds)) {
+            dueDates.put(due.loanId(), due.dueDate());
+        }
+        loans.forEach(loan -> loan.updateNextPaymentDate(dueDates.get(loan.getId())));
+        loanRepository.flush();
+        parAgingService.refresh(loanIds);
+        return loanIds;
+    }
+}
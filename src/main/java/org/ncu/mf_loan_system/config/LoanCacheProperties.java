@@ -0,0 +1,31 @@
+package org.ncu.mf_loan_system.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+@ConfigurationProperties(prefix = "loan.cache")
+public class LoanCacheProperties {
+    private long maximumSize = 100_000;
+    // Upper bound on staleness for changes made outside the service layer (e.g. bulk jobs)
+    private Duration expireAfterWrite = Duration.ofMinutes(5);
+
+    // Getters and Setters
+    public long getMaximumSize() {
+        return maximumSize;
+    }
+
+    public void setMaximumSize(long maximumSize) {
+        this.maximumSize = maximumSize;
+    }
+
+    public Duration getExpireAfterWrite() {
+        return expireAfterWrite;
+    }
+
+    public void setExpireAfterWrite(Duration expireAfterWrite) {
+        this.expireAfterWrite = expireAfterWrite;
+    }
+}
@@ -0,0 +1,30 @@
+package org.ncu.mf_loan_system.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "loan.par")
+public class ParAgingProperties {
+    // Days of missed nightly runs the aging job catches up on
+    private int lookbackDays = 7;
+    // Loans re-aged per transaction
+    private int chunkSize = 1000;
+
+    // Getters and Setters
+    public int getLookbackDays() {
+        return lookbackDays;
+    }
+
+    public void setLookbackDays(int lookbackDays) {
+        this.lookbackDays = lookbackDays;
+    }
+
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    public void setChunkSize(int chunkSize) {
+        this.chunkSize = chunkSize;
+    }
+}
@@ -0,0 +1,32 @@
+package org.ncu.mf_loan_system.config;
+
+import org.ncu.mf_loan_system.service.ParAgingJob;
+import org.ncu.mf_loan_system.service.ParAgingService;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+// Builds the PAR positions and totals on first start against an existing loan book; a few
+// small lookups once they exist. Runs after LedgerBackfillRunner, whose principal
+// totals it reads.
+@Component
+@Order(2)
+public class ParPositionBackfillRunner implements ApplicationRunner {
+
+    private final ParAgingService parAgingService;
+    private final ParAgingJob parAgingJob;
+
+    public ParPositionBackfillRunner(ParAgingService parAgingService, ParAgingJob parAgingJob) {
+        this.parAgingService = parAgingService;
+        this.parAgingJob = parAgingJob;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        // Decided on the primary: a lagging replica could see positions not yet written there
+        if (ReadRouting.onPrimary(parAgingService::needsRebuild)) {
+            parAgingJob.rebuild();
+        }
+    }
+}
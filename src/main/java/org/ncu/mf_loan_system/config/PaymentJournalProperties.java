@@ -0,0 +1,81 @@
+package org.ncu.mf_loan_system.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+@ConfigurationProperties(prefix = "payment.journal")
+public class PaymentJournalProperties {
+    // Off by default; when on, POST /api/payments/journal acknowledges from local disk
+    private boolean enabled = false;
+    // Checkpoint key; must be unique per node since each node has its own journal
+    private String name = "default";
+    private String directory = "data/payment-journal";
+    // Entries per segment file (40 bytes each)
+    private int segmentEntries = 1_000_000;
+    // Longest a flush waits to gather more appends into one fsync
+    private Duration flushInterval = Duration.ofMillis(2);
+    // Longest append() waits for its entry to be flushed before failing the request
+    private Duration appendTimeout = Duration.ofSeconds(5);
+    // Entries posted per database transaction by the applier
+    private int applyBatchSize = 500;
+
+    // Getters and Setters
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getDirectory() {
+        return directory;
+    }
+
+    public void setDirectory(String directory) {
+        this.directory = directory;
+    }
+
+    public int getSegmentEntries() {
+        return segmentEntries;
+    }
+
+    public void setSegmentEntries(int segmentEntries) {
+        this.segmentEntries = segmentEntries;
+    }
+
+    public Duration getFlushInterval() {
+        return flushInterval;
+    }
+
+    public void setFlushInterval(Duration flushInterval) {
+        this.flushInterval = flushInterval;
+    }
+
+    public Duration getAppendTimeout() {
+        return appendTimeout;
+    }
+
+    public void setAppendTimeout(Duration appendTimeout) {
+        this.appendTimeout = appendTimeout;
+    }
+
+    public int getApplyBatchSize() {
+        return applyBatchSize;
+    }
+
+    public void setApplyBatchSize(int applyBatchSize) {
+        this.applyBatchSize = applyBatchSize;
+    }
+}
@@ -0,0 +1,59 @@
+package org.ncu.mf_loan_system.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Records how many SQL statements each request issued as "http.server.requests.queries",
+// tagged like http.server.requests so the two can be read side by side. The count comes from
+// the DataSource proxy (StatementTimingDataSource), so JdbcTemplate statements are included
+@Component
+public class QueryCountFilter extends OncePerRequestFilter {
+
+    private final QueryStatistics statistics;
+    private final MeterRegistry meterRegistry;
+    // Summaries resolved once per route instead of on every request
+    private final Map<RouteKey, DistributionSummary> summaries = new ConcurrentHashMap<>();
+
+    public QueryCountFilter(QueryStatistics statistics, MeterRegistry meterRegistry) {
+        this.statistics = statistics;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        statistics.startCount();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            int queries = statistics.stopCount();
+            // Use the route template, not the raw path, to keep tag cardinality bounded
+            Object uri = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            summaryFor(request.getMethod(), uri != null ? uri.toString() : "UNKNOWN").record(queries);
+        }
+    }
+
+    private DistributionSummary summaryFor(String method, String uri) {
+        return summaries.computeIfAbsent(new RouteKey(method, uri), key ->
+                DistributionSummary.builder("http.server.requests.queries")
+                        .description("SQL statements issued per HTTP request")
+                        .baseUnit("statements")
+                        .tag("method", key.method())
+                        .tag("uri", key.uri())
+                        .register(meterRegistry));
+    }
+
+    private record RouteKey(String method, String uri) {
+    }
+}
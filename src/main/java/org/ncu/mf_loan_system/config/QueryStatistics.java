@@ -0,0 +1,211 @@
+package org.ncu.mf_loan_system.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.ncu.mf_loan_system.dto.QueryShapeStats;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+// Execution counts and latency histograms per statement shape for all SQL run through the
+// application DataSource (see StatementTimingDataSource). Statements over the slow threshold
+// are logged, without bind values, together with the application method that issued them.
+// Also publishes "db.statements" timers tagged by operation, and counts the statements run on
+// a thread between startCount() and stopCount() for the per-request query counts.
+@Component
+public class QueryStatistics {
+
+    private static final Logger logger = LoggerFactory.getLogger(QueryStatistics.class);
+
+    // Upper bounds of the latency buckets; one more bucket catches everything slower
+    static final long[] BUCKET_MILLIS = {1, 5, 10, 50, 100, 500, 1000, 5000};
+    static final String OVERFLOW_SHAPE = "(other)";
+    private static final List<String> OPERATIONS = List.of("select", "insert", "update", "delete", "other");
+
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("\\b\\d+(?:\\.\\d+)?\\b");
+    // A single character class rather than a repeated group: the regex engine recurses once per
+    // group repetition, which overflows the stack on IN lists thousands of parameters long
+    private static final Pattern IN_LIST = Pattern.compile("(?i)\\bin\\s*\\(\\s*\\?\\s*,[\\s,?]*\\)");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private static final String APP_PACKAGE = "org.ncu.mf_loan_system.";
+
+    // Open only while QueryCountFilter is handling a request; elsewhere a ThreadLocal read is all it costs
+    private static final ThreadLocal<int[]> COUNTER = new ThreadLocal<>();
+
+    private final long slowThresholdNanos;
+    private final int maxShapes;
+    private final Map<String, Timer> timers = new HashMap<>();
+
+    // Normalised SQL to its counters, and raw SQL to the same counters so the regexes run once per string
+    private final ConcurrentHashMap<String, Shape> shapes = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Shape> shapesBySql = new ConcurrentHashMap<>();
+
+    public QueryStatistics(QueryStatsProperties properties, MeterRegistry meterRegistry) {
+        this.slowThresholdNanos = properties.getSlowThreshold().toNanos();
+        this.maxShapes = properties.getMaxShapes();
+        for (String operation : OPERATIONS) {
+            timers.put(operation, Timer.builder("db.statements")
+                    .description("SQL statement execution time")
+                    .tag("operation", operation)
+                    .register(meterRegistry));
+        }
+    }
+
+    // sql is null for a plain Statement's executeBatch(), which is counted but has no shape
+    void record(String sql, long nanos) {
+        int[] counter = COUNTER.get();
+        if (counter != null) {
+            counter[0]++;
+        }
+        if (sql == null) {
+            return;
+        }
+        Shape shape = shapeOf(sql);
+        shape.record(nanos);
+        timers.get(shape.operation).record(nanos, TimeUnit.NANOSECONDS);
+
+        if (nanos >= slowThresholdNanos) {
+            // Only slow statements pay for the stack walk
+            String caller = caller();
+            shape.slow(caller);
+            logger.warn("Slow SQL ({} ms) from {}: {}", TimeUnit.NANOSECONDS.toMillis(nanos), caller, shape.sql);
+        }
+    }
+
+    public void startCount() {
+        COUNTER.set(new int[1]);
+    }
+
+    public int stopCount() {
+        int[] counter = COUNTER.get();
+        COUNTER.remove();
+        return counter == null ? 0 : counter[0];
+    }
+
+    // Shapes by total time spent, most expensive first
+    public List<QueryShapeStats> getShapes(int limit) {
+        return shapes.values().stream()
+                .sorted(Comparator.comparingLong((Shape shape) -> shape.totalNanos.sum()).reversed())
+                .limit(limit)
+                .map(Shape::toStats)
+                .toList();
+    }
+
+    public int getShapeCount() {
+        return shapes.size();
+    }
+
+    public long getSlowThresholdMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(slowThresholdNanos);
+    }
+
+    public void reset() {
+        shapesBySql.clear();
+        shapes.clear();
+    }
+
+    private Shape shapeOf(String sql) {
+        Shape shape = shapesBySql.get(sql);
+        if (shape != null) {
+            return shape;
+        }
+        String normalized = normalize(sql);
+        shape = shapes.get(normalized);
+        if (shape == null) {
+            String key = shapes.size() < maxShapes ? normalized : OVERFLOW_SHAPE;
+            shape = shapes.computeIfAbsent(key, Shape::new);
+        }
+        // Statements with inlined literals would grow this without bound
+        if (shapesBySql.size() < maxShapes * 4) {
+            shapesBySql.put(sql, shape);
+        }
+        return shape;
+    }
+
+    static String normalize(String sql) {
+        String shape = STRING_LITERAL.matcher(sql).replaceAll("?");
+        shape = NUMBER_LITERAL.matcher(shape).replaceAll("?");
+        shape = IN_LIST.matcher(shape).replaceAll("in (?, ...)");
+        return WHITESPACE.matcher(shape).replaceAll(" ").trim();
+    }
+
+    // Innermost application frame outside the timing code itself, e.g. "LoanServiceImpl.getLoanById"
+    private static String caller() {
+        return StackWalker.getInstance().walk(frames -> frames
+                        .filter(frame -> isApplicationFrame(frame.getClassName()))
+                        .findFirst()
+                        .map(frame -> frame.getClassName().substring(frame.getClassName().lastIndexOf('.') + 1)
+                                + "." + frame.getMethodName()))
+                .orElse(Thread.currentThread().getName());
+    }
+
+    private static boolean isApplicationFrame(String className) {
+        return className.startsWith(APP_PACKAGE)
+                && !className.startsWith(QueryStatistics.class.getName())
+                && !className.startsWith(StatementTimingDataSource.class.getName())
+                && !className.contains("$$");
+    }
+
+    private static String operationOf(String sql) {
+        int end = sql.indexOf(' ');
+        String verb = (end < 0 ? sql : sql.substring(0, end)).toLowerCase(Locale.ROOT);
+        return OPERATIONS.contains(verb) ? verb : "other";
+    }
+
+    private static final class Shape {
+        private final String sql;
+        private final String operation;
+        private final LongAdder count = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final AtomicLong maxNanos = new AtomicLong();
+        private final LongAdder slowCount = new LongAdder();
+        private final LongAdder[] buckets = new LongAdder[BUCKET_MILLIS.length + 1];
+        private volatile String lastSlowCaller;
+
+        Shape(String sql) {
+            this.sql = sql;
+            this.operation = operationOf(sql);
+            for (int i = 0; i < buckets.length; i++) {
+                buckets[i] = new LongAdder();
+            }
+        }
+
+        void record(long nanos) {
+            count.increment();
+            totalNanos.add(nanos);
+            maxNanos.accumulateAndGet(nanos, Math::max);
+            long millis = TimeUnit.NANOSECONDS.toMillis(nanos);
+            int bucket = 0;
+            while (bucket < BUCKET_MILLIS.length && millis >= BUCKET_MILLIS[bucket]) {
+                bucket++;
+            }
+            buckets[bucket].increment();
+        }
+
+        void slow(String caller) {
+            slowCount.increment();
+            lastSlowCaller = caller;
+        }
+
+        QueryShapeStats toStats() {
+            long executions = count.sum();
+            double total = totalNanos.sum() / 1_000_000.0;
+            Map<String, Long> histogram = new LinkedHashMap<>();
+            for (int i = 0; i < BUCKET_MILLIS.length; i++) {
+                histogram.put("<" + BUCKET_MILLIS[i] + "ms", buckets[i].sum());
+            }
+            histogram.put(">=" + BUCKET_MILLIS[BUCKET_MILLIS.length - 1] + "ms", buckets[BUCKET_MILLIS.length].sum());
+            return new QueryShapeStats(sql, operation, executions, total, executions == 0 ? 0 : total / executions,
+                    maxNanos.get() / 1_000_000.0, slowCount.sum(), lastSlowCaller, histogram);
+        }
+    }
+}
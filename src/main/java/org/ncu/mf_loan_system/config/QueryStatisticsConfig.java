@@ -0,0 +1,27 @@
+package org.ncu.mf_loan_system.config;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+@Configuration
+public class QueryStatisticsConfig {
+
+    // Wraps the DataSource the application uses (the routing proxy when a replica is configured),
+    // so replica reads are timed too. Static, since post-processors are created before other beans
+    @Bean
+    public static BeanPostProcessor statementTimingPostProcessor(ObjectProvider<QueryStatistics> statistics) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && "dataSource".equals(beanName)) {
+                    return new StatementTimingDataSource(dataSource, statistics);
+                }
+                return bean;
+            }
+        };
+    }
+}
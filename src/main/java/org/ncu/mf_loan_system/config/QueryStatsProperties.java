@@ -0,0 +1,32 @@
+package org.ncu.mf_loan_system.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+@ConfigurationProperties(prefix = "query.stats")
+public class QueryStatsProperties {
+    // Statements taking at least this long are logged with the method that issued them
+    private Duration slowThreshold = Duration.ofMillis(500);
+    // Distinct statement shapes tracked; anything past this is folded into one "(other)" entry
+    private int maxShapes = 2_000;
+
+    // Getters and Setters
+    public Duration getSlowThreshold() {
+        return slowThreshold;
+    }
+
+    public void setSlowThreshold(Duration slowThreshold) {
+        this.slowThreshold = slowThreshold;
+    }
+
+    public int getMaxShapes() {
+        return maxShapes;
+    }
+
+    public void setMaxShapes(int maxShapes) {
+        this.maxShapes = maxShapes;
+    }
+}
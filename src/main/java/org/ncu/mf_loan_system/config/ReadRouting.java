@@ -0,0 +1,42 @@
+package org.ncu.mf_loan_system.config;
+
+import java.util.function.Supplier;
+
+// Pins read-only transactions on the current thread to the primary, for callers that
+// must see their own (or very recent) writes. No effect when no replica is configured.
+public final class ReadRouting {
+
+    private static final ThreadLocal<Integer> PINNED = ThreadLocal.withInitial(() -> 0);
+
+    public interface Pin extends AutoCloseable {
+        @Override
+        void close();
+    }
+
+    private ReadRouting() {
+    }
+
+    public static Pin pinToPrimary() {
+        PINNED.set(PINNED.get() + 1);
+        return ReadRouting::unpin;
+    }
+
+    public static <T> T onPrimary(Supplier<T> work) {
+        try (Pin ignored = pinToPrimary()) {
+            return work.get();
+        }
+    }
+
+    public static boolean pinnedToPrimary() {
+        return PINNED.get() > 0;
+    }
+
+    private static void unpin() {
+        int depth = PINNED.get() - 1;
+        if (depth == 0) {
+            PINNED.remove();
+        } else {
+            PINNED.set(depth);
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package org.ncu.mf_loan_system.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+@ConfigurationProperties(prefix = "loan.reconciliation")
+public class ReconciliationProperties {
+    // Matched lines handed to the bulk payment path per call (at most its 20,000 row limit)
+    private int postingBatchSize = 10000;
+    // Workers posting in parallel; matched lines are split between them by loan id
+    private int postingThreads = 4;
+    // Open loans read per query while building the match index
+    private int indexPageSize = 10000;
+    // Phones are compared on their last digits, so national and international formats match
+    private int phoneMatchDigits = 9;
+    // Exceptions returned inline with the reconciliation report
+    private int reportExceptions = 100;
+    // A RUNNING run whose progress is older than this is taken to have died and may be resumed
+    private Duration staleAfter = Duration.ofMinutes(10);
+
+    // Getters and Setters
+    public int getPostingBatchSize() {
+        return postingBatchSize;
+    }
+
+    public void setPostingBatchSize(int postingBatchSize) {
+        this.postingBatchSize = postingBatchSize;
+    }
+
+    public int getPostingThreads() {
+        return postingThreads;
+    }
+
+    public void setPostingThreads(int postingThreads) {
+        this.postingThreads = postingThreads;
+    }
+
+    public int getIndexPageSize() {
+        return indexPageSize;
+    }
+
+    public void setIndexPageSize(int indexPageSize) {
+        this.indexPageSize = indexPageSize;
+    }
+
+    public int getPhoneMatchDigits() {
+        return phoneMatchDigits;
+    }
+
+    public void setPhoneMatchDigits(int phoneMatchDigits) {
+        this.phoneMatchDigits = phoneMatchDigits;
+    }
+
+    public int getReportExceptions() {
+        return reportExceptions;
+    }
+
+    public void setReportExceptions(int reportExceptions) {
+        this.reportExceptions = reportExceptions;
+    }
+
+    public Duration getStaleAfter() {
+        return staleAfter;
+    }
+
+    public void setStaleAfter(Duration staleAfter) {
+        this.staleAfter = staleAfter;
+    }
+}
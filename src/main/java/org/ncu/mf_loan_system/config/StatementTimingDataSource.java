@@ -0,0 +1,84 @@
+package org.ncu.mf_loan_system.config;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+// Times every execute* call on statements created from the wrapped DataSource and reports it
+// to QueryStatistics under the SQL the statement was prepared with (or was given directly).
+// Covers Hibernate selects, flushes and JDBC batches as well as JdbcTemplate work, and is the
+// one place statements are counted, for the per-request counts as well as the shape statistics.
+class StatementTimingDataSource extends DelegatingDataSource {
+
+    private final ObjectProvider<QueryStatistics> statisticsProvider;
+    // Resolved on first use; the DataSource is handed out before the rest of the context is ready
+    private volatile QueryStatistics statistics;
+
+    StatementTimingDataSource(DataSource target, ObjectProvider<QueryStatistics> statisticsProvider) {
+        super(target);
+        this.statisticsProvider = statisticsProvider;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return timed(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return timed(super.getConnection(username, password));
+    }
+
+    private Connection timed(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    Object result = invoke(connection, method, args);
+                    if (result instanceof Statement statement) {
+                        String sql = args != null && args.length > 0 && args[0] instanceof String s ? s : null;
+                        return timed(statement, method.getReturnType(), sql);
+                    }
+                    return result;
+                });
+    }
+
+    // type is the interface the caller asked for (Statement, PreparedStatement or CallableStatement)
+    private Object timed(Statement statement, Class<?> type, String preparedSql) {
+        return Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{type},
+                (proxy, method, args) -> {
+                    if (!method.getName().startsWith("execute")) {
+                        return invoke(statement, method, args);
+                    }
+                    String sql = args != null && args.length > 0 && args[0] instanceof String s ? s : preparedSql;
+                    long start = System.nanoTime();
+                    try {
+                        return invoke(statement, method, args);
+                    } finally {
+                        statistics().record(sql, System.nanoTime() - start);
+                    }
+                });
+    }
+
+    private QueryStatistics statistics() {
+        QueryStatistics resolved = statistics;
+        if (resolved == null) {
+            resolved = statisticsProvider.getObject();
+            statistics = resolved;
+        }
+        return resolved;
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException ex) {
+            throw ex.getTargetException();
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package org.ncu.mf_loan_system.controller;
+
+import org.ncu.mf_loan_system.entities.InterestAccrualPartition;
+import org.ncu.mf_loan_system.service.InterestAccrualJob;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+//import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/accruals")
+//@PreAuthorize("isAuthenticated()")
+public class AccrualController {
+
+    private final InterestAccrualJob accrualJob;
+
+    public AccrualController(InterestAccrualJob accrualJob) {
+        this.accrualJob = accrualJob;
+    }
+
+    // Runs (or resumes) a day's accrual; finished partitions are skipped
+    @PostMapping("/{date}")
+//    @PreAuthorize("hasRole('MANAGER')")
+    public ResponseEntity<List<InterestAccrualPartition>> accrue(
+            @PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+        return ResponseEntity.ok(accrualJob.accrue(date));
+    }
+}
@@ -1,7 +1,9 @@
 package org.ncu.mf_loan_system.controller;
 
+import org.ncu.mf_loan_system.dto.CursorPage;
+import org.ncu.mf_loan_system.dto.LoanWithPayments;
+import org.ncu.mf_loan_system.dto.SearchPage;
 import org.ncu.mf_loan_system.entities.Client;
-import org.ncu.mf_loan_system.entities.Loan;
 import org.ncu.mf_loan_system.service.ClientService;
 import org.ncu.mf_loan_system.service.LoanService;
 import org.springframework.http.ResponseEntity;
@@ -25,8 +27,19 @@ public class ClientController {
 
     @GetMapping
 //    @PreAuthorize("hasAnyRole('LOAN_OFFICER', 'MANAGER', 'STAFF')")
-    public ResponseEntity<List<Client>> getAllClients() {
-        return ResponseEntity.ok(clientService.getAllClients());
+    public ResponseEntity<CursorPage<Client>> getAllClients(
+            @RequestParam(required = false) Long cursor,
+            @RequestParam(required = false) Integer size) {
+        return ResponseEntity.ok(clientService.getClientsPage(cursor, size));
+    }
+
+    @GetMapping("/search")
+//    @PreAuthorize("hasAnyRole('LOAN_OFFICER', 'MANAGER', 'STAFF')")
+    public ResponseEntity<SearchPage<Client>> searchClients(
+            @RequestParam String q,
+            @RequestParam(required = false) Integer page,
+            @RequestParam(required = false) Integer size) {
+        return ResponseEntity.ok(clientService.searchClients(q, page, size));
     }
 
     @GetMapping("/{id}")
@@ -37,8 +50,10 @@ public class ClientController {
 
     @GetMapping("/{clientId}/loans")
     //    @PreAuthorize("hasAnyRole('LOAN_OFFICER', 'MANAGER')")
-    public ResponseEntity<List<Loan>> getClientLoans(@PathVariable Long clientId) {
-        return ResponseEntity.ok(loanService.getLoansByClientId(clientId));
+    public ResponseEntity<List<LoanWithPayments>> getClientLoans(
+            @PathVariable Long clientId,
+            @RequestParam(defaultValue = "false") boolean includePayments) {
+        return ResponseEntity.ok(loanService.getLoansByClientId(clientId, includePayments));
     }
 
     @PostMapping
@@ -0,0 +1,48 @@
+package org.ncu.mf_loan_system.controller;
+
+import org.ncu.mf_loan_system.dto.CursorPage;
+import org.ncu.mf_loan_system.dto.LoanImportReport;
+import org.ncu.mf_loan_system.entities.LoanImportError;
+import org.ncu.mf_loan_system.service.LoanImportService;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+//import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.InputStream;
+
+@RestController
+@RequestMapping("/api/import")
+//@PreAuthorize("isAuthenticated()")
+public class ImportController {
+
+    private final LoanImportService importService;
+
+    public ImportController(LoanImportService importService) {
+        this.importService = importService;
+    }
+
+    // Raw CSV body, streamed; re-upload the same file with ?resume={id} to continue a failed import
+    @PostMapping(value = "/loans", consumes = {"text/csv", MediaType.TEXT_PLAIN_VALUE,
+            MediaType.APPLICATION_OCTET_STREAM_VALUE})
+//    @PreAuthorize("hasRole('MANAGER')")
+    public ResponseEntity<LoanImportReport> importLoans(InputStream csv,
+                                                        @RequestParam(required = false) String fileName,
+                                                        @RequestParam(required = false) Long resume) {
+        return ResponseEntity.ok(importService.importLoans(csv, fileName, resume));
+    }
+
+    @GetMapping("/loans/{id}")
+//    @PreAuthorize("hasRole('MANAGER')")
+    public ResponseEntity<LoanImportReport> getImport(@PathVariable Long id) {
+        return ResponseEntity.ok(importService.getImport(id));
+    }
+
+    @GetMapping("/loans/{id}/errors")
+//    @PreAuthorize("hasRole('MANAGER')")
+    public ResponseEntity<CursorPage<LoanImportError>> getImportErrors(@PathVariable Long id,
+                                                                      @RequestParam(required = false) Long cursor,
+                                                                      @RequestParam(required = false) Integer size) {
+        return ResponseEntity.ok(importService.getImportErrors(id, cursor, size));
+    }
+}
@@ -1,13 +1,21 @@
 package org.ncu.mf_loan_system.controller;
 
+import org.ncu.mf_loan_system.dto.CursorPage;
+import org.ncu.mf_loan_system.dto.LoanRow;
+import org.ncu.mf_loan_system.dto.LoanWithPayments;
+import org.ncu.mf_loan_system.dto.PortfolioSummary;
+import org.ncu.mf_loan_system.entities.Installment;
 import org.ncu.mf_loan_system.entities.Loan;
 import org.ncu.mf_loan_system.service.LoanService;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 //import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/loans")
@@ -22,8 +30,14 @@ public class LoanController {
 
     @GetMapping
 //    @PreAuthorize("hasAnyRole('LOAN_OFFICER', 'MANAGER', 'AUDITOR')")
-    public ResponseEntity<List<Loan>> getAllLoans() {
-        return ResponseEntity.ok(loanService.getAllLoans());
+    public ResponseEntity<CursorPage<LoanRow>> getAllLoans(
+            @RequestParam(required = false) Long cursor,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) Loan.LoanStatus status,
+            @RequestParam(required = false) Long clientId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return ResponseEntity.ok(loanService.getLoansPage(cursor, size, status, clientId, from, to));
     }
 
     @GetMapping("/{id}")
@@ -34,13 +48,14 @@ public class LoanController {
     // LoanController.java
     @GetMapping("/{id}/status")
     public ResponseEntity<String> getLoanStatus(@PathVariable Long id) {
-        Loan loan = loanService.getLoanById(id);
-        return ResponseEntity.ok(loan.getStatus().toString());
+        return ResponseEntity.ok(loanService.getLoanSnapshot(id).status().toString());
     }
     @GetMapping("/client/{clientId}")
 //    @PreAuthorize("hasAnyRole('LOAN_OFFICER', 'MANAGER', 'AUDITOR')")
-    public ResponseEntity<List<Loan>> getLoansByClient(@PathVariable Long clientId) {
-        return ResponseEntity.ok(loanService.getLoansByClientId(clientId));
+    public ResponseEntity<List<LoanWithPayments>> getLoansByClient(
+            @PathVariable Long clientId,
+            @RequestParam(defaultValue = "false") boolean includePayments) {
+        return ResponseEntity.ok(loanService.getLoansByClientId(clientId, includePayments));
     }
 
     @PostMapping
@@ -68,12 +83,48 @@ public class LoanController {
         return ResponseEntity.ok(loanService.getOutstandingBalance(id));
     }
 
+    @GetMapping("/summary/outstanding")
+//    @PreAuthorize("hasAnyRole('MANAGER', 'AUDITOR')")
+    public ResponseEntity<BigDecimal> getTotalOutstandingAmount() {
+        return ResponseEntity.ok(loanService.getTotalOutstandingAmount());
+    }
+
+    @GetMapping("/summary/portfolio")
+//    @PreAuthorize("hasAnyRole('MANAGER', 'AUDITOR')")
+    public ResponseEntity<PortfolioSummary> getPortfolioSummary() {
+        return ResponseEntity.ok(loanService.getPortfolioSummary());
+    }
+
     @GetMapping("/{id}/emi")
 //    @PreAuthorize("hasAnyRole('LOAN_OFFICER', 'MANAGER')")
     public ResponseEntity<BigDecimal> calculateLoanEMI(@PathVariable Long id) {
         return ResponseEntity.ok(loanService.calculateEMI(id));
     }
 
+    @GetMapping("/cache/stats")
+//    @PreAuthorize("hasRole('MANAGER')")
+    public ResponseEntity<Map<String, Object>> getCacheStats() {
+        return ResponseEntity.ok(loanService.getSnapshotCacheStats());
+    }
+
+    @GetMapping("/{id}/schedule")
+//    @PreAuthorize("hasAnyRole('LOAN_OFFICER', 'MANAGER', 'AUDITOR')")
+    public ResponseEntity<List<Installment>> getSchedule(@PathVariable Long id) {
+        return ResponseEntity.ok(loanService.getSchedule(id));
+    }
+
+    @GetMapping("/{id}/next-installment")
+//    @PreAuthorize("hasAnyRole('LOAN_OFFICER', 'MANAGER')")
+    public ResponseEntity<Installment> getNextInstallment(@PathVariable Long id) {
+        return ResponseEntity.ok(loanService.getNextInstallment(id));
+    }
+
+    @GetMapping("/{id}/arrears")
+//    @PreAuthorize("hasAnyRole('LOAN_OFFICER', 'MANAGER', 'AUDITOR')")
+    public ResponseEntity<BigDecimal> getArrears(@PathVariable Long id) {
+        return ResponseEntity.ok(loanService.getArrears(id));
+    }
+
     @PostMapping("/{id}/payments")
 //    @PreAuthorize("hasAnyRole('LOAN_OFFICER', 'MANAGER')")
     public ResponseEntity<Void> processPayment(
@@ -84,7 +135,9 @@ public class LoanController {
     }
 
     @GetMapping("/overdue")
-    public ResponseEntity<List<Loan>> getOverdueLoans() {
-        return ResponseEntity.ok(loanService.getOverdueLoans());
+    public ResponseEntity<CursorPage<LoanRow>> getOverdueLoans(
+            @RequestParam(required = false) Long cursor,
+            @RequestParam(required = false) Integer size) {
+        return ResponseEntity.ok(loanService.getOverdueLoans(cursor, size));
     }
 }
\ No newline at end of file
@@ -0,0 +1,31 @@
+package org.ncu.mf_loan_system.controller;
+
+import org.ncu.mf_loan_system.dto.ParSummary;
+import org.ncu.mf_loan_system.service.ParAgingService;
+import org.springframework.http.ResponseEntity;
+//import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/par")
+//@PreAuthorize("isAuthenticated()")
+public class ParController {
+
+    private final ParAgingService parAgingService;
+
+    public ParController(ParAgingService parAgingService) {
+        this.parAgingService = parAgingService;
+    }
+
+    @GetMapping
+//    @PreAuthorize("hasAnyRole('MANAGER', 'AUDITOR')")
+    public ResponseEntity<ParSummary> getPortfolioPar() {
+        return ResponseEntity.ok(parAgingService.getPortfolioPar());
+    }
+
+    @GetMapping("/clients/{clientId}")
+//    @PreAuthorize("hasAnyRole('LOAN_OFFICER', 'MANAGER', 'AUDITOR')")
+    public ResponseEntity<ParSummary> getClientPar(@PathVariable Long clientId) {
+        return ResponseEntity.ok(parAgingService.getClientPar(clientId));
+    }
+}
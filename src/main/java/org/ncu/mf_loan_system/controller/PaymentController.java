@@ -1,11 +1,17 @@
 package org.ncu.mf_loan_system.controller;
 
+import org.ncu.mf_loan_system.dto.BulkPaymentRequest;
+import org.ncu.mf_loan_system.dto.BulkPaymentResult;
+import org.ncu.mf_loan_system.dto.CursorPage;
+import org.ncu.mf_loan_system.dto.PaymentRow;
 import org.ncu.mf_loan_system.entities.Payment;
 import org.ncu.mf_loan_system.service.PaymentService;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 //import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
 import java.util.List;
 
 @RestController
@@ -21,8 +27,14 @@ public class PaymentController {
 
     @GetMapping
 //    @PreAuthorize("hasAnyRole('LOAN_OFFICER', 'MANAGER', 'AUDITOR')")
-    public ResponseEntity<List<Payment>> getAllPayments() {
-        return ResponseEntity.ok(paymentService.getAllPayments());
+    public ResponseEntity<CursorPage<PaymentRow>> getAllPayments(
+            @RequestParam(required = false) Long cursor,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) Long loanId,
+            @RequestParam(required = false) Long clientId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return ResponseEntity.ok(paymentService.getPaymentsPage(cursor, size, loanId, clientId, from, to));
     }
 
     @GetMapping("/{id}")
@@ -37,6 +49,12 @@ public class PaymentController {
         return ResponseEntity.status(201).body(paymentService.createPayment(payment));
     }
 
+    @PostMapping("/bulk")
+//    @PreAuthorize("hasAnyRole('LOAN_OFFICER', 'MANAGER')")
+    public ResponseEntity<List<BulkPaymentResult>> createPayments(@RequestBody List<BulkPaymentRequest> payments) {
+        return ResponseEntity.ok(paymentService.createPayments(payments));
+    }
+
     @PutMapping("/{id}")
 //    @PreAuthorize("hasAnyRole('LOAN_OFFICER', 'MANAGER')")
     public ResponseEntity<Payment> updatePayment(@PathVariable Long id, @RequestBody Payment payment) {
@@ -0,0 +1,49 @@
+package org.ncu.mf_loan_system.controller;
+
+import org.ncu.mf_loan_system.config.PaymentJournalProperties;
+import org.ncu.mf_loan_system.dto.BulkPaymentRequest;
+import org.ncu.mf_loan_system.dto.CursorPage;
+import org.ncu.mf_loan_system.dto.JournalReceipt;
+import org.ncu.mf_loan_system.entities.JournalExceptionItem;
+import org.ncu.mf_loan_system.service.PaymentJournal;
+import org.ncu.mf_loan_system.service.PaymentService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+//import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/payments/journal")
+@ConditionalOnProperty(prefix = "payment.journal", name = "enabled", havingValue = "true")
+//@PreAuthorize("isAuthenticated()")
+public class PaymentJournalController {
+
+    private final PaymentJournal journal;
+    private final PaymentService paymentService;
+    private final PaymentJournalProperties properties;
+
+    public PaymentJournalController(PaymentJournal journal, PaymentService paymentService,
+                                    PaymentJournalProperties properties) {
+        this.journal = journal;
+        this.paymentService = paymentService;
+        this.properties = properties;
+    }
+
+    // 202: durable on this node's disk, posted to the loan shortly after
+    @PostMapping
+//    @PreAuthorize("hasAnyRole('LOAN_OFFICER', 'MANAGER')")
+    public ResponseEntity<JournalReceipt> journalPayment(@RequestBody BulkPaymentRequest payment) {
+        PaymentJournal.Entry entry = journal.append(payment.loanId(), payment.amount(), payment.paymentDate());
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(new JournalReceipt(entry.sequence(), entry.loanId()));
+    }
+
+    // Acknowledged entries this node's journal could not post, oldest first
+    @GetMapping("/exceptions")
+//    @PreAuthorize("hasAnyRole('LOAN_OFFICER', 'MANAGER')")
+    public ResponseEntity<CursorPage<JournalExceptionItem>> getExceptions(
+            @RequestParam(required = false) Long cursor,
+            @RequestParam(required = false) Integer size) {
+        return ResponseEntity.ok(paymentService.getJournalExceptions(properties.getName(), cursor, size));
+    }
+}
@@ -0,0 +1,48 @@
+package org.ncu.mf_loan_system.controller;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.ncu.mf_loan_system.config.QueryStatistics;
+import org.ncu.mf_loan_system.dto.QueryStatsReport;
+import org.springframework.http.ResponseEntity;
+//import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/queries")
+//@PreAuthorize("isAuthenticated()")
+public class QueryStatsController {
+
+    private static final int MAX_LIMIT = 500;
+
+    private final QueryStatistics queryStatistics;
+    private final EntityManagerFactory entityManagerFactory;
+
+    public QueryStatsController(QueryStatistics queryStatistics, EntityManagerFactory entityManagerFactory) {
+        this.queryStatistics = queryStatistics;
+        this.entityManagerFactory = entityManagerFactory;
+    }
+
+    @GetMapping
+//    @PreAuthorize("hasRole('MANAGER')")
+    public ResponseEntity<QueryStatsReport> getQueryStats(@RequestParam(defaultValue = "50") int limit) {
+        return ResponseEntity.ok(new QueryStatsReport(queryStatistics.getSlowThresholdMillis(),
+                queryStatistics.getShapeCount(),
+                queryStatistics.getShapes(Math.max(1, Math.min(limit, MAX_LIMIT))),
+                QueryStatsReport.HibernateCounters.of(hibernateStatistics())));
+    }
+
+    // Starts a fresh measurement window, e.g. before a load test
+    @DeleteMapping
+//    @PreAuthorize("hasRole('MANAGER')")
+    public ResponseEntity<Void> resetQueryStats() {
+        queryStatistics.reset();
+        hibernateStatistics().clear();
+        return ResponseEntity.noContent().build();
+    }
+
+    private Statistics hibernateStatistics() {
+        return entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+}
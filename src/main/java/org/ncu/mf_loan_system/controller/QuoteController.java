@@ -0,0 +1,28 @@
+package org.ncu.mf_loan_system.controller;
+
+import org.ncu.mf_loan_system.dto.EmiQuote;
+import org.ncu.mf_loan_system.dto.QuoteGridRequest;
+import org.ncu.mf_loan_system.service.QuoteService;
+import org.springframework.http.ResponseEntity;
+//import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/quotes")
+//@PreAuthorize("isAuthenticated()")
+public class QuoteController {
+
+    private final QuoteService quoteService;
+
+    public QuoteController(QuoteService quoteService) {
+        this.quoteService = quoteService;
+    }
+
+    @PostMapping("/emi")
+//    @PreAuthorize("hasAnyRole('LOAN_OFFICER', 'MANAGER')")
+    public ResponseEntity<List<EmiQuote>> quoteGrid(@RequestBody QuoteGridRequest request) {
+        return ResponseEntity.ok(quoteService.quoteGrid(request));
+    }
+}
@@ -0,0 +1,56 @@
+package org.ncu.mf_loan_system.controller;
+
+import org.ncu.mf_loan_system.dto.CursorPage;
+import org.ncu.mf_loan_system.dto.ReconciliationReport;
+import org.ncu.mf_loan_system.entities.ReconciliationExceptionItem;
+import org.ncu.mf_loan_system.service.ReconciliationService;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+//import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.InputStream;
+
+@RestController
+@RequestMapping("/api/reconciliations")
+//@PreAuthorize("isAuthenticated()")
+public class ReconciliationController {
+
+    private final ReconciliationService reconciliationService;
+
+    public ReconciliationController(ReconciliationService reconciliationService) {
+        this.reconciliationService = reconciliationService;
+    }
+
+    // Raw settlement CSV (reference, loan_reference, phone, amount, value_date), streamed
+    @PostMapping(consumes = {"text/csv", MediaType.TEXT_PLAIN_VALUE, MediaType.APPLICATION_OCTET_STREAM_VALUE})
+//    @PreAuthorize("hasAnyRole('LOAN_OFFICER', 'MANAGER')")
+    public ResponseEntity<ReconciliationReport> reconcile(InputStream statement,
+                                                          @RequestParam(required = false) String fileName) {
+        return ResponseEntity.ok(reconciliationService.reconcile(statement, fileName));
+    }
+
+    // The same file again, for a run that failed part-way; already posted lines are skipped
+    @PostMapping(value = "/{id}/resume",
+            consumes = {"text/csv", MediaType.TEXT_PLAIN_VALUE, MediaType.APPLICATION_OCTET_STREAM_VALUE})
+//    @PreAuthorize("hasAnyRole('LOAN_OFFICER', 'MANAGER')")
+    public ResponseEntity<ReconciliationReport> resume(@PathVariable Long id, InputStream statement) {
+        return ResponseEntity.ok(reconciliationService.resume(id, statement));
+    }
+
+    @GetMapping("/{id}")
+//    @PreAuthorize("hasAnyRole('LOAN_OFFICER', 'MANAGER')")
+    public ResponseEntity<ReconciliationReport> getReconciliation(@PathVariable Long id) {
+        return ResponseEntity.ok(reconciliationService.getReconciliation(id));
+    }
+
+    @GetMapping("/{id}/exceptions")
+//    @PreAuthorize("hasAnyRole('LOAN_OFFICER', 'MANAGER')")
+    public ResponseEntity<CursorPage<ReconciliationExceptionItem>> getExceptions(
+            @PathVariable Long id,
+            @RequestParam(required = false) Long cursor,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) ReconciliationExceptionItem.Reason reason) {
+        return ResponseEntity.ok(reconciliationService.getExceptions(id, cursor, size, reason));
+    }
+}
@@ -0,0 +1,53 @@
+package org.ncu.mf_loan_system.controller;
+
+import org.ncu.mf_loan_system.dto.CursorPage;
+import org.ncu.mf_loan_system.dto.PortfolioSnapshot;
+import org.ncu.mf_loan_system.entities.Loan;
+import org.ncu.mf_loan_system.entities.LoanDailySnapshot;
+import org.ncu.mf_loan_system.service.ReportService;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+//import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.List;
+
+// End-of-day figures from the snapshot tables; date defaults to the latest snapshot
+@RestController
+@RequestMapping("/api/reports")
+//@PreAuthorize("isAuthenticated()")
+public class ReportController {
+
+    private final ReportService reportService;
+
+    public ReportController(ReportService reportService) {
+        this.reportService = reportService;
+    }
+
+    @GetMapping("/portfolio")
+//    @PreAuthorize("hasAnyRole('MANAGER', 'AUDITOR')")
+    public ResponseEntity<PortfolioSnapshot> getPortfolioSnapshot(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+        return ResponseEntity.ok(reportService.getPortfolioSnapshot(date));
+    }
+
+    @GetMapping("/loans")
+//    @PreAuthorize("hasAnyRole('MANAGER', 'AUDITOR')")
+    public ResponseEntity<CursorPage<LoanDailySnapshot>> getLoanSnapshots(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+            @RequestParam(required = false) Long cursor,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) Loan.LoanStatus status) {
+        return ResponseEntity.ok(reportService.getLoanSnapshots(date, cursor, size, status));
+    }
+
+    @GetMapping("/loans/{loanId}")
+//    @PreAuthorize("hasAnyRole('LOAN_OFFICER', 'MANAGER', 'AUDITOR')")
+    public ResponseEntity<List<LoanDailySnapshot>> getLoanHistory(
+            @PathVariable Long loanId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return ResponseEntity.ok(reportService.getLoanHistory(loanId, from, to));
+    }
+}
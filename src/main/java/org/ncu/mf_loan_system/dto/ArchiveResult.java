@@ -0,0 +1,5 @@
+package org.ncu.mf_loan_system.dto;
+
+// Rows moved to the archive tables by one archival call
+public record ArchiveResult(int clients, int loans, int payments) {
+}
@@ -0,0 +1,13 @@
+package org.ncu.mf_loan_system.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+// reference is the transfer's bank or mobile-money reference, if it has one; a row whose
+// reference was already posted is skipped (BulkPaymentResult.duplicate)
+public record BulkPaymentRequest(Long loanId, BigDecimal amount, LocalDate paymentDate, String reference) {
+
+    public BulkPaymentRequest(Long loanId, BigDecimal amount, LocalDate paymentDate) {
+        this(loanId, amount, paymentDate, null);
+    }
+}
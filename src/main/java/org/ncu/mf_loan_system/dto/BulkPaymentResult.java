@@ -0,0 +1,21 @@
+package org.ncu.mf_loan_system.dto;
+
+// Outcome of one row of a bulk repayment upload, keyed by its position in the request
+public record BulkPaymentResult(int index, Long loanId, Long paymentId, boolean posted, String error) {
+
+    public static final String DUPLICATE_REFERENCE = "Reference already posted";
+
+    public static BulkPaymentResult posted(int index, Long loanId, Long paymentId) {
+        return new BulkPaymentResult(index, loanId, paymentId, true, null);
+    }
+
+    public static BulkPaymentResult rejected(int index, Long loanId, String error) {
+        return new BulkPaymentResult(index, loanId, null, false, error);
+    }
+
+    // Not posted because a payment with the row's reference already exists (or an earlier row
+    // of the same upload carries it)
+    public static BulkPaymentResult duplicate(int index, Long loanId) {
+        return rejected(index, loanId, DUPLICATE_REFERENCE);
+    }
+}
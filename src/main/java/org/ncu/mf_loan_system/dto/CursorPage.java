@@ -0,0 +1,44 @@
+package org.ncu.mf_loan_system.dto;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.function.Function;
+
+// One page of a keyset (id > cursor) listing; nextCursor is null on the last page
+public record CursorPage<T>(List<T> items, Long nextCursor, int size) {
+
+    public static final int DEFAULT_SIZE = 50;
+    public static final int MAX_SIZE = 500;
+
+    public static int clampSize(Integer requested) {
+        if (requested == null) {
+            return DEFAULT_SIZE;
+        }
+        return Math.max(1, Math.min(requested, MAX_SIZE));
+    }
+
+    // Open ends of a listing's date filter, inside the DATE range every supported database takes
+    private static final LocalDate EARLIEST = LocalDate.of(1000, 1, 1);
+    private static final LocalDate LATEST = LocalDate.of(9999, 12, 31);
+
+    public static long startAfter(Long cursor) {
+        return cursor != null ? cursor : 0L;
+    }
+
+    public static LocalDate onOrAfter(LocalDate from) {
+        return from != null ? from : EARLIEST;
+    }
+
+    public static LocalDate onOrBefore(LocalDate to) {
+        return to != null ? to : LATEST;
+    }
+
+    // Expects rows fetched with a limit of size + 1, the extra row only signalling that more exist
+    public static <T> CursorPage<T> of(List<T> rows, int size, Function<T, Long> idOf) {
+        if (rows.size() <= size) {
+            return new CursorPage<>(rows, null, size);
+        }
+        List<T> items = rows.subList(0, size);
+        return new CursorPage<>(items, idOf.apply(items.get(size - 1)), size);
+    }
+}
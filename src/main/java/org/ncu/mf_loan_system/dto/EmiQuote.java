@@ -0,0 +1,12 @@
+package org.ncu.mf_loan_system.dto;
+
+import java.math.BigDecimal;
+
+public record EmiQuote(
+        BigDecimal amount,
+        BigDecimal rate,
+        int tenorMonths,
+        BigDecimal emi,
+        BigDecimal totalPayable,
+        BigDecimal totalInterest) {
+}
@@ -0,0 +1,5 @@
+package org.ncu.mf_loan_system.dto;
+
+// Acknowledgement for a repayment that is durable in the local journal but not yet posted
+public record JournalReceipt(long sequence, Long loanId) {
+}
@@ -0,0 +1,7 @@
+package org.ncu.mf_loan_system.dto;
+
+import java.time.LocalDate;
+
+// Due date of a loan's first installment not yet covered by its total paid
+public record LoanDueDate(Long loanId, LocalDate dueDate) {
+}
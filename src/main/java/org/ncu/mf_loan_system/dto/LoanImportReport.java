@@ -0,0 +1,25 @@
+package org.ncu.mf_loan_system.dto;
+
+import org.ncu.mf_loan_system.entities.LoanImport;
+import org.ncu.mf_loan_system.entities.LoanImportError;
+
+import java.util.List;
+
+// Import progress plus the first rejected rows; the full list is paged from
+// GET /api/import/loans/{id}/errors
+public record LoanImportReport(
+        Long importId,
+        String fileName,
+        LoanImport.ImportStatus status,
+        long rowsCommitted,
+        long imported,
+        long rejected,
+        long clientsCreated,
+        String lastError,
+        List<LoanImportError> errors) {
+
+    public static LoanImportReport of(LoanImport job, List<LoanImportError> errors) {
+        return new LoanImportReport(job.getId(), job.getFileName(), job.getStatus(), job.getRowsCommitted(),
+                job.getImported(), job.getRejected(), job.getClientsCreated(), job.getLastError(), errors);
+    }
+}
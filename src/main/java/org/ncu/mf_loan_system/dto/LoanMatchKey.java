@@ -0,0 +1,8 @@
+package org.ncu.mf_loan_system.dto;
+
+import java.math.BigDecimal;
+
+// What a statement line can be matched on: loan id, the client's phone digits and the
+// loan's EMI (its first installment)
+public record LoanMatchKey(Long loanId, String phoneKey, BigDecimal emi) {
+}
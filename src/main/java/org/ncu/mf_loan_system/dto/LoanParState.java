@@ -0,0 +1,16 @@
+package org.ncu.mf_loan_system.dto;
+
+import org.ncu.mf_loan_system.entities.Loan;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+// The loan columns PAR aging depends on, read without loading the entity
+public record LoanParState(
+        Long loanId,
+        Long clientId,
+        Loan.LoanStatus status,
+        LocalDate nextPaymentDate,
+        BigDecimal principalAmount,
+        BigDecimal principalRepaid) {
+}
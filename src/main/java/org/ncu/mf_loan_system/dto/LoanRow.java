@@ -0,0 +1,20 @@
+package org.ncu.mf_loan_system.dto;
+
+import org.ncu.mf_loan_system.entities.Loan;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+// Flat, unmanaged view of a loan row, read with a JPQL constructor expression
+public record LoanRow(
+        Long id,
+        Long clientId,
+        BigDecimal principalAmount,
+        BigDecimal interestRate,
+        LocalDate startDate,
+        LocalDate endDate,
+        LocalDate nextPaymentDate,
+        Loan.LoanStatus status,
+        BigDecimal totalPaid,
+        BigDecimal outstandingBalance) {
+}
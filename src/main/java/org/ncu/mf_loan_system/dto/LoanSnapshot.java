@@ -0,0 +1,17 @@
+package org.ncu.mf_loan_system.dto;
+
+import org.ncu.mf_loan_system.entities.Loan;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+// Immutable read model of a loan's hot values, safe to share from the in-process cache
+public record LoanSnapshot(
+        Long id,
+        Long clientId,
+        Loan.LoanStatus status,
+        BigDecimal emi,
+        BigDecimal totalPaid,
+        BigDecimal outstandingBalance,
+        LocalDate nextPaymentDate) {
+}
@@ -0,0 +1,13 @@
+package org.ncu.mf_loan_system.dto;
+
+import org.ncu.mf_loan_system.entities.Loan;
+
+import java.math.BigDecimal;
+
+// Per-status projection of the loans table, computed with GROUP BY
+public interface LoanStatusTotals {
+    Loan.LoanStatus getStatus();
+    long getLoanCount();
+    BigDecimal getDisbursed();
+    BigDecimal getOutstanding();
+}
@@ -0,0 +1,35 @@
+package org.ncu.mf_loan_system.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonUnwrapped;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+// A loan's columns plus, optionally, its payments; payments is left out of the JSON when not loaded
+public record LoanWithPayments(
+        @JsonUnwrapped LoanRow loan,
+        @JsonInclude(JsonInclude.Include.NON_NULL) List<PaymentRow> payments) {
+
+    public static List<LoanWithPayments> withoutPayments(List<LoanRow> loans) {
+        return loans.stream().map(loan -> new LoanWithPayments(loan, null)).toList();
+    }
+
+    // Merge join: both lists must be ordered by loan id (payments may repeat a loan id)
+    public static List<LoanWithPayments> join(List<LoanRow> loans, List<PaymentRow> payments) {
+        List<LoanWithPayments> joined = new ArrayList<>(loans.size());
+        Iterator<PaymentRow> rows = payments.iterator();
+        PaymentRow pending = rows.hasNext() ? rows.next() : null;
+
+        for (LoanRow loan : loans) {
+            List<PaymentRow> loanPayments = new ArrayList<>();
+            while (pending != null && pending.loanId().equals(loan.id())) {
+                loanPayments.add(pending);
+                pending = rows.hasNext() ? rows.next() : null;
+            }
+            joined.add(new LoanWithPayments(loan, loanPayments));
+        }
+        return joined;
+    }
+}
@@ -0,0 +1,12 @@
+package org.ncu.mf_loan_system.dto;
+
+import org.ncu.mf_loan_system.entities.ParBucket;
+
+import java.math.BigDecimal;
+
+// Per-bucket sums over par_totals stripes or over one client's positions
+public interface ParBucketTotals {
+    ParBucket getBucket();
+    long getLoanCount();
+    BigDecimal getBalance();
+}
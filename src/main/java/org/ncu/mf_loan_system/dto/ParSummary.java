@@ -0,0 +1,55 @@
+package org.ncu.mf_loan_system.dto;
+
+import org.ncu.mf_loan_system.entities.ParBucket;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+// Outstanding principal by PAR bucket; par30/par60/par90 are the share of the portfolio
+// more than 30/60/90 days past due
+public record ParSummary(
+        long loanCount,
+        BigDecimal portfolio,
+        Map<ParBucket, BucketBreakdown> byBucket,
+        BigDecimal par30,
+        BigDecimal par60,
+        BigDecimal par90) {
+
+    public record BucketBreakdown(long loanCount, BigDecimal balance) {
+    }
+
+    public static ParSummary of(List<ParBucketTotals> totals) {
+        Map<ParBucket, BucketBreakdown> byBucket = new EnumMap<>(ParBucket.class);
+        for (ParBucket bucket : ParBucket.values()) {
+            byBucket.put(bucket, new BucketBreakdown(0, BigDecimal.ZERO));
+        }
+        long loanCount = 0;
+        BigDecimal portfolio = BigDecimal.ZERO;
+        for (ParBucketTotals row : totals) {
+            BigDecimal balance = row.getBalance() != null ? row.getBalance() : BigDecimal.ZERO;
+            byBucket.put(row.getBucket(), new BucketBreakdown(row.getLoanCount(), balance));
+            loanCount += row.getLoanCount();
+            portfolio = portfolio.add(balance);
+        }
+        return new ParSummary(loanCount, portfolio, byBucket,
+                ratio(byBucket, ParBucket.DPD_31_60, portfolio),
+                ratio(byBucket, ParBucket.DPD_61_90, portfolio),
+                ratio(byBucket, ParBucket.DPD_91_PLUS, portfolio));
+    }
+
+    private static BigDecimal ratio(Map<ParBucket, BucketBreakdown> byBucket, ParBucket from, BigDecimal portfolio) {
+        if (portfolio.signum() == 0) {
+            return BigDecimal.ZERO;
+        }
+        BigDecimal atRisk = BigDecimal.ZERO;
+        for (Map.Entry<ParBucket, BucketBreakdown> entry : byBucket.entrySet()) {
+            if (entry.getKey().compareTo(from) >= 0) {
+                atRisk = atRisk.add(entry.getValue().balance());
+            }
+        }
+        return atRisk.divide(portfolio, 4, RoundingMode.HALF_UP);
+    }
+}
@@ -0,0 +1,13 @@
+package org.ncu.mf_loan_system.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+public record PaymentRow(
+        @JsonIgnore Long loanId,
+        Long id,
+        BigDecimal amount,
+        LocalDate paymentDate) {
+}
@@ -0,0 +1,12 @@
+package org.ncu.mf_loan_system.dto;
+
+import org.ncu.mf_loan_system.entities.Loan;
+
+import java.math.BigDecimal;
+
+// Per-loan-status projection of the payments table, computed with GROUP BY
+public interface PaymentStatusTotals {
+    Loan.LoanStatus getStatus();
+    long getPaymentCount();
+    BigDecimal getCollected();
+}
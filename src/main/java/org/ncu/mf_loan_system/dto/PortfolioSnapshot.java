@@ -0,0 +1,26 @@
+package org.ncu.mf_loan_system.dto;
+
+import org.ncu.mf_loan_system.entities.Loan;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Map;
+
+// Portfolio as of the end of one day, from portfolio_daily_snapshots
+public record PortfolioSnapshot(
+        LocalDate date,
+        long loanCount,
+        long pastDueCount,
+        BigDecimal disbursed,
+        BigDecimal collected,
+        BigDecimal outstanding,
+        Map<Loan.LoanStatus, StatusBreakdown> byStatus) {
+
+    public record StatusBreakdown(
+            long loanCount,
+            long pastDueCount,
+            BigDecimal disbursed,
+            BigDecimal collected,
+            BigDecimal outstanding) {
+    }
+}
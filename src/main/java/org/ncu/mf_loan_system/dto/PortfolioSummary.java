@@ -0,0 +1,29 @@
+package org.ncu.mf_loan_system.dto;
+
+import org.ncu.mf_loan_system.entities.Loan;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+// Whole book, hot and archived: settled loans moved out by LoanArchivalJob still count here
+public record PortfolioSummary(
+        long loanCount,
+        long paymentCount,
+        BigDecimal disbursed,
+        BigDecimal collected,
+        BigDecimal outstanding,
+        Map<Loan.LoanStatus, StatusBreakdown> byStatus) {
+
+    public record StatusBreakdown(
+            long loanCount,
+            long paymentCount,
+            BigDecimal disbursed,
+            BigDecimal collected,
+            BigDecimal outstanding) {
+
+        public StatusBreakdown plus(StatusBreakdown other) {
+            return new StatusBreakdown(loanCount + other.loanCount, paymentCount + other.paymentCount,
+                    disbursed.add(other.disbursed), collected.add(other.collected), outstanding.add(other.outstanding));
+        }
+    }
+}
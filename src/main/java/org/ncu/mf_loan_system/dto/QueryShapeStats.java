@@ -0,0 +1,17 @@
+package org.ncu.mf_loan_system.dto;
+
+import java.util.Map;
+
+// One statement shape (SQL with literals and IN-list lengths folded away). histogram maps a
+// latency bucket label ("<1ms", "<5ms", ..., ">=5000ms") to the executions that fell in it
+public record QueryShapeStats(
+        String sql,
+        String operation,
+        long count,
+        double totalMillis,
+        double meanMillis,
+        double maxMillis,
+        long slowCount,
+        String lastSlowCaller,
+        Map<String, Long> histogram) {
+}
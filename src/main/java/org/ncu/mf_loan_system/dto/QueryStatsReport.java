@@ -0,0 +1,40 @@
+package org.ncu.mf_loan_system.dto;
+
+import org.hibernate.stat.Statistics;
+
+import java.util.List;
+
+// Statement shapes by total time spent, plus Hibernate's session factory counters when
+// hibernate.generate_statistics is on (null otherwise)
+public record QueryStatsReport(
+        long slowThresholdMillis,
+        int shapeCount,
+        List<QueryShapeStats> shapes,
+        HibernateCounters hibernate) {
+
+    public record HibernateCounters(
+            long sessionsOpened,
+            long transactions,
+            long statementsPrepared,
+            long queriesExecuted,
+            long queryMaxMillis,
+            String slowestQuery,
+            long entitiesLoaded,
+            long entitiesFetched,
+            long collectionsFetched,
+            long flushes,
+            long optimisticFailures) {
+
+        public static HibernateCounters of(Statistics statistics) {
+            if (!statistics.isStatisticsEnabled()) {
+                return null;
+            }
+            return new HibernateCounters(statistics.getSessionOpenCount(), statistics.getTransactionCount(),
+                    statistics.getPrepareStatementCount(), statistics.getQueryExecutionCount(),
+                    statistics.getQueryExecutionMaxTime(), statistics.getQueryExecutionMaxTimeQueryString(),
+                    statistics.getEntityLoadCount(), statistics.getEntityFetchCount(),
+                    statistics.getCollectionFetchCount(), statistics.getFlushCount(),
+                    statistics.getOptimisticFailureCount());
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package org.ncu.mf_loan_system.dto;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+// Every combination of amount x annual rate x tenor (in months) is quoted
+public record QuoteGridRequest(List<BigDecimal> amounts, List<BigDecimal> rates, List<Integer> tenors) {
+}
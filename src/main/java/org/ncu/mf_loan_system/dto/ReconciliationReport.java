@@ -0,0 +1,29 @@
+package org.ncu.mf_loan_system.dto;
+
+import org.ncu.mf_loan_system.entities.ReconciliationExceptionItem;
+import org.ncu.mf_loan_system.entities.StatementReconciliation;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+// Run totals plus the first exceptions; the full list is paged from
+// GET /api/reconciliations/{id}/exceptions
+public record ReconciliationReport(
+        Long reconciliationId,
+        String fileName,
+        StatementReconciliation.RunStatus status,
+        int loansIndexed,
+        long linesRead,
+        long posted,
+        BigDecimal amountPosted,
+        long duplicates,
+        long exceptions,
+        String lastError,
+        List<ReconciliationExceptionItem> firstExceptions) {
+
+    public static ReconciliationReport of(StatementReconciliation run, List<ReconciliationExceptionItem> exceptions) {
+        return new ReconciliationReport(run.getId(), run.getFileName(), run.getStatus(), run.getLoansIndexed(),
+                run.getLinesRead(), run.getPosted(), run.getAmountPosted(), run.getDuplicates(), run.getExceptions(), run.getLastError(),
+                exceptions);
+    }
+}
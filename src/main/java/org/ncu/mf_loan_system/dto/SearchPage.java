@@ -0,0 +1,19 @@
+package org.ncu.mf_loan_system.dto;
+
+import java.util.List;
+
+// One page of ranked search results; rank order is not id order, so pages are numbered
+public record SearchPage<T>(List<T> items, int page, int size, boolean hasMore) {
+
+    public static final int DEFAULT_SIZE = 20;
+    public static final int MAX_SIZE = 100;
+    // Deepest result reachable by paging; refine the query instead of paging further
+    public static final int MAX_RESULTS = 1000;
+
+    public static int clampSize(Integer requested) {
+        if (requested == null) {
+            return DEFAULT_SIZE;
+        }
+        return Math.max(1, Math.min(requested, MAX_SIZE));
+    }
+}
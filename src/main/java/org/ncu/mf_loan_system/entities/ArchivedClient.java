@@ -0,0 +1,37 @@
+package org.ncu.mf_loan_system.entities;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+// A removed client, copied over by INSERT ... SELECT (ArchiveServiceImpl). Keeps the original
+// id; email is not unique here, since a new client may take it over.
+@Entity
+@Table(name = "archived_clients")
+public class ArchivedClient {
+
+    @Id
+    private Long id;
+
+    @Column(nullable = false, length = 100)
+    private String name;
+
+    @Column(nullable = false)
+    private String email;
+
+    @Column(nullable = false)
+    private String phone;
+
+    @Column(nullable = false)
+    private LocalDateTime archivedAt;
+
+    protected ArchivedClient() {
+    }
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public String getName() { return name; }
+    public String getEmail() { return email; }
+    public String getPhone() { return phone; }
+    public LocalDateTime getArchivedAt() { return archivedAt; }
+}
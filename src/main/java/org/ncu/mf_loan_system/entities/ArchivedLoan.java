@@ -0,0 +1,111 @@
+package org.ncu.mf_loan_system.entities;
+
+import jakarta.persistence.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+// A loan moved out of the loans table with its final ledger, copied over by
+// INSERT ... SELECT (ArchiveServiceImpl). Keeps the original id; the schedule is not kept,
+// it follows from the terms (Loan.buildSchedule).
+@Entity
+@Table(name = "archived_loans", indexes = {
+        @Index(name = "idx_archived_loans_client", columnList = "client_id, id")
+})
+public class ArchivedLoan {
+
+    // PAID rows are settled loans moved out of the hot tables and still readable through
+    // LoanService; DELETED rows are gone as far as the API is concerned
+    public enum ArchiveReason { DELETED, PAID }
+
+    @Id
+    private Long id;
+
+    @Column(name = "client_id", nullable = false)
+    private Long clientId;
+
+    @Column(nullable = false, precision = 12, scale = 2)
+    private BigDecimal principalAmount;
+
+    @Column(nullable = false)
+    private BigDecimal interestRate;
+
+    @Column(nullable = false)
+    private LocalDate startDate;
+
+    @Column(nullable = false)
+    private LocalDate endDate;
+
+    private LocalDate nextPaymentDate;
+
+    @Enumerated(EnumType.STRING)
+    @Column(length = 16)
+    private Loan.LoanStatus status;
+
+    @Column(precision = 12, scale = 2)
+    private BigDecimal totalPaid;
+
+    @Column(precision = 12, scale = 2)
+    private BigDecimal principalRepaid;
+
+    @Column(precision = 12, scale = 2)
+    private BigDecimal interestRepaid;
+
+    @Column(precision = 12, scale = 2)
+    private BigDecimal outstandingBalance;
+
+    @Column(precision = 12, scale = 2)
+    private BigDecimal accruedInterest;
+
+    private LocalDate interestAccruedThrough;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private ArchiveReason reason;
+
+    @Column(nullable = false)
+    private LocalDateTime archivedAt;
+
+    protected ArchivedLoan() {
+    }
+
+    // Detached Loan for read paths that return entities; saving it is never intended
+    public Loan toLoan(Client client, List<Payment> payments) {
+        Loan loan = new Loan();
+        loan.setId(id);
+        loan.setClient(client);
+        loan.setPrincipalAmount(principalAmount);
+        loan.setInterestRate(interestRate);
+        loan.setStartDate(startDate);
+        loan.setEndDate(endDate);
+        loan.setNextPaymentDate(nextPaymentDate);
+        loan.setStatus(status);
+        loan.restoreLedger(totalPaid, principalRepaid, interestRepaid, outstandingBalance, accruedInterest,
+                interestAccruedThrough);
+        for (Payment payment : payments) {
+            payment.setLoan(loan);
+        }
+        loan.setPayments(payments);
+        return loan;
+    }
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public Long getClientId() { return clientId; }
+    public BigDecimal getPrincipalAmount() { return principalAmount; }
+    public BigDecimal getInterestRate() { return interestRate; }
+    public LocalDate getStartDate() { return startDate; }
+    public LocalDate getEndDate() { return endDate; }
+    public LocalDate getNextPaymentDate() { return nextPaymentDate; }
+    public Loan.LoanStatus getStatus() { return status; }
+    public BigDecimal getTotalPaid() { return totalPaid; }
+    public BigDecimal getPrincipalRepaid() { return principalRepaid; }
+    public BigDecimal getInterestRepaid() { return interestRepaid; }
+    public BigDecimal getOutstandingBalance() { return outstandingBalance; }
+    public BigDecimal getAccruedInterest() { return accruedInterest; }
+    public LocalDate getInterestAccruedThrough() { return interestAccruedThrough; }
+    public ArchiveReason getReason() { return reason; }
+    public LocalDateTime getArchivedAt() { return archivedAt; }
+}
@@ -0,0 +1,48 @@
+package org.ncu.mf_loan_system.entities;
+
+import jakarta.persistence.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+// A payment moved out with its loan (ArchiveServiceImpl); keeps the original id
+@Entity
+@Table(name = "archived_payments", indexes = {
+        @Index(name = "idx_archived_payments_loan", columnList = "loan_id, id")
+})
+public class ArchivedPayment {
+
+    @Id
+    private Long id;
+
+    @Column(name = "loan_id", nullable = false)
+    private Long loanId;
+
+    @Column(nullable = false, precision = 12, scale = 2)
+    private BigDecimal amount;
+
+    @Column(nullable = false)
+    private LocalDate paymentDate;
+
+    @Column(nullable = false)
+    private LocalDateTime archivedAt;
+
+    protected ArchivedPayment() {
+    }
+
+    public Payment toPayment() {
+        Payment payment = new Payment();
+        payment.setId(id);
+        payment.setAmount(amount);
+        payment.setPaymentDate(paymentDate);
+        return payment;
+    }
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public Long getLoanId() { return loanId; }
+    public BigDecimal getAmount() { return amount; }
+    public LocalDate getPaymentDate() { return paymentDate; }
+    public LocalDateTime getArchivedAt() { return archivedAt; }
+}
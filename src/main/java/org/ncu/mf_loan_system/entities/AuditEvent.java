@@ -0,0 +1,60 @@
+package org.ncu.mf_loan_system.entities;
+
+import jakarta.persistence.*;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+// Append-only compliance trail; rows are written in batches by AuditTrail, never through JPA
+@Entity
+@Table(name = "audit_events", indexes = {
+        @Index(name = "idx_audit_loan", columnList = "loan_id, occurred_at"),
+        @Index(name = "idx_audit_occurred", columnList = "occurred_at")
+})
+public class AuditEvent {
+
+    public enum EventType {
+        LOAN_CREATED, LOAN_UPDATED, LOAN_DELETED,
+        PAYMENT_RECORDED, PAYMENT_UPDATED, PAYMENT_DELETED
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "event_type", nullable = false, length = 32)
+    private EventType eventType;
+
+    // Id of the loan or payment the event is about, when known
+    @Column(name = "entity_id")
+    private Long entityId;
+
+    @Column(name = "loan_id")
+    private Long loanId;
+
+    @Column(precision = 12, scale = 2)
+    private BigDecimal amount;
+
+    @Column(name = "occurred_at", nullable = false)
+    private Instant occurredAt;
+
+    protected AuditEvent() {
+    }
+
+    public AuditEvent(EventType eventType, Long entityId, Long loanId, BigDecimal amount) {
+        this.eventType = eventType;
+        this.entityId = entityId;
+        this.loanId = loanId;
+        this.amount = amount;
+        this.occurredAt = Instant.now();
+    }
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public EventType getEventType() { return eventType; }
+    public Long getEntityId() { return entityId; }
+    public Long getLoanId() { return loanId; }
+    public BigDecimal getAmount() { return amount; }
+    public Instant getOccurredAt() { return occurredAt; }
+}
@@ -6,14 +6,23 @@ import jakarta.validation.constraints.*;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
 
 @Entity
-@Table(name = "clients")
+@Table(name = "clients", indexes = {
+        @Index(name = "idx_clients_name_key", columnList = "name_key, id"),
+        @Index(name = "idx_clients_last_name_key", columnList = "last_name_key, id"),
+        @Index(name = "idx_clients_email_key", columnList = "email_key, id"),
+        @Index(name = "idx_clients_phone_key", columnList = "phone_key, id")
+})
 @JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 public class Client {
 
+    // Pooled table generator instead of IDENTITY so Hibernate can batch client inserts (CSV import)
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "client_ids")
+    @TableGenerator(name = "client_ids", table = "id_generators", pkColumnName = "gen_name",
+            valueColumnName = "gen_value", pkColumnValue = "clients", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
@@ -30,6 +39,24 @@ public class Client {
     @Pattern(regexp = "^\\+?[0-9]{10,15}$", message = "Phone number must be 10-15 digits")
     private String phone;
 
+    // Normalized copies for indexed prefix search: lowercased name, its last word, lowercased
+    // email, phone digits
+    @Column(name = "name_key", length = 100)
+    @JsonIgnore
+    private String nameKey;
+
+    @Column(name = "last_name_key", length = 100)
+    @JsonIgnore
+    private String lastNameKey;
+
+    @Column(name = "email_key", length = 255)
+    @JsonIgnore
+    private String emailKey;
+
+    @Column(name = "phone_key", length = 15)
+    @JsonIgnore
+    private String phoneKey;
+
     @OneToMany(mappedBy = "client", cascade = CascadeType.ALL, orphanRemoval = true)
     @JsonIgnore
     private List<Loan> loans = new ArrayList<>();
@@ -40,6 +67,29 @@ public class Client {
         loan.setClient(this);
     }
 
+    @PrePersist
+    @PreUpdate
+    public void refreshSearchKeys() {
+        this.nameKey = normalizeName(name);
+        int lastSpace = nameKey != null ? nameKey.lastIndexOf(' ') : -1;
+        this.lastNameKey = lastSpace >= 0 ? nameKey.substring(lastSpace + 1) : null;
+        this.emailKey = email != null ? emailKey(email) : null;
+        this.phoneKey = phone != null ? phoneDigits(phone) : null;
+    }
+
+    public static String normalizeName(String text) {
+        return text != null ? text.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT) : null;
+    }
+
+    // Emails compare case-insensitively whatever the column collation; lookups go through this key
+    public static String emailKey(String email) {
+        return email.trim().toLowerCase(Locale.ROOT);
+    }
+
+    public static String phoneDigits(String text) {
+        return text.replaceAll("[^0-9]", "");
+    }
+
     // Getters and Setters
     public Long getId() { return id; }
     public void setId(Long id) { this.id = id; }
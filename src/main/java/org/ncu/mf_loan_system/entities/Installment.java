@@ -0,0 +1,89 @@
+package org.ncu.mf_loan_system.entities;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import jakarta.persistence.*;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Entity
+@Table(name = "loan_installments",
+        uniqueConstraints = @UniqueConstraint(name = "uk_installment_loan_number",
+                columnNames = {"loan_id", "installment_number"}),
+        indexes = @Index(name = "idx_installment_loan_due", columnList = "loan_id, due_date"))
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
+public class Installment {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "installment_ids")
+    @TableGenerator(name = "installment_ids", table = "id_generators", pkColumnName = "gen_name",
+            valueColumnName = "gen_value", pkColumnValue = "loan_installments", allocationSize = 50)
+    private Long id;
+
+    // Schedule rows go with their loan at the database level, no entity cascade needed
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "loan_id", nullable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    @JsonIgnore
+    private Loan loan;
+
+    @Column(name = "installment_number", nullable = false)
+    private int installmentNumber;
+
+    @Column(name = "due_date", nullable = false)
+    private LocalDate dueDate;
+
+    @Column(nullable = false, precision = 12, scale = 2)
+    private BigDecimal amount;
+
+    @Column(nullable = false, precision = 12, scale = 2)
+    private BigDecimal principalPart;
+
+    @Column(nullable = false, precision = 12, scale = 2)
+    private BigDecimal interestPart;
+
+    @Column(nullable = false, precision = 12, scale = 2)
+    private BigDecimal remainingBalance;
+
+    // Running sum of amounts up to and including this installment, so "what is due by X"
+    // and "which installment is next unpaid" are single indexed row reads
+    @Column(nullable = false, precision = 14, scale = 2)
+    private BigDecimal cumulativeDue;
+
+    public Installment() {}
+
+    public Installment(Loan loan, int installmentNumber, LocalDate dueDate, BigDecimal principalPart,
+                       BigDecimal interestPart, BigDecimal remainingBalance, BigDecimal cumulativeDue) {
+        this.loan = loan;
+        this.installmentNumber = installmentNumber;
+        this.dueDate = dueDate;
+        this.principalPart = principalPart;
+        this.interestPart = interestPart;
+        this.amount = principalPart.add(interestPart);
+        this.remainingBalance = remainingBalance;
+        this.cumulativeDue = cumulativeDue;
+    }
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    public Loan getLoan() { return loan; }
+    public void setLoan(Loan loan) { this.loan = loan; }
+    public int getInstallmentNumber() { return installmentNumber; }
+    public void setInstallmentNumber(int installmentNumber) { this.installmentNumber = installmentNumber; }
+    public LocalDate getDueDate() { return dueDate; }
+    public void setDueDate(LocalDate dueDate) { this.dueDate = dueDate; }
+    public BigDecimal getAmount() { return amount; }
+    public void setAmount(BigDecimal amount) { this.amount = amount; }
+    public BigDecimal getPrincipalPart() { return principalPart; }
+    public void setPrincipalPart(BigDecimal principalPart) { this.principalPart = principalPart; }
+    public BigDecimal getInterestPart() { return interestPart; }
+    public void setInterestPart(BigDecimal interestPart) { this.interestPart = interestPart; }
+    public BigDecimal getRemainingBalance() { return remainingBalance; }
+    public void setRemainingBalance(BigDecimal remainingBalance) { this.remainingBalance = remainingBalance; }
+    public BigDecimal getCumulativeDue() { return cumulativeDue; }
+    public void setCumulativeDue(BigDecimal cumulativeDue) { this.cumulativeDue = cumulativeDue; }
+}
@@ -0,0 +1,66 @@
+package org.ncu.mf_loan_system.entities;
+
+import jakarta.persistence.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+// One loan id range of a day's interest accrual run. nextId moves forward in the same
+// transaction as each chunk it covers, so a restarted run resumes every unfinished
+// partition exactly where it stopped. The totals are the interest posted for the range.
+@Entity
+@Table(name = "interest_accrual_partitions", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_accrual_partitions_date_no", columnNames = {"accrual_date", "partition_no"})
+})
+public class InterestAccrualPartition {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "accrual_date", nullable = false)
+    private LocalDate accrualDate;
+
+    @Column(name = "partition_no", nullable = false)
+    private int partitionNo;
+
+    @Column(nullable = false)
+    private long fromId;
+
+    // Exclusive
+    @Column(nullable = false)
+    private long toId;
+
+    @Column(nullable = false)
+    private long nextId;
+
+    private long loansAccrued;
+
+    @Column(precision = 16, scale = 2)
+    private BigDecimal interestAccrued = BigDecimal.ZERO;
+
+    private LocalDateTime completedAt;
+
+    protected InterestAccrualPartition() {
+    }
+
+    public InterestAccrualPartition(LocalDate accrualDate, int partitionNo, long fromId, long toId) {
+        this.accrualDate = accrualDate;
+        this.partitionNo = partitionNo;
+        this.fromId = fromId;
+        this.toId = toId;
+        this.nextId = fromId;
+    }
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public LocalDate getAccrualDate() { return accrualDate; }
+    public int getPartitionNo() { return partitionNo; }
+    public long getFromId() { return fromId; }
+    public long getToId() { return toId; }
+    public long getNextId() { return nextId; }
+    public long getLoansAccrued() { return loansAccrued; }
+    public BigDecimal getInterestAccrued() { return interestAccrued; }
+    public LocalDateTime getCompletedAt() { return completedAt; }
+}
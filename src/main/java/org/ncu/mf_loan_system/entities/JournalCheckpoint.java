@@ -0,0 +1,29 @@
+package org.ncu.mf_loan_system.entities;
+
+import jakarta.persistence.*;
+
+// Highest payment journal sequence posted to the database, per journal (node).
+// Advanced in the same transaction as the payments it covers.
+@Entity
+@Table(name = "journal_checkpoints")
+public class JournalCheckpoint {
+
+    @Id
+    @Column(length = 64)
+    private String name;
+
+    @Column(name = "last_sequence", nullable = false)
+    private long lastSequence;
+
+    protected JournalCheckpoint() {
+    }
+
+    public JournalCheckpoint(String name, long lastSequence) {
+        this.name = name;
+        this.lastSequence = lastSequence;
+    }
+
+    // Getters and Setters
+    public String getName() { return name; }
+    public long getLastSequence() { return lastSequence; }
+}
@@ -0,0 +1,70 @@
+package org.ncu.mf_loan_system.entities;
+
+import jakarta.persistence.*;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+
+// A journaled repayment that was acknowledged (202) but refused when posted, e.g. the loan is
+// unknown or already paid. Written in the same transaction as the checkpoint that moves past
+// it, so it is never lost once the journal segment is removed; worked by hand from here.
+@Entity
+@Table(name = "journal_exceptions", indexes = {
+        @Index(name = "idx_journal_exceptions_journal_id", columnList = "journal, id")
+}, uniqueConstraints = {
+        @UniqueConstraint(name = "uk_journal_exceptions_sequence", columnNames = {"journal", "sequence"})
+})
+public class JournalExceptionItem {
+
+    // Pooled so a batch of exceptions goes out as one JDBC batch
+    @Id
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "journal_exception_ids")
+    @TableGenerator(name = "journal_exception_ids", table = "id_generators", pkColumnName = "gen_name",
+            valueColumnName = "gen_value", pkColumnValue = "journal_exceptions", allocationSize = 50)
+    private Long id;
+
+    @Column(nullable = false, length = 64)
+    private String journal;
+
+    // Journal sequence of the entry, as returned in the 202 receipt
+    @Column(nullable = false)
+    private long sequence;
+
+    private Long loanId;
+
+    @Column(precision = 12, scale = 2)
+    private BigDecimal amount;
+
+    private LocalDate paymentDate;
+
+    @Column(length = 500)
+    private String message;
+
+    @Column(nullable = false)
+    private Instant recordedAt;
+
+    protected JournalExceptionItem() {
+    }
+
+    public JournalExceptionItem(String journal, long sequence, Long loanId, BigDecimal amount,
+                                LocalDate paymentDate, String message) {
+        this.journal = journal;
+        this.sequence = sequence;
+        this.loanId = loanId;
+        this.amount = amount;
+        this.paymentDate = paymentDate;
+        this.message = message != null && message.length() > 500 ? message.substring(0, 500) : message;
+        this.recordedAt = Instant.now();
+    }
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public String getJournal() { return journal; }
+    public long getSequence() { return sequence; }
+    public Long getLoanId() { return loanId; }
+    public BigDecimal getAmount() { return amount; }
+    public LocalDate getPaymentDate() { return paymentDate; }
+    public String getMessage() { return message; }
+    public Instant getRecordedAt() { return recordedAt; }
+}
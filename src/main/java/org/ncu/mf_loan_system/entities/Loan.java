@@ -9,15 +9,22 @@ import java.math.RoundingMode;
 import java.time.LocalDate;
 import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
 
 @Entity
-@Table(name = "loans")
+@Table(name = "loans", indexes = {
+        @Index(name = "idx_loans_status_next_due", columnList = "status, next_payment_date, end_date"),
+        @Index(name = "idx_loans_status_id", columnList = "status, id")
+})
 @JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 public class Loan {
 
+    // Pooled table generator instead of IDENTITY so Hibernate can batch loan inserts (CSV import)
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "loan_ids")
+    @TableGenerator(name = "loan_ids", table = "id_generators", pkColumnName = "gen_name",
+            valueColumnName = "gen_value", pkColumnValue = "loans", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
@@ -44,37 +51,145 @@ public class Loan {
     @Enumerated(EnumType.STRING)
     private LoanStatus status = LoanStatus.ACTIVE;
 
+    // Concurrent postings to the same loan fail instead of overwriting each other's totals
+    @Version
+    private Long version;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "client_id", nullable = false)
     private Client client;
 
     @OneToMany(mappedBy = "loan", cascade = CascadeType.ALL, orphanRemoval = true)
+    @OrderBy("paymentDate ASC, id ASC")
     @JsonManagedReference
     private List<Payment> payments = new ArrayList<>();
 
+    // Running ledger, kept in step with payments so reads never walk the collection
+    @Column(precision = 12, scale = 2)
+    private BigDecimal totalPaid = BigDecimal.ZERO;
+
+    @Column(precision = 12, scale = 2)
+    private BigDecimal principalRepaid = BigDecimal.ZERO;
+
+    @Column(precision = 12, scale = 2)
+    private BigDecimal interestRepaid = BigDecimal.ZERO;
+
+    @Column(precision = 12, scale = 2)
+    private BigDecimal outstandingBalance;
+
+    // Total interest over the amortization schedule (buildSchedule), so the ledger, the schedule
+    // and the EMI all follow one interest model; derived from the terms and cleared when they change
+    @Column(precision = 12, scale = 2)
+    private BigDecimal interestDue;
+
+    // Daily interest accrual, written only by InterestAccrualJob's bulk UPDATEs and settled
+    // first by applyPayment; not updatable from the entity, so a payment saving a loan it
+    // loaded earlier cannot overwrite it
+    @Column(precision = 12, scale = 2, updatable = false)
+    private BigDecimal accruedInterest = BigDecimal.ZERO;
+
+    @Column(precision = 12, scale = 2, updatable = false)
+    private BigDecimal lastAccrual;
+
+    @Column(updatable = false)
+    private LocalDate interestAccruedThrough;
+
     public enum LoanStatus { ACTIVE, PAID, OVERDUE, DEFAULTED }
 
     @PrePersist
     @PreUpdate
     private void calculateInitialValues() {
-        if (this.startDate != null && this.endDate != null && this.nextPaymentDate == null) {
+        if (this.startDate != null && this.endDate != null && this.nextPaymentDate == null
+                && this.status != LoanStatus.PAID) {
             this.nextPaymentDate = this.startDate.plusMonths(1);
         }
+        if (this.outstandingBalance == null && this.principalAmount != null && this.interestRate != null) {
+            this.outstandingBalance = getTotalDue().subtract(totalPaid);
+        }
+    }
+
+    public BigDecimal getInterestDue() {
+        if (principalAmount == null || interestRate == null) {
+            return BigDecimal.ZERO;
+        }
+        if (interestDue == null) {
+            long months = (startDate == null || endDate == null) ? 0 : ChronoUnit.MONTHS.between(startDate, endDate);
+            interestDue = months <= 0 ? BigDecimal.ZERO
+                    : scheduledInterest(principalAmount, monthlyRate(interestRate), calculateEMI(), (int) months);
+        }
+        return interestDue;
+    }
+
+    @Transient
+    public BigDecimal getTotalDue() {
+        if (principalAmount == null) {
+            return BigDecimal.ZERO;
+        }
+        return principalAmount.add(getInterestDue());
     }
 
     @Transient
     public boolean isFullyPaid() {
-        BigDecimal totalPaid = payments.stream()
-                .map(Payment::getAmount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        return totalPaid.compareTo(getTotalDue()) >= 0;
+    }
+
+    // Posts a single payment against the running totals. Interest accrued so far (see
+    // InterestAccrualJob) is settled before principal; the split is kept on the payment.
+    public void applyPayment(Payment payment) {
+        BigDecimal accrued = accruedInterest != null ? accruedInterest : BigDecimal.ZERO;
+        book(payment, accrued.subtract(interestRepaid).max(BigDecimal.ZERO));
+        updateStatusBasedOnPayments();
+    }
 
-        BigDecimal interestAmount = principalAmount
-                .multiply(interestRate)
-                .divide(BigDecimal.valueOf(100), 2, RoundingMode.HALF_UP);
+    // Books up to interestClaim of the amount as interest and the rest as principal; whatever
+    // would take principal repaid past the principal is booked as interest too, so the accrual
+    // base never goes negative
+    private void book(Payment payment, BigDecimal interestClaim) {
+        BigDecimal amount = payment.getAmount();
+        BigDecimal principalRemaining = principalAmount.subtract(principalRepaid).max(BigDecimal.ZERO);
+        BigDecimal interestPart = amount.min(interestClaim).max(amount.subtract(principalRemaining));
+        BigDecimal principalPart = amount.subtract(interestPart);
 
-        BigDecimal totalDue = principalAmount.add(interestAmount);
+        this.totalPaid = totalPaid.add(amount);
+        this.interestRepaid = interestRepaid.add(interestPart);
+        this.principalRepaid = principalRepaid.add(principalPart);
+        this.outstandingBalance = getTotalDue().subtract(totalPaid);
+        payment.allocate(interestPart, principalPart);
+        payment.setLoan(this);
+    }
+
+    // firstUncoveredDueDate is the due date of the first installment the total paid does not
+    // cover yet; null means no schedule to go by, so the current date is kept
+    public void updateNextPaymentDate(LocalDate firstUncoveredDueDate) {
+        if (status == LoanStatus.PAID) {
+            this.nextPaymentDate = null;
+        } else if (firstUncoveredDueDate != null) {
+            this.nextPaymentDate = firstUncoveredDueDate;
+        }
+    }
 
-        return totalPaid.compareTo(totalDue) >= 0;
+    // Full recomputation from the payment history, only for edits and legacy rows. Each payment
+    // keeps the interest it settled when posted (an edited amount can only lower it); only rows
+    // without a recorded split are split again, against the accrual as it stands now.
+    public void rebuildLedger() {
+        this.totalPaid = BigDecimal.ZERO;
+        this.principalRepaid = BigDecimal.ZERO;
+        this.interestRepaid = BigDecimal.ZERO;
+        List<Payment> history = new ArrayList<>(payments);
+        history.sort(Comparator.comparing(Payment::getPaymentDate, Comparator.nullsLast(Comparator.naturalOrder()))
+                .thenComparing(Payment::getId, Comparator.nullsLast(Comparator.naturalOrder())));
+        for (Payment payment : history) {
+            if (payment.getInterestPart() != null) {
+                book(payment, payment.getInterestPart());
+            } else {
+                applyPayment(payment);
+            }
+        }
+        updateStatusBasedOnPayments();
+        this.outstandingBalance = getTotalDue().subtract(totalPaid);
+        if (this.status == LoanStatus.PAID && !isFullyPaid()) {
+            this.status = LoanStatus.ACTIVE;
+        }
     }
 
     public void updateStatusBasedOnPayments() {
@@ -91,25 +206,87 @@ public class Loan {
         long months = ChronoUnit.MONTHS.between(startDate, endDate);
         if (months <= 0) return principalAmount;
 
-        BigDecimal monthlyRate = interestRate.divide(
-                BigDecimal.valueOf(100 * 12), 10, RoundingMode.HALF_UP);
-        BigDecimal factor = BigDecimal.ONE.add(monthlyRate).pow((int) months);
-        return principalAmount.multiply(monthlyRate)
+        BigDecimal monthlyRate = monthlyRate(interestRate);
+        return emi(principalAmount, monthlyRate, growthFactor(monthlyRate, (int) months));
+    }
+
+    // EMI formula pieces, shared with the quoting service so quotes match booked loans exactly
+    public static BigDecimal monthlyRate(BigDecimal annualRate) {
+        return annualRate.divide(BigDecimal.valueOf(100 * 12), 10, RoundingMode.HALF_UP);
+    }
+
+    public static BigDecimal growthFactor(BigDecimal monthlyRate, int months) {
+        return BigDecimal.ONE.add(monthlyRate).pow(months);
+    }
+
+    public static BigDecimal emi(BigDecimal principal, BigDecimal monthlyRate, BigDecimal factor) {
+        return principal.multiply(monthlyRate)
                 .multiply(factor)
                 .divide(factor.subtract(BigDecimal.ONE), 2, RoundingMode.HALF_UP);
     }
 
+    // Total of the interest column buildSchedule() produces, without building the rows; shared
+    // with the quoting service so a quote's total matches the booked schedule to the cent
+    public static BigDecimal scheduledInterest(BigDecimal principal, BigDecimal monthlyRate, BigDecimal emi, int months) {
+        BigDecimal balance = principal;
+        BigDecimal total = BigDecimal.ZERO;
+        for (int n = 1; n <= months; n++) {
+            BigDecimal interest = balance.multiply(monthlyRate).setScale(2, RoundingMode.HALF_UP);
+            balance = balance.subtract(n == months ? balance : emi.subtract(interest).min(balance));
+            total = total.add(interest);
+        }
+        return total;
+    }
+
+    // Reducing-balance schedule for the same EMI as calculateEMI(); the last row absorbs rounding
+    // (scheduledInterest() follows the same arithmetic)
+    public List<Installment> buildSchedule() {
+        List<Installment> schedule = new ArrayList<>();
+        long months = (startDate == null || endDate == null) ? 0 : ChronoUnit.MONTHS.between(startDate, endDate);
+        if (months <= 0) {
+            schedule.add(new Installment(this, 1, endDate, principalAmount, BigDecimal.ZERO,
+                    BigDecimal.ZERO, principalAmount));
+            return schedule;
+        }
+
+        BigDecimal emi = calculateEMI();
+        BigDecimal monthlyRate = monthlyRate(interestRate);
+        BigDecimal balance = principalAmount;
+        BigDecimal cumulative = BigDecimal.ZERO;
+
+        for (int n = 1; n <= months; n++) {
+            BigDecimal interest = balance.multiply(monthlyRate).setScale(2, RoundingMode.HALF_UP);
+            BigDecimal principal = n == months ? balance : emi.subtract(interest).min(balance);
+            balance = balance.subtract(principal);
+            cumulative = cumulative.add(principal).add(interest);
+            schedule.add(new Installment(this, n, startDate.plusMonths(n), principal, interest,
+                    balance, cumulative));
+        }
+        return schedule;
+    }
+
+    // Ledger of a read-only copy rebuilt from archived_loans (ArchivedLoan.toLoan); never persisted
+    void restoreLedger(BigDecimal totalPaid, BigDecimal principalRepaid, BigDecimal interestRepaid,
+                       BigDecimal outstandingBalance, BigDecimal accruedInterest, LocalDate interestAccruedThrough) {
+        this.totalPaid = totalPaid;
+        this.principalRepaid = principalRepaid;
+        this.interestRepaid = interestRepaid;
+        this.outstandingBalance = outstandingBalance;
+        this.accruedInterest = accruedInterest;
+        this.interestAccruedThrough = interestAccruedThrough;
+    }
+
     // Getters and Setters
     public Long getId() { return id; }
     public void setId(Long id) { this.id = id; }
     public BigDecimal getPrincipalAmount() { return principalAmount; }
-    public void setPrincipalAmount(BigDecimal principalAmount) { this.principalAmount = principalAmount; }
+    public void setPrincipalAmount(BigDecimal principalAmount) { this.principalAmount = principalAmount; this.interestDue = null; }
     public BigDecimal getInterestRate() { return interestRate; }
-    public void setInterestRate(BigDecimal interestRate) { this.interestRate = interestRate; }
+    public void setInterestRate(BigDecimal interestRate) { this.interestRate = interestRate; this.interestDue = null; }
     public LocalDate getStartDate() { return startDate; }
-    public void setStartDate(LocalDate startDate) { this.startDate = startDate; }
+    public void setStartDate(LocalDate startDate) { this.startDate = startDate; this.interestDue = null; }
     public LocalDate getEndDate() { return endDate; }
-    public void setEndDate(LocalDate endDate) { this.endDate = endDate; }
+    public void setEndDate(LocalDate endDate) { this.endDate = endDate; this.interestDue = null; }
     public LocalDate getNextPaymentDate() { return nextPaymentDate; }
     public void setNextPaymentDate(LocalDate nextPaymentDate) { this.nextPaymentDate = nextPaymentDate; }
     public LoanStatus getStatus() { return status; }
@@ -118,4 +295,12 @@ public class Loan {
     public void setClient(Client client) { this.client = client; }
     public List<Payment> getPayments() { return payments; }
     public void setPayments(List<Payment> payments) { this.payments = payments; }
+    public Long getVersion() { return version; }
+    public BigDecimal getTotalPaid() { return totalPaid; }
+    public BigDecimal getPrincipalRepaid() { return principalRepaid; }
+    public BigDecimal getInterestRepaid() { return interestRepaid; }
+    public BigDecimal getOutstandingBalance() { return outstandingBalance; }
+    public BigDecimal getAccruedInterest() { return accruedInterest; }
+    public BigDecimal getLastAccrual() { return lastAccrual; }
+    public LocalDate getInterestAccruedThrough() { return interestAccruedThrough; }
 }
\ No newline at end of file
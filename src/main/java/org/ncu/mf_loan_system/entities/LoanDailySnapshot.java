@@ -0,0 +1,71 @@
+package org.ncu.mf_loan_system.entities;
+
+import jakarta.persistence.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+// End-of-day copy of a loan's ledger, written by PortfolioSnapshotJob and read by the
+// reporting endpoints instead of the live loans/payments tables. loanVersion is the loan's
+// @Version at snapshot time; an unchanged version next day means the row can be carried
+// forward without reading the loan. It is null on rows backed out of payments posted after
+// the day, which always get re-read.
+@Entity
+@Table(name = "loan_daily_snapshots", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_loan_snapshots_date_loan", columnNames = {"snapshot_date", "loan_id"})
+}, indexes = {
+        @Index(name = "idx_loan_snapshots_loan_date", columnList = "loan_id, snapshot_date")
+})
+public class LoanDailySnapshot {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "snapshot_date", nullable = false)
+    private LocalDate snapshotDate;
+
+    @Column(name = "loan_id", nullable = false)
+    private Long loanId;
+
+    @Column(name = "client_id", nullable = false)
+    private Long clientId;
+
+    @Column(name = "loan_version")
+    private Long loanVersion;
+
+    @Enumerated(EnumType.STRING)
+    @Column(length = 16)
+    private Loan.LoanStatus status;
+
+    @Column(precision = 12, scale = 2)
+    private BigDecimal principalAmount;
+
+    @Column(precision = 12, scale = 2)
+    private BigDecimal totalPaid;
+
+    @Column(precision = 12, scale = 2)
+    private BigDecimal outstandingBalance;
+
+    // Payments dated on the snapshot day
+    @Column(precision = 12, scale = 2)
+    private BigDecimal collected;
+
+    private LocalDate nextPaymentDate;
+
+    private int daysPastDue;
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public LocalDate getSnapshotDate() { return snapshotDate; }
+    public Long getLoanId() { return loanId; }
+    public Long getClientId() { return clientId; }
+    public Long getLoanVersion() { return loanVersion; }
+    public Loan.LoanStatus getStatus() { return status; }
+    public BigDecimal getPrincipalAmount() { return principalAmount; }
+    public BigDecimal getTotalPaid() { return totalPaid; }
+    public BigDecimal getOutstandingBalance() { return outstandingBalance; }
+    public BigDecimal getCollected() { return collected; }
+    public LocalDate getNextPaymentDate() { return nextPaymentDate; }
+    public int getDaysPastDue() { return daysPastDue; }
+}
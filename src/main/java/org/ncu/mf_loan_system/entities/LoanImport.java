@@ -0,0 +1,62 @@
+package org.ncu.mf_loan_system.entities;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+// Progress of one CSV loan-book import. rowsCommitted is the last data row whose chunk has
+// been committed, advanced in the same transaction as the chunk's inserts; resuming the
+// import with the same file skips every row up to it.
+@Entity
+@Table(name = "loan_imports")
+public class LoanImport {
+
+    public enum ImportStatus { RUNNING, COMPLETED, FAILED }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(length = 255)
+    private String fileName;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private ImportStatus status = ImportStatus.RUNNING;
+
+    private long rowsCommitted;
+
+    private long imported;
+
+    private long rejected;
+
+    private long clientsCreated;
+
+    @Column(length = 1000)
+    private String lastError;
+
+    private LocalDateTime startedAt;
+
+    private LocalDateTime updatedAt;
+
+    protected LoanImport() {
+    }
+
+    public LoanImport(String fileName) {
+        this.fileName = fileName;
+        this.startedAt = LocalDateTime.now();
+        this.updatedAt = startedAt;
+    }
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public String getFileName() { return fileName; }
+    public ImportStatus getStatus() { return status; }
+    public long getRowsCommitted() { return rowsCommitted; }
+    public long getImported() { return imported; }
+    public long getRejected() { return rejected; }
+    public long getClientsCreated() { return clientsCreated; }
+    public String getLastError() { return lastError; }
+    public LocalDateTime getStartedAt() { return startedAt; }
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+}
@@ -0,0 +1,43 @@
+package org.ncu.mf_loan_system.entities;
+
+import jakarta.persistence.*;
+
+// A rejected row of a CSV loan import, written with the chunk it belongs to
+@Entity
+@Table(name = "loan_import_errors", indexes = {
+        @Index(name = "idx_import_errors_import_id", columnList = "import_id, id")
+})
+public class LoanImportError {
+
+    // Pooled so a chunk's errors go out as one JDBC batch
+    @Id
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "import_error_ids")
+    @TableGenerator(name = "import_error_ids", table = "id_generators", pkColumnName = "gen_name",
+            valueColumnName = "gen_value", pkColumnValue = "loan_import_errors", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "import_id", nullable = false)
+    private Long importId;
+
+    // 1-based data row, not counting the header
+    @Column(nullable = false)
+    private long rowNumber;
+
+    @Column(nullable = false, length = 1000)
+    private String message;
+
+    protected LoanImportError() {
+    }
+
+    public LoanImportError(Long importId, long rowNumber, String message) {
+        this.importId = importId;
+        this.rowNumber = rowNumber;
+        this.message = message.length() > 1000 ? message.substring(0, 1000) : message;
+    }
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public Long getImportId() { return importId; }
+    public long getRowNumber() { return rowNumber; }
+    public String getMessage() { return message; }
+}
@@ -0,0 +1,49 @@
+package org.ncu.mf_loan_system.entities;
+
+import jakarta.persistence.*;
+
+import java.math.BigDecimal;
+
+// The bucket and at-risk balance a loan currently contributes to par_totals. Kept so a
+// change can be applied as "remove the old contribution, add the new one" without
+// rescanning the portfolio. Paid (and deleted) loans have no row.
+@Entity
+@Table(name = "loan_par_positions", indexes = {
+        @Index(name = "idx_par_positions_client", columnList = "client_id")
+})
+public class LoanParPosition {
+
+    @Id
+    @Column(name = "loan_id")
+    private Long loanId;
+
+    @Column(name = "client_id", nullable = false)
+    private Long clientId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private ParBucket bucket;
+
+    // Outstanding principal
+    @Column(nullable = false, precision = 12, scale = 2)
+    private BigDecimal balance;
+
+    protected LoanParPosition() {
+    }
+
+    public LoanParPosition(Long loanId, Long clientId, ParBucket bucket, BigDecimal balance) {
+        this.loanId = loanId;
+        this.clientId = clientId;
+        this.bucket = bucket;
+        this.balance = balance;
+    }
+
+    // Getters and Setters
+    public Long getLoanId() { return loanId; }
+    public Long getClientId() { return clientId; }
+    public void setClientId(Long clientId) { this.clientId = clientId; }
+    public ParBucket getBucket() { return bucket; }
+    public void setBucket(ParBucket bucket) { this.bucket = bucket; }
+    public BigDecimal getBalance() { return balance; }
+    public void setBalance(BigDecimal balance) { this.balance = balance; }
+}
@@ -0,0 +1,31 @@
+package org.ncu.mf_loan_system.entities;
+
+// Portfolio-at-risk aging buckets by days past the loan's next payment date.
+// PAR30 is everything from DPD_31_60 up, PAR60 from DPD_61_90 up, PAR90 is DPD_91_PLUS.
+public enum ParBucket {
+    CURRENT(0),
+    DPD_1_30(1),
+    DPD_31_60(31),
+    DPD_61_90(61),
+    DPD_91_PLUS(91);
+
+    private final int fromDays;
+
+    ParBucket(int fromDays) {
+        this.fromDays = fromDays;
+    }
+
+    public int getFromDays() {
+        return fromDays;
+    }
+
+    public static ParBucket of(long daysPastDue) {
+        ParBucket[] buckets = values();
+        for (int i = buckets.length - 1; i > 0; i--) {
+            if (daysPastDue >= buckets[i].fromDays) {
+                return buckets[i];
+            }
+        }
+        return CURRENT;
+    }
+}
@@ -0,0 +1,55 @@
+package org.ncu.mf_loan_system.entities;
+
+import jakarta.persistence.*;
+
+import java.math.BigDecimal;
+
+// Running loan count and outstanding principal per PAR bucket. Each bucket is split over
+// STRIPES rows (by loan id) so concurrent postings to different loans rarely wait on the
+// same row lock; readers sum the stripes.
+@Entity
+@Table(name = "par_totals")
+public class ParTotal {
+
+    public static final int STRIPES = 16;
+
+    @Id
+    private Integer id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private ParBucket bucket;
+
+    @Column(nullable = false)
+    private int stripe;
+
+    @Column(name = "loan_count", nullable = false)
+    private long loanCount;
+
+    @Column(nullable = false, precision = 16, scale = 2)
+    private BigDecimal balance = BigDecimal.ZERO;
+
+    protected ParTotal() {
+    }
+
+    public ParTotal(ParBucket bucket, int stripe) {
+        this.id = idOf(bucket, stripe);
+        this.bucket = bucket;
+        this.stripe = stripe;
+    }
+
+    public static int idOf(ParBucket bucket, int stripe) {
+        return bucket.ordinal() * STRIPES + stripe;
+    }
+
+    public static int stripeOf(Long loanId) {
+        return (int) Math.floorMod(loanId, STRIPES);
+    }
+
+    // Getters and Setters
+    public Integer getId() { return id; }
+    public ParBucket getBucket() { return bucket; }
+    public int getStripe() { return stripe; }
+    public long getLoanCount() { return loanCount; }
+    public BigDecimal getBalance() { return balance; }
+}
@@ -8,12 +8,19 @@ import java.math.BigDecimal;
 import java.time.LocalDate;
 
 @Entity
-@Table(name = "payments")
+@Table(name = "payments", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_payments_statement_reference", columnNames = "statement_reference")
+}, indexes = {
+        @Index(name = "idx_payments_posted_on", columnList = "posted_on, loan_id")
+})
 @JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 public class Payment {
 
+    // Pooled table generator instead of IDENTITY so Hibernate can batch payment inserts
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "payment_ids")
+    @TableGenerator(name = "payment_ids", table = "id_generators", pkColumnName = "gen_name",
+            valueColumnName = "gen_value", pkColumnValue = "payments", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
@@ -27,12 +34,36 @@ public class Payment {
     @PastOrPresent(message = "Payment date cannot be in the future")
     private LocalDate paymentDate;
 
+    // Day the payment was entered, which may be later than paymentDate for backdated postings;
+    // the daily snapshots count collections by it. Null on rows posted before it existed.
+    @Column(name = "posted_on", updatable = false)
+    private LocalDate postedOn;
+
+    // Bank or mobile-money transaction reference of a payment posted from a settlement statement
+    // or a bulk upload; unique, so the same transfer can never be posted twice
+    @Column(name = "statement_reference", length = 100, updatable = false)
+    private String statementReference;
+
+    // How Loan.applyPayment split the amount when it was posted, against the interest accrued
+    // by then; Loan.rebuildLedger sums these instead of re-splitting against today's accrual.
+    // Null on rows posted before the split was kept.
+    @Column(precision = 12, scale = 2)
+    private BigDecimal interestPart;
+
+    @Column(precision = 12, scale = 2)
+    private BigDecimal principalPart;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "loan_id", nullable = false)
     @NotNull(message = "Loan reference is required")
     @JsonBackReference
     private Loan loan;
 
+    @PrePersist
+    private void stampPostedOn() {
+        postedOn = LocalDate.now();
+    }
+
     // Getters and Setters
     public Long getId() { return id; }
     public void setId(Long id) { this.id = id; }
@@ -43,6 +74,21 @@ public class Payment {
     public LocalDate getPaymentDate() { return paymentDate; }
     public void setPaymentDate(LocalDate paymentDate) { this.paymentDate = paymentDate; }
 
+    public LocalDate getPostedOn() { return postedOn; }
+    public void setPostedOn(LocalDate postedOn) { this.postedOn = postedOn; }
+
+    public String getStatementReference() { return statementReference; }
+    public void setStatementReference(String statementReference) { this.statementReference = statementReference; }
+
+    public BigDecimal getInterestPart() { return interestPart; }
+    public BigDecimal getPrincipalPart() { return principalPart; }
+
+    // Set by Loan when it books the payment
+    void allocate(BigDecimal interestPart, BigDecimal principalPart) {
+        this.interestPart = interestPart;
+        this.principalPart = principalPart;
+    }
+
     public Loan getLoan() { return loan; }
     public void setLoan(Loan loan) { this.loan = loan; }
 }
\ No newline at end of file
@@ -0,0 +1,49 @@
+package org.ncu.mf_loan_system.entities;
+
+import jakarta.persistence.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+// Per-status portfolio totals for one day, summed from that day's loan_daily_snapshots
+@Entity
+@Table(name = "portfolio_daily_snapshots", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_portfolio_snapshots_date_status", columnNames = {"snapshot_date", "status"})
+})
+public class PortfolioDailySnapshot {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "snapshot_date", nullable = false)
+    private LocalDate snapshotDate;
+
+    @Enumerated(EnumType.STRING)
+    @Column(length = 16)
+    private Loan.LoanStatus status;
+
+    private long loanCount;
+
+    @Column(precision = 16, scale = 2)
+    private BigDecimal disbursed;
+
+    @Column(precision = 16, scale = 2)
+    private BigDecimal collected;
+
+    @Column(precision = 16, scale = 2)
+    private BigDecimal outstanding;
+
+    // Loans past due on the snapshot day
+    private long pastDueCount;
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public LocalDate getSnapshotDate() { return snapshotDate; }
+    public Loan.LoanStatus getStatus() { return status; }
+    public long getLoanCount() { return loanCount; }
+    public BigDecimal getDisbursed() { return disbursed; }
+    public BigDecimal getCollected() { return collected; }
+    public BigDecimal getOutstanding() { return outstanding; }
+    public long getPastDueCount() { return pastDueCount; }
+}
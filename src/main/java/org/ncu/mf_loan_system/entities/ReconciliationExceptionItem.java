@@ -0,0 +1,100 @@
+package org.ncu.mf_loan_system.entities;
+
+import jakarta.persistence.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+// A statement line that did not become a payment, kept with what the file said so it can be
+// worked by hand
+@Entity
+@Table(name = "reconciliation_exceptions", indexes = {
+        @Index(name = "idx_recon_exceptions_run_id", columnList = "reconciliation_id, id"),
+        @Index(name = "idx_recon_exceptions_run_line", columnList = "reconciliation_id, line_number")
+})
+public class ReconciliationExceptionItem {
+
+    public enum Reason {
+        // Reference, amount or date could not be read
+        UNREADABLE,
+        // Neither the loan reference nor the phone belongs to an open loan
+        UNMATCHED,
+        // The phone has several open loans and the amount is not exactly one of their EMIs
+        AMBIGUOUS,
+        // Matched, but the payment was refused when posted
+        REJECTED
+    }
+
+    // Pooled so a batch of exceptions goes out as one JDBC batch
+    @Id
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "recon_exception_ids")
+    @TableGenerator(name = "recon_exception_ids", table = "id_generators", pkColumnName = "gen_name",
+            valueColumnName = "gen_value", pkColumnValue = "reconciliation_exceptions", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "reconciliation_id", nullable = false)
+    private Long reconciliationId;
+
+    // 1-based data line, not counting the header
+    @Column(nullable = false)
+    private long lineNumber;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private Reason reason;
+
+    @Column(length = 500)
+    private String message;
+
+    @Column(length = 100)
+    private String reference;
+
+    @Column(length = 100)
+    private String loanReference;
+
+    @Column(length = 30)
+    private String phone;
+
+    @Column(precision = 12, scale = 2)
+    private BigDecimal amount;
+
+    private LocalDate valueDate;
+
+    // Loan the line was matched to, for REJECTED items
+    private Long loanId;
+
+    protected ReconciliationExceptionItem() {
+    }
+
+    public ReconciliationExceptionItem(Long reconciliationId, long lineNumber, Reason reason, String message,
+                                       String reference, String loanReference, String phone,
+                                       BigDecimal amount, LocalDate valueDate, Long loanId) {
+        this.reconciliationId = reconciliationId;
+        this.lineNumber = lineNumber;
+        this.reason = reason;
+        this.message = truncate(message, 500);
+        this.reference = truncate(reference, 100);
+        this.loanReference = truncate(loanReference, 100);
+        this.phone = truncate(phone, 30);
+        this.amount = amount;
+        this.valueDate = valueDate;
+        this.loanId = loanId;
+    }
+
+    private static String truncate(String value, int length) {
+        return value != null && value.length() > length ? value.substring(0, length) : value;
+    }
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public Long getReconciliationId() { return reconciliationId; }
+    public long getLineNumber() { return lineNumber; }
+    public Reason getReason() { return reason; }
+    public String getMessage() { return message; }
+    public String getReference() { return reference; }
+    public String getLoanReference() { return loanReference; }
+    public String getPhone() { return phone; }
+    public BigDecimal getAmount() { return amount; }
+    public LocalDate getValueDate() { return valueDate; }
+    public Long getLoanId() { return loanId; }
+}
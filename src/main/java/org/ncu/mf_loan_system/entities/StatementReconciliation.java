@@ -0,0 +1,73 @@
+package org.ncu.mf_loan_system.entities;
+
+import jakarta.persistence.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+// One reconciliation run over a bank or mobile-money settlement file. Counters are moved
+// forward after every posting batch, so a running reconciliation shows its progress.
+// linesRead is the committed position: every exception up to that line has been written,
+// which is where a resumed run starts recording them again.
+@Entity
+@Table(name = "statement_reconciliations")
+public class StatementReconciliation {
+
+    public enum RunStatus { RUNNING, COMPLETED, FAILED }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(length = 255)
+    private String fileName;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private RunStatus status = RunStatus.RUNNING;
+
+    private long linesRead;
+
+    private long posted;
+
+    // Lines skipped because a payment with their reference already exists, whether from an
+    // earlier statement or from an earlier attempt of this run
+    private long duplicates;
+
+    private long exceptions;
+
+    @Column(nullable = false, precision = 16, scale = 2)
+    private BigDecimal amountPosted = BigDecimal.ZERO;
+
+    private int loansIndexed;
+
+    @Column(length = 1000)
+    private String lastError;
+
+    private LocalDateTime startedAt;
+
+    private LocalDateTime updatedAt;
+
+    protected StatementReconciliation() {
+    }
+
+    public StatementReconciliation(String fileName) {
+        this.fileName = fileName;
+        this.startedAt = LocalDateTime.now();
+        this.updatedAt = startedAt;
+    }
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public String getFileName() { return fileName; }
+    public RunStatus getStatus() { return status; }
+    public long getLinesRead() { return linesRead; }
+    public long getPosted() { return posted; }
+    public long getDuplicates() { return duplicates; }
+    public long getExceptions() { return exceptions; }
+    public BigDecimal getAmountPosted() { return amountPosted; }
+    public int getLoansIndexed() { return loansIndexed; }
+    public String getLastError() { return lastError; }
+    public LocalDateTime getStartedAt() { return startedAt; }
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+}
@@ -1,5 +1,6 @@
 package org.ncu.mf_loan_system.exception;
 
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -36,6 +37,30 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(body, HttpStatus.BAD_REQUEST);
     }
 
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<Object> handleOptimisticLock(OptimisticLockingFailureException ex) {
+        Map<String, Object> body = new HashMap<>();
+        body.put("error", "Concurrent update");
+        body.put("message", "The loan was modified by another request, please retry");
+        return new ResponseEntity<>(body, HttpStatus.CONFLICT);
+    }
+
+    @ExceptionHandler(LoanArchivedException.class)
+    public ResponseEntity<Object> handleLoanArchived(LoanArchivedException ex) {
+        Map<String, Object> body = new HashMap<>();
+        body.put("error", "Loan archived");
+        body.put("message", ex.getMessage());
+        return new ResponseEntity<>(body, HttpStatus.CONFLICT);
+    }
+
+    @ExceptionHandler(PaymentJournalUnavailableException.class)
+    public ResponseEntity<Object> handleJournalUnavailable(PaymentJournalUnavailableException ex) {
+        Map<String, Object> body = new HashMap<>();
+        body.put("error", "Payment journal unavailable");
+        body.put("message", ex.getMessage());
+        return new ResponseEntity<>(body, HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
     @ExceptionHandler(IllegalStateException.class)
     public ResponseEntity<Object> handleIllegalState(IllegalStateException ex) {
         Map<String, Object> body = new HashMap<>();
@@ -0,0 +1,7 @@
+package org.ncu.mf_loan_system.exception;
+
+public class LoanArchivedException extends RuntimeException {
+    public LoanArchivedException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package org.ncu.mf_loan_system.exception;
+
+public class PaymentJournalUnavailableException extends RuntimeException {
+    public PaymentJournalUnavailableException(String message) {
+        super(message);
+    }
+}
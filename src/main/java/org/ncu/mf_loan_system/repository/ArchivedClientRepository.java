@@ -0,0 +1,16 @@
+package org.ncu.mf_loan_system.repository;
+
+import org.ncu.mf_loan_system.entities.ArchivedClient;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.time.LocalDateTime;
+
+public interface ArchivedClientRepository extends JpaRepository<ArchivedClient, Long> {
+
+    @Modifying
+    @Query("INSERT INTO ArchivedClient (id, name, email, phone, archivedAt) " +
+            "SELECT c.id, c.name, c.email, c.phone, :now FROM Client c WHERE c.id = :clientId")
+    int archive(Long clientId, LocalDateTime now);
+}
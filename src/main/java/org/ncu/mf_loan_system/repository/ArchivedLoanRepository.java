@@ -0,0 +1,65 @@
+package org.ncu.mf_loan_system.repository;
+
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.ncu.mf_loan_system.dto.LoanRow;
+import org.ncu.mf_loan_system.dto.LoanStatusTotals;
+import org.ncu.mf_loan_system.entities.ArchivedLoan;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+public interface ArchivedLoanRepository extends JpaRepository<ArchivedLoan, Long> {
+
+    @Modifying
+    @Query("INSERT INTO ArchivedLoan (id, clientId, principalAmount, interestRate, startDate, endDate, " +
+            "nextPaymentDate, status, totalPaid, principalRepaid, interestRepaid, outstandingBalance, " +
+            "accruedInterest, interestAccruedThrough, reason, archivedAt) " +
+            "SELECT l.id, l.client.id, l.principalAmount, l.interestRate, l.startDate, l.endDate, " +
+            "l.nextPaymentDate, l.status, l.totalPaid, l.principalRepaid, l.interestRepaid, l.outstandingBalance, " +
+            "l.accruedInterest, l.interestAccruedThrough, :reason, :now FROM Loan l WHERE l.id IN :loanIds")
+    int archive(Collection<Long> loanIds, ArchivedLoan.ArchiveReason reason, LocalDateTime now);
+
+    // A removed client takes its settled loans out of the readable archive too
+    @Modifying
+    @Query("UPDATE ArchivedLoan a SET a.reason = org.ncu.mf_loan_system.entities.ArchivedLoan.ArchiveReason.DELETED " +
+            "WHERE a.clientId = :clientId")
+    int markDeletedByClientId(Long clientId);
+
+    Optional<ArchivedLoan> findByIdAndReason(Long id, ArchivedLoan.ArchiveReason reason);
+
+    boolean existsByIdAndReason(Long id, ArchivedLoan.ArchiveReason reason);
+
+    // Same shape as LoanRepository.summarizeByStatus, over the settled loans still readable
+    @Query("SELECT a.status AS status, COUNT(a) AS loanCount, " +
+            "COALESCE(SUM(a.principalAmount), 0) AS disbursed, " +
+            "COALESCE(SUM(a.outstandingBalance), 0) AS outstanding " +
+            "FROM ArchivedLoan a WHERE a.reason = org.ncu.mf_loan_system.entities.ArchivedLoan.ArchiveReason.PAID " +
+            "GROUP BY a.status")
+    List<LoanStatusTotals> summarizeByStatus();
+
+    // Same shape as LoanRepository.findRowsByClientId, for the client loan listings
+    @Query("SELECT new org.ncu.mf_loan_system.dto.LoanRow(a.id, a.clientId, a.principalAmount, " +
+            "a.interestRate, a.startDate, a.endDate, a.nextPaymentDate, a.status, a.totalPaid, " +
+            "a.outstandingBalance) FROM ArchivedLoan a WHERE a.clientId = :clientId " +
+            "AND a.reason = org.ncu.mf_loan_system.entities.ArchivedLoan.ArchiveReason.PAID ORDER BY a.id")
+    List<LoanRow> findRowsByClientId(Long clientId);
+
+    // Same shape and hints as LoanRepository.streamForExport
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT new org.ncu.mf_loan_system.dto.LoanRow(a.id, a.clientId, a.principalAmount, " +
+            "a.interestRate, a.startDate, a.endDate, a.nextPaymentDate, a.status, a.totalPaid, " +
+            "a.outstandingBalance) FROM ArchivedLoan a " +
+            "WHERE a.reason = org.ncu.mf_loan_system.entities.ArchivedLoan.ArchiveReason.PAID ORDER BY a.id")
+    Stream<LoanRow> streamForExport();
+}
@@ -0,0 +1,37 @@
+package org.ncu.mf_loan_system.repository;
+
+import org.ncu.mf_loan_system.dto.PaymentRow;
+import org.ncu.mf_loan_system.dto.PaymentStatusTotals;
+import org.ncu.mf_loan_system.entities.ArchivedPayment;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface ArchivedPaymentRepository extends JpaRepository<ArchivedPayment, Long> {
+
+    @Modifying
+    @Query("INSERT INTO ArchivedPayment (id, loanId, amount, paymentDate, archivedAt) " +
+            "SELECT p.id, p.loan.id, p.amount, p.paymentDate, :now FROM Payment p WHERE p.loan.id IN :loanIds")
+    int archive(Collection<Long> loanIds, LocalDateTime now);
+
+    List<ArchivedPayment> findByLoanIdOrderByIdAsc(Long loanId);
+
+    @Query("SELECT p FROM ArchivedPayment p JOIN ArchivedLoan a ON a.id = p.loanId WHERE p.id = :id " +
+            "AND a.reason = org.ncu.mf_loan_system.entities.ArchivedLoan.ArchiveReason.PAID")
+    Optional<ArchivedPayment> findPaidById(Long id);
+
+    @Query("SELECT new org.ncu.mf_loan_system.dto.PaymentRow(p.loanId, p.id, p.amount, p.paymentDate) " +
+            "FROM ArchivedPayment p WHERE p.loanId IN :loanIds ORDER BY p.loanId, p.id")
+    List<PaymentRow> findRowsByLoanIds(Collection<Long> loanIds);
+
+    // Same shape as PaymentRepository.summarizeByLoanStatus, for the payments of readable archived loans
+    @Query("SELECT a.status AS status, COUNT(p) AS paymentCount, COALESCE(SUM(p.amount), 0) AS collected " +
+            "FROM ArchivedPayment p JOIN ArchivedLoan a ON a.id = p.loanId " +
+            "WHERE a.reason = org.ncu.mf_loan_system.entities.ArchivedLoan.ArchiveReason.PAID GROUP BY a.status")
+    List<PaymentStatusTotals> summarizeByLoanStatus();
+}
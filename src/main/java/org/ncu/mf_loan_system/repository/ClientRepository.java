@@ -1,8 +1,41 @@
 package org.ncu.mf_loan_system.repository;
 
 import org.ncu.mf_loan_system.entities.Client;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.Collection;
+import java.util.List;
 
 public interface ClientRepository extends JpaRepository<Client,Long> {
 
+    List<Client> findByIdGreaterThanOrderByIdAsc(long afterId, Limit limit);
+
+    // Bulk client resolution for loan imports, one IN query per chunk
+    @Query("SELECT c.id FROM Client c WHERE c.id IN :ids")
+    List<Long> findExistingIds(Collection<Long> ids);
+
+    // Keys from Client.emailKey, so the match does not depend on the CSV's casing or the collation
+    @Query("SELECT c FROM Client c WHERE c.emailKey IN :keys")
+    List<Client> findByEmailKeys(Collection<String> keys);
+
+    // Prefix search, one index range scan per field. Declared as JPQL rather than derived
+    // queries so Hibernate caches the translated SQL; patterns come escaped from the caller.
+    // The redundant lower bound lets engines that cannot range-scan a bound LIKE seek anyway.
+    @Query("SELECT c FROM Client c WHERE c.nameKey >= :prefix AND c.nameKey LIKE :pattern ESCAPE '\\' ORDER BY c.nameKey, c.id")
+    List<Client> searchByName(String prefix, String pattern, Limit limit);
+
+    @Query("SELECT c FROM Client c WHERE c.lastNameKey >= :prefix AND c.lastNameKey LIKE :pattern ESCAPE '\\' ORDER BY c.lastNameKey, c.id")
+    List<Client> searchByLastName(String prefix, String pattern, Limit limit);
+
+    @Query("SELECT c FROM Client c WHERE c.emailKey >= :prefix AND c.emailKey LIKE :pattern ESCAPE '\\' ORDER BY c.emailKey, c.id")
+    List<Client> searchByEmail(String prefix, String pattern, Limit limit);
+
+    @Query("SELECT c FROM Client c WHERE c.phoneKey >= :prefix AND c.phoneKey LIKE :pattern ESCAPE '\\' ORDER BY c.phoneKey, c.id")
+    List<Client> searchByPhone(String prefix, String pattern, Limit limit);
+
+    // Rows saved before the search keys (or the later email key) existed
+    @Query("SELECT c FROM Client c WHERE c.nameKey IS NULL OR c.emailKey IS NULL ORDER BY c.id")
+    List<Client> findWithoutSearchKeys(Limit limit);
 }
\ No newline at end of file
@@ -0,0 +1,44 @@
+package org.ncu.mf_loan_system.repository;
+
+import org.ncu.mf_loan_system.dto.LoanDueDate;
+import org.ncu.mf_loan_system.entities.Installment;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface InstallmentRepository extends JpaRepository<Installment, Long> {
+
+    List<Installment> findByLoanIdOrderByInstallmentNumberAsc(Long loanId);
+
+    Optional<Installment> findFirstByLoanIdOrderByInstallmentNumberAsc(Long loanId);
+
+    // First installment not yet covered by the loan's total paid
+    Optional<Installment> findFirstByLoanIdAndCumulativeDueGreaterThanOrderByInstallmentNumberAsc(
+            Long loanId, BigDecimal totalPaid);
+
+    // Last installment that has fallen due; its cumulativeDue is everything owed by that date
+    Optional<Installment> findFirstByLoanIdAndDueDateLessThanEqualOrderByDueDateDesc(Long loanId, LocalDate date);
+
+    // Same rule for many loans at once, against the totals already flushed; one row per loan with
+    // an uncovered installment
+    @Query("SELECT new org.ncu.mf_loan_system.dto.LoanDueDate(i.loan.id, MIN(i.dueDate)) FROM Installment i " +
+            "WHERE i.loan.id IN :loanIds AND i.cumulativeDue > i.loan.totalPaid GROUP BY i.loan.id")
+    List<LoanDueDate> findNextDueDates(Collection<Long> loanIds);
+
+    @Query("SELECT DISTINCT i.loan.id FROM Installment i WHERE i.loan.id IN :loanIds")
+    List<Long> findScheduledLoanIds(Collection<Long> loanIds);
+
+    @Modifying
+    @Query("DELETE FROM Installment i WHERE i.loan.id = :loanId")
+    int deleteByLoanId(Long loanId);
+
+    @Modifying
+    @Query("DELETE FROM Installment i WHERE i.loan.id IN :loanIds")
+    int deleteByLoanIds(Collection<Long> loanIds);
+}
@@ -0,0 +1,26 @@
+package org.ncu.mf_loan_system.repository;
+
+import org.ncu.mf_loan_system.entities.InterestAccrualPartition;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface InterestAccrualPartitionRepository extends JpaRepository<InterestAccrualPartition, Long> {
+
+    List<InterestAccrualPartition> findByAccrualDateOrderByPartitionNo(LocalDate accrualDate);
+
+    // Guarded on the expected position, so a chunk can only ever be counted once
+    @Modifying
+    @Query("UPDATE InterestAccrualPartition p SET p.nextId = :nextId, p.loansAccrued = p.loansAccrued + :loans, " +
+            "p.interestAccrued = p.interestAccrued + :interest WHERE p.id = :id AND p.nextId = :expectedNextId")
+    int advance(Long id, long expectedNextId, long nextId, long loans, BigDecimal interest);
+
+    @Modifying
+    @Query("UPDATE InterestAccrualPartition p SET p.completedAt = :completedAt WHERE p.id = :id")
+    int complete(Long id, LocalDateTime completedAt);
+}
@@ -0,0 +1,14 @@
+package org.ncu.mf_loan_system.repository;
+
+import org.ncu.mf_loan_system.entities.JournalCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+public interface JournalCheckpointRepository extends JpaRepository<JournalCheckpoint, String> {
+
+    // Only moves forward, so a replayed batch can never rewind the checkpoint
+    @Modifying
+    @Query("UPDATE JournalCheckpoint c SET c.lastSequence = :sequence WHERE c.name = :name AND c.lastSequence < :sequence")
+    int advance(String name, long sequence);
+}
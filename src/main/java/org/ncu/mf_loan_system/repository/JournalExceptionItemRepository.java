@@ -0,0 +1,14 @@
+package org.ncu.mf_loan_system.repository;
+
+import org.ncu.mf_loan_system.entities.JournalExceptionItem;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.List;
+
+public interface JournalExceptionItemRepository extends JpaRepository<JournalExceptionItem, Long> {
+
+    @Query("SELECT e FROM JournalExceptionItem e WHERE e.journal = :journal AND e.id > :afterId ORDER BY e.id")
+    List<JournalExceptionItem> findPageAfter(String journal, long afterId, Limit limit);
+}
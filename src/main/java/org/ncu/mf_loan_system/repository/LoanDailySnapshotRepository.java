@@ -0,0 +1,85 @@
+package org.ncu.mf_loan_system.repository;
+
+import org.ncu.mf_loan_system.entities.Loan;
+import org.ncu.mf_loan_system.entities.LoanDailySnapshot;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface LoanDailySnapshotRepository extends JpaRepository<LoanDailySnapshot, Long> {
+
+    // Snapshot writes, one loan id window per transaction (PortfolioSnapshotJob)
+    @Modifying
+    @Query("DELETE FROM LoanDailySnapshot s WHERE s.loanId >= :fromId AND s.loanId < :toId " +
+            "AND (s.snapshotDate = :day OR s.snapshotDate < :purgeBefore)")
+    int deleteForRewrite(LocalDate day, LocalDate purgeBefore, long fromId, long toId);
+
+    // Loans untouched since the previous snapshot (same @Version): copy yesterday's row,
+    // re-aging it to :day; nothing was collected on them
+    @Modifying
+    @Query("INSERT INTO LoanDailySnapshot (snapshotDate, loanId, clientId, loanVersion, status, principalAmount, " +
+            "totalPaid, outstandingBalance, collected, nextPaymentDate, daysPastDue) " +
+            "SELECT :day, s.loanId, s.clientId, s.loanVersion, s.status, s.principalAmount, s.totalPaid, " +
+            "s.outstandingBalance, 0, s.nextPaymentDate, " +
+            "CASE WHEN s.nextPaymentDate < :day THEN cast((:day - s.nextPaymentDate) by day as Integer) ELSE 0 END " +
+            "FROM LoanDailySnapshot s JOIN Loan l ON l.id = s.loanId AND l.version = s.loanVersion " +
+            "WHERE s.snapshotDate = :previous AND s.loanId >= :fromId AND s.loanId < :toId")
+    int carryForward(LocalDate day, LocalDate previous, long fromId, long toId);
+
+    // Payments counted as collected on the day they were entered, so backdated postings show up
+    // in the day they were posted rather than in a snapshot that has already been written
+    String COLLECTED_ON_DAY = "COALESCE((SELECT SUM(p.amount) FROM Payment p WHERE p.loan = l " +
+            "AND COALESCE(p.postedOn, p.paymentDate) = :day), 0)";
+
+    // Paid into the loan after :day, i.e. since the close of business being snapshotted
+    String POSTED_LATER = "COALESCE((SELECT SUM(p.amount) FROM Payment p WHERE p.loan = l AND p.postedOn > :day), 0)";
+
+    // First installment the loan's payments up to :day leave uncovered
+    String DUE_AS_OF_DAY = "(SELECT MIN(i.dueDate) FROM Installment i WHERE i.loan = l " +
+            "AND i.cumulativeDue > l.totalPaid - " + POSTED_LATER + ")";
+
+    // Loans paid into since :day: the loan row is already past close of business, so the
+    // later payments are taken back out of the running totals and the due date re-read from
+    // the schedule. Payments only ever move a loan to PAID, so a loan they settled gets the
+    // status it had the day before. No loan version is recorded, as the row is not the loan's
+    // current one and must not be carried forward. Run before snapshotChanged, which skips these rows.
+    @Modifying
+    @Query("INSERT INTO LoanDailySnapshot (snapshotDate, loanId, clientId, loanVersion, status, principalAmount, " +
+            "totalPaid, outstandingBalance, collected, nextPaymentDate, daysPastDue) " +
+            "SELECT :day, l.id, l.client.id, null, " +
+            "CASE WHEN l.status = org.ncu.mf_loan_system.entities.Loan.LoanStatus.PAID " +
+            "THEN COALESCE((SELECT y.status FROM LoanDailySnapshot y WHERE y.snapshotDate = :previous " +
+            "AND y.loanId = l.id), org.ncu.mf_loan_system.entities.Loan.LoanStatus.ACTIVE) ELSE l.status END, " +
+            "l.principalAmount, l.totalPaid - " + POSTED_LATER + ", l.outstandingBalance + " + POSTED_LATER + ", " +
+            COLLECTED_ON_DAY + ", " + DUE_AS_OF_DAY + ", " +
+            "CASE WHEN " + DUE_AS_OF_DAY + " < :day THEN cast((:day - " + DUE_AS_OF_DAY + ") by day as Integer) " +
+            "ELSE 0 END " +
+            "FROM Loan l WHERE l.id >= :fromId AND l.id < :toId AND l.id IN " +
+            "(SELECT p.loan.id FROM Payment p WHERE p.postedOn > :day AND p.loan.id >= :fromId AND p.loan.id < :toId)")
+    int snapshotPostedSince(LocalDate day, LocalDate previous, long fromId, long toId);
+
+    // Everything else (new, paid into, edited or reclassified loans) is read from the loan
+    // row, with the day's postings summed through the loan_id index
+    @Modifying
+    @Query("INSERT INTO LoanDailySnapshot (snapshotDate, loanId, clientId, loanVersion, status, principalAmount, " +
+            "totalPaid, outstandingBalance, collected, nextPaymentDate, daysPastDue) " +
+            "SELECT :day, l.id, l.client.id, l.version, l.status, l.principalAmount, l.totalPaid, " +
+            "l.outstandingBalance, " + COLLECTED_ON_DAY + ", l.nextPaymentDate, " +
+            "CASE WHEN l.nextPaymentDate < :day THEN cast((:day - l.nextPaymentDate) by day as Integer) ELSE 0 END " +
+            "FROM Loan l WHERE l.id >= :fromId AND l.id < :toId AND NOT EXISTS " +
+            "(SELECT 1 FROM LoanDailySnapshot s WHERE s.snapshotDate = :day AND s.loanId = l.id)")
+    int snapshotChanged(LocalDate day, long fromId, long toId);
+
+    // Reads (reporting endpoints)
+    @Query("SELECT s FROM LoanDailySnapshot s WHERE s.snapshotDate = :day AND s.loanId > :afterLoanId " +
+            "AND (:status IS NULL OR s.status = :status) ORDER BY s.loanId")
+    List<LoanDailySnapshot> findPageAfter(LocalDate day, long afterLoanId, Loan.LoanStatus status, Limit limit);
+
+    @Query("SELECT s FROM LoanDailySnapshot s WHERE s.loanId = :loanId " +
+            "AND s.snapshotDate >= :from AND s.snapshotDate <= :to ORDER BY s.snapshotDate")
+    List<LoanDailySnapshot> findHistory(Long loanId, LocalDate from, LocalDate to);
+}
@@ -0,0 +1,14 @@
+package org.ncu.mf_loan_system.repository;
+
+import org.ncu.mf_loan_system.entities.LoanImportError;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.List;
+
+public interface LoanImportErrorRepository extends JpaRepository<LoanImportError, Long> {
+
+    @Query("SELECT e FROM LoanImportError e WHERE e.importId = :importId AND e.id > :afterId ORDER BY e.id")
+    List<LoanImportError> findPageAfter(Long importId, long afterId, Limit limit);
+}
@@ -0,0 +1,25 @@
+package org.ncu.mf_loan_system.repository;
+
+import org.ncu.mf_loan_system.entities.LoanImport;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.time.LocalDateTime;
+
+public interface LoanImportRepository extends JpaRepository<LoanImport, Long> {
+
+    // Guarded on the expected position, so two uploads resuming the same import cannot both
+    // commit a chunk
+    @Modifying
+    @Query("UPDATE LoanImport i SET i.rowsCommitted = :rowsCommitted, i.imported = i.imported + :imported, " +
+            "i.rejected = i.rejected + :rejected, i.clientsCreated = i.clientsCreated + :clientsCreated, " +
+            "i.updatedAt = :now WHERE i.id = :id AND i.rowsCommitted = :expectedRows")
+    int advance(Long id, long expectedRows, long rowsCommitted, long imported, long rejected, long clientsCreated,
+                LocalDateTime now);
+
+    @Modifying
+    @Query("UPDATE LoanImport i SET i.status = :status, i.lastError = :lastError, i.updatedAt = :now " +
+            "WHERE i.id = :id")
+    int finish(Long id, LoanImport.ImportStatus status, String lastError, LocalDateTime now);
+}
@@ -0,0 +1,33 @@
+package org.ncu.mf_loan_system.repository;
+
+import jakarta.persistence.LockModeType;
+import org.ncu.mf_loan_system.dto.ParBucketTotals;
+import org.ncu.mf_loan_system.entities.LoanParPosition;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface LoanParPositionRepository extends JpaRepository<LoanParPosition, Long> {
+
+    Optional<LoanParPosition> findFirstByOrderByLoanIdAsc();
+
+    // Locked in loan id order, so concurrent refreshes of the same loan queue up instead of
+    // each moving a delta computed from the same old position
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT p FROM LoanParPosition p WHERE p.loanId IN :loanIds ORDER BY p.loanId")
+    List<LoanParPosition> findAllForUpdate(Collection<Long> loanIds);
+
+    // A client's own loans only, through the client_id index
+    @Query("SELECT p.bucket AS bucket, COUNT(p) AS loanCount, SUM(p.balance) AS balance " +
+            "FROM LoanParPosition p WHERE p.clientId = :clientId GROUP BY p.bucket")
+    List<ParBucketTotals> summarizeByClientId(Long clientId);
+
+    @Modifying
+    @Query("DELETE FROM LoanParPosition p")
+    int deleteAllPositions();
+}
@@ -1,15 +1,179 @@
 package org.ncu.mf_loan_system.repository;
 
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.ncu.mf_loan_system.dto.LoanMatchKey;
+import org.ncu.mf_loan_system.dto.LoanParState;
+import org.ncu.mf_loan_system.dto.LoanRow;
+import org.ncu.mf_loan_system.dto.LoanStatusTotals;
 import org.ncu.mf_loan_system.entities.Loan;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 
+import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface LoanRepository extends JpaRepository<Loan, Long> {
     List<Loan> findByStatusAndEndDateBefore(Loan.LoanStatus status, LocalDate date);
 
+    String LOAN_ROW = "SELECT new org.ncu.mf_loan_system.dto.LoanRow(l.id, l.client.id, l.principalAmount, " +
+            "l.interestRate, l.startDate, l.endDate, l.nextPaymentDate, l.status, l.totalPaid, " +
+            "l.outstandingBalance) FROM Loan l ";
+
+    // Overdue listing; a range per status on idx_loans_status_id
+    @Query(LOAN_ROW + "WHERE l.status IN :statuses AND l.id > :afterId ORDER BY l.id")
+    List<LoanRow> findRowsByStatusInAfter(Collection<Loan.LoanStatus> statuses, long afterId, Limit limit);
+
+    // Holds the loan row while it is archived and deleted, so a payment posted from another
+    // node waits on it and then finds the loan gone rather than landing between copy and delete
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT l FROM Loan l WHERE l.id = :id")
+    Optional<Loan> findByIdForUpdate(Long id);
+
+    @Query("SELECT l.id FROM Loan l WHERE l.client.id = :clientId")
+    List<Long> findIdsByClientId(Long clientId);
+
     @Query("SELECT l FROM Loan l WHERE l.client.id = :clientId")
     List<Loan> findByClientId(Long clientId);
+
+    @Query("SELECT new org.ncu.mf_loan_system.dto.LoanRow(l.id, l.client.id, l.principalAmount, " +
+            "l.interestRate, l.startDate, l.endDate, l.nextPaymentDate, l.status, l.totalPaid, " +
+            "l.outstandingBalance) FROM Loan l WHERE l.client.id = :clientId ORDER BY l.id")
+    List<LoanRow> findRowsByClientId(Long clientId);
+
+    // Loan listing pages, one query per filter combination so each is a range on its own index
+    // (primary key, idx_loans_status_id or the client_id foreign key); the start date bounds are
+    // always set, open ends filled in by CursorPage
+    String STARTED_BETWEEN = "AND l.startDate >= :from AND l.startDate <= :to ORDER BY l.id";
+
+    @Query(LOAN_ROW + "WHERE l.id > :afterId " + STARTED_BETWEEN)
+    List<LoanRow> findPageAfter(long afterId, LocalDate from, LocalDate to, Limit limit);
+
+    @Query(LOAN_ROW + "WHERE l.status = :status AND l.id > :afterId " + STARTED_BETWEEN)
+    List<LoanRow> findPageAfterByStatus(long afterId, Loan.LoanStatus status, LocalDate from, LocalDate to,
+                                        Limit limit);
+
+    @Query(LOAN_ROW + "WHERE l.client.id = :clientId AND l.id > :afterId " + STARTED_BETWEEN)
+    List<LoanRow> findPageAfterByClient(long afterId, Long clientId, LocalDate from, LocalDate to, Limit limit);
+
+    @Query(LOAN_ROW + "WHERE l.client.id = :clientId AND l.status = :status AND l.id > :afterId " + STARTED_BETWEEN)
+    List<LoanRow> findPageAfterByClientAndStatus(long afterId, Long clientId, Loan.LoanStatus status,
+                                                 LocalDate from, LocalDate to, Limit limit);
+
+    // Server-side cursor read for the export; rows are DTOs so nothing accumulates in the persistence context
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT new org.ncu.mf_loan_system.dto.LoanRow(l.id, l.client.id, l.principalAmount, " +
+            "l.interestRate, l.startDate, l.endDate, l.nextPaymentDate, l.status, l.totalPaid, " +
+            "l.outstandingBalance) FROM Loan l ORDER BY l.id")
+    Stream<LoanRow> streamForExport();
+
+    @Query("SELECT COALESCE(SUM(l.outstandingBalance), 0) FROM Loan l")
+    BigDecimal sumOutstandingBalance();
+
+    @Query("SELECT l.status AS status, COUNT(l) AS loanCount, " +
+            "COALESCE(SUM(l.principalAmount), 0) AS disbursed, " +
+            "COALESCE(SUM(l.outstandingBalance), 0) AS outstanding " +
+            "FROM Loan l GROUP BY l.status")
+    List<LoanStatusTotals> summarizeByStatus();
+
+    // PAR aging (ParAgingServiceImpl): the columns a loan's bucket and balance derive from
+    @Query("SELECT new org.ncu.mf_loan_system.dto.LoanParState(l.id, l.client.id, l.status, " +
+            "l.nextPaymentDate, l.principalAmount, l.principalRepaid) FROM Loan l WHERE l.id IN :loanIds")
+    List<LoanParState> findParStates(Collection<Long> loanIds);
+
+    // Loans whose days past due cross a bucket boundary between two dates; a range on idx_loans_status_next_due
+    @Query("SELECT l.id FROM Loan l WHERE l.status IN :statuses " +
+            "AND l.nextPaymentDate > :after AND l.nextPaymentDate <= :through")
+    List<Long> findIdsDueBetween(List<Loan.LoanStatus> statuses, LocalDate after, LocalDate through);
+
+    @Query("SELECT l.id FROM Loan l WHERE l.id > :afterId ORDER BY l.id")
+    List<Long> findIdsAfter(long afterId, Limit limit);
+
+    // Hot/cold archival (LoanArchivalJob): settled loans with no payment on or after the cutoff
+    @Query("SELECT l.id FROM Loan l WHERE l.status = :status AND l.id > :afterId " +
+            "AND NOT EXISTS (SELECT 1 FROM Payment p WHERE p.loan = l AND p.paymentDate >= :cutoff) ORDER BY l.id")
+    List<Long> findIdsLastPaidBefore(Loan.LoanStatus status, LocalDate cutoff, long afterId, Limit limit);
+
+    // Statement reconciliation (LoanMatchIndex): open loans, keyset-paged, with the EMI taken
+    // from installment 1 through uk_installment_loan_number
+    @Query("SELECT new org.ncu.mf_loan_system.dto.LoanMatchKey(l.id, c.phoneKey, i.amount) " +
+            "FROM Installment i JOIN i.loan l JOIN l.client c " +
+            "WHERE i.installmentNumber = 1 AND l.status IN :statuses AND l.id > :afterId ORDER BY l.id")
+    List<LoanMatchKey> findMatchKeys(List<Loan.LoanStatus> statuses, long afterId, Limit limit);
+
+    // Daily interest accrual (InterestAccrualJob): outstanding principal x annual rate / 365 for
+    // each day since the last accrual (or the start date). The through-date guard makes a
+    // repeated window a no-op. It is assigned last because MySQL evaluates SET left to right
+    // against already-updated values.
+    @Modifying
+    @Query("UPDATE Loan l SET " +
+            "l.lastAccrual = ROUND((l.principalAmount - COALESCE(l.principalRepaid, 0)) * l.interestRate " +
+            "* ((:day - COALESCE(l.interestAccruedThrough, l.startDate)) by day) / 36500, 2), " +
+            "l.accruedInterest = COALESCE(l.accruedInterest, 0) + ROUND((l.principalAmount - COALESCE(l.principalRepaid, 0)) " +
+            "* l.interestRate * ((:day - COALESCE(l.interestAccruedThrough, l.startDate)) by day) / 36500, 2), " +
+            "l.interestAccruedThrough = :day " +
+            "WHERE l.status IN :statuses AND l.id >= :fromId AND l.id < :toId " +
+            "AND COALESCE(l.interestAccruedThrough, l.startDate) < :day")
+    int accrueInterest(LocalDate day, List<Loan.LoanStatus> statuses, long fromId, long toId);
+
+    @Query("SELECT COALESCE(SUM(l.lastAccrual), 0) FROM Loan l " +
+            "WHERE l.id >= :fromId AND l.id < :toId AND l.interestAccruedThrough = :day")
+    BigDecimal sumAccrued(LocalDate day, long fromId, long toId);
+
+    // Overdue/default classification, applied one id window at a time by LoanClassificationJob
+    @Query("SELECT MIN(l.id) FROM Loan l WHERE l.status IN :statuses")
+    Long findMinIdByStatusIn(List<Loan.LoanStatus> statuses);
+
+    @Query("SELECT MAX(l.id) FROM Loan l WHERE l.status IN :statuses")
+    Long findMaxIdByStatusIn(List<Loan.LoanStatus> statuses);
+
+    @Query("SELECT MIN(l.id) FROM Loan l")
+    Long findMinId();
+
+    @Query("SELECT MAX(l.id) FROM Loan l")
+    Long findMaxId();
+
+    // VERSIONED bumps @Version so an in-flight payment that read the old status retries
+    // rather than writing it back
+    @Modifying
+    @Query("UPDATE VERSIONED Loan l SET l.status = org.ncu.mf_loan_system.entities.Loan.LoanStatus.OVERDUE " +
+            "WHERE l.status = org.ncu.mf_loan_system.entities.Loan.LoanStatus.ACTIVE " +
+            "AND (l.nextPaymentDate < :overdueCutoff OR l.endDate < :today) " +
+            "AND l.id >= :fromId AND l.id < :toId")
+    int markOverdue(LocalDate overdueCutoff, LocalDate today, long fromId, long toId);
+
+    @Modifying
+    @Query("UPDATE VERSIONED Loan l SET l.status = org.ncu.mf_loan_system.entities.Loan.LoanStatus.DEFAULTED " +
+            "WHERE l.status = org.ncu.mf_loan_system.entities.Loan.LoanStatus.OVERDUE " +
+            "AND (l.nextPaymentDate < :defaultCutoff OR l.endDate < :defaultCutoff) " +
+            "AND l.id >= :fromId AND l.id < :toId")
+    int markDefaulted(LocalDate defaultCutoff, long fromId, long toId);
+
+    // Loans brought current by repayments since the last run go back to ACTIVE
+    @Modifying
+    @Query("UPDATE VERSIONED Loan l SET l.status = org.ncu.mf_loan_system.entities.Loan.LoanStatus.ACTIVE " +
+            "WHERE l.status = org.ncu.mf_loan_system.entities.Loan.LoanStatus.OVERDUE " +
+            "AND l.nextPaymentDate >= :overdueCutoff AND l.endDate >= :today " +
+            "AND l.id >= :fromId AND l.id < :toId")
+    int markCured(LocalDate overdueCutoff, LocalDate today, long fromId, long toId);
+
+    @Modifying
+    @Query("UPDATE Loan l SET l.version = 0 WHERE l.version IS NULL")
+    int backfillVersion();
+
+    // Loans whose ledger predates the scheduled interest column (LedgerBackfillRunner)
+    @Query("SELECT l.id FROM Loan l WHERE l.interestDue IS NULL AND l.id > :afterId ORDER BY l.id")
+    List<Long> findIdsWithoutInterestDue(long afterId, Limit limit);
 }
\ No newline at end of file
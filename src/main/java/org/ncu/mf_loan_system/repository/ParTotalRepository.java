@@ -0,0 +1,27 @@
+package org.ncu.mf_loan_system.repository;
+
+import org.ncu.mf_loan_system.dto.ParBucketTotals;
+import org.ncu.mf_loan_system.entities.ParTotal;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+public interface ParTotalRepository extends JpaRepository<ParTotal, Integer> {
+
+    // Fixed number of rows (buckets x stripes), whatever the portfolio size
+    @Query("SELECT t.bucket AS bucket, SUM(t.loanCount) AS loanCount, SUM(t.balance) AS balance " +
+            "FROM ParTotal t GROUP BY t.bucket")
+    List<ParBucketTotals> summarize();
+
+    @Modifying
+    @Query("UPDATE ParTotal t SET t.loanCount = t.loanCount + :loans, t.balance = t.balance + :balance " +
+            "WHERE t.id = :id")
+    int applyDelta(int id, long loans, BigDecimal balance);
+
+    @Modifying
+    @Query("UPDATE ParTotal t SET t.loanCount = 0, t.balance = 0")
+    int resetAll();
+}
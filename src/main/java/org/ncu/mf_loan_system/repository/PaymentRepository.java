@@ -1,7 +1,59 @@
 package org.ncu.mf_loan_system.repository;
 
+import org.ncu.mf_loan_system.dto.PaymentRow;
+import org.ncu.mf_loan_system.dto.PaymentStatusTotals;
 import org.ncu.mf_loan_system.entities.Payment;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 
 public interface PaymentRepository extends JpaRepository<Payment, Long> {
-}
\ No newline at end of file
+
+    String PAYMENT_ROW = "SELECT new org.ncu.mf_loan_system.dto.PaymentRow(p.loan.id, p.id, p.amount, p.paymentDate) " +
+            "FROM Payment p ";
+
+    // Payment listing pages, one query per filter combination like LoanRepository.findPageAfter;
+    // the payment date bounds are always set
+    String PAID_BETWEEN = "AND p.paymentDate >= :from AND p.paymentDate <= :to ORDER BY p.id";
+
+    @Query(PAYMENT_ROW + "WHERE p.id > :afterId " + PAID_BETWEEN)
+    List<PaymentRow> findPageAfter(long afterId, LocalDate from, LocalDate to, Limit limit);
+
+    @Query(PAYMENT_ROW + "WHERE p.loan.id = :loanId AND p.id > :afterId " + PAID_BETWEEN)
+    List<PaymentRow> findPageAfterByLoan(long afterId, Long loanId, LocalDate from, LocalDate to, Limit limit);
+
+    @Query(PAYMENT_ROW + "WHERE p.loan.client.id = :clientId AND p.id > :afterId " + PAID_BETWEEN)
+    List<PaymentRow> findPageAfterByClient(long afterId, Long clientId, LocalDate from, LocalDate to, Limit limit);
+
+    @Query(PAYMENT_ROW + "WHERE p.loan.id = :loanId AND p.loan.client.id = :clientId AND p.id > :afterId " +
+            PAID_BETWEEN)
+    List<PaymentRow> findPageAfterByLoanAndClient(long afterId, Long loanId, Long clientId,
+                                                  LocalDate from, LocalDate to, Limit limit);
+
+    // Which loan's write stripe an edit has to take, without loading the payment
+    @Query("SELECT p.loan.id FROM Payment p WHERE p.id = :id")
+    Optional<Long> findLoanIdById(Long id);
+
+    // References of a bulk chunk that are already posted, through the unique key
+    @Query("SELECT p.statementReference FROM Payment p WHERE p.statementReference IN :references")
+    List<String> findPostedReferences(Collection<String> references);
+
+    @Query(PAYMENT_ROW + "WHERE p.loan.id IN :loanIds ORDER BY p.loan.id, p.id")
+    List<PaymentRow> findRowsByLoanIds(Collection<Long> loanIds);
+
+    @Query("SELECT l.status AS status, COUNT(p) AS paymentCount, " +
+            "COALESCE(SUM(p.amount), 0) AS collected " +
+            "FROM Payment p JOIN p.loan l GROUP BY l.status")
+    List<PaymentStatusTotals> summarizeByLoanStatus();
+
+    // Set-based removal for ArchiveServiceImpl, after the rows were copied to archived_payments
+    @Modifying
+    @Query("DELETE FROM Payment p WHERE p.loan.id IN :loanIds")
+    int deleteByLoanIds(Collection<Long> loanIds);
+}
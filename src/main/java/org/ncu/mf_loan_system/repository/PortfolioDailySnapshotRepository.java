@@ -0,0 +1,31 @@
+package org.ncu.mf_loan_system.repository;
+
+import org.ncu.mf_loan_system.entities.PortfolioDailySnapshot;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface PortfolioDailySnapshotRepository extends JpaRepository<PortfolioDailySnapshot, Long> {
+
+    @Modifying
+    @Query("DELETE FROM PortfolioDailySnapshot s WHERE s.snapshotDate = :day OR s.snapshotDate < :purgeBefore")
+    int deleteForRewrite(LocalDate day, LocalDate purgeBefore);
+
+    // One pass over the day's loan snapshots, never the live tables
+    @Modifying
+    @Query("INSERT INTO PortfolioDailySnapshot (snapshotDate, status, loanCount, disbursed, collected, " +
+            "outstanding, pastDueCount) " +
+            "SELECT s.snapshotDate, s.status, COUNT(s), COALESCE(SUM(s.principalAmount), 0), " +
+            "COALESCE(SUM(s.collected), 0), COALESCE(SUM(s.outstandingBalance), 0), " +
+            "SUM(CASE WHEN s.daysPastDue > 0 THEN 1 ELSE 0 END) " +
+            "FROM LoanDailySnapshot s WHERE s.snapshotDate = :day GROUP BY s.snapshotDate, s.status")
+    int summarize(LocalDate day);
+
+    List<PortfolioDailySnapshot> findBySnapshotDate(LocalDate day);
+
+    @Query("SELECT MAX(s.snapshotDate) FROM PortfolioDailySnapshot s")
+    LocalDate findLatestDate();
+}
@@ -0,0 +1,22 @@
+package org.ncu.mf_loan_system.repository;
+
+import org.ncu.mf_loan_system.entities.ReconciliationExceptionItem;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface ReconciliationExceptionItemRepository extends JpaRepository<ReconciliationExceptionItem, Long> {
+
+    @Query("SELECT e FROM ReconciliationExceptionItem e WHERE e.reconciliationId = :reconciliationId " +
+            "AND e.id > :afterId AND (:reason IS NULL OR e.reason = :reason) ORDER BY e.id")
+    List<ReconciliationExceptionItem> findPageAfter(Long reconciliationId, long afterId,
+                                                    ReconciliationExceptionItem.Reason reason, Limit limit);
+
+    // Lines of a resumed run that already have an exception from an earlier attempt
+    @Query("SELECT e.lineNumber FROM ReconciliationExceptionItem e WHERE e.reconciliationId = :reconciliationId " +
+            "AND e.lineNumber IN :lineNumbers")
+    List<Long> findLineNumbers(Long reconciliationId, Collection<Long> lineNumbers);
+}
@@ -0,0 +1,43 @@
+package org.ncu.mf_loan_system.repository;
+
+import org.ncu.mf_loan_system.entities.StatementReconciliation;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+public interface StatementReconciliationRepository extends JpaRepository<StatementReconciliation, Long> {
+
+    @Modifying
+    @Query("UPDATE StatementReconciliation r SET r.loansIndexed = :loansIndexed, r.updatedAt = :now WHERE r.id = :id")
+    int indexed(Long id, int loansIndexed, LocalDateTime now);
+
+    // Posting workers add their batch's totals; additive so concurrent workers do not clash
+    @Modifying
+    @Query("UPDATE StatementReconciliation r SET r.posted = r.posted + :posted, " +
+            "r.amountPosted = r.amountPosted + :amountPosted, r.duplicates = r.duplicates + :duplicates, " +
+            "r.exceptions = r.exceptions + :exceptions, r.updatedAt = :now WHERE r.id = :id")
+    int advance(Long id, long posted, BigDecimal amountPosted, long duplicates, long exceptions, LocalDateTime now);
+
+    @Modifying
+    @Query("UPDATE StatementReconciliation r SET r.linesRead = :linesRead, r.exceptions = r.exceptions + :exceptions, " +
+            "r.updatedAt = :now WHERE r.id = :id")
+    int read(Long id, long linesRead, long exceptions, LocalDateTime now);
+
+    // Takes a FAILED run back, or a RUNNING one that has not moved since staleBefore (its node
+    // died mid-file); conditional, so two resumes of the same run cannot both proceed
+    @Modifying
+    @Query("UPDATE StatementReconciliation r SET r.status = org.ncu.mf_loan_system.entities." +
+            "StatementReconciliation.RunStatus.RUNNING, r.lastError = null, r.updatedAt = :now WHERE r.id = :id " +
+            "AND (r.status = org.ncu.mf_loan_system.entities.StatementReconciliation.RunStatus.FAILED " +
+            "OR (r.status = org.ncu.mf_loan_system.entities.StatementReconciliation.RunStatus.RUNNING " +
+            "AND r.updatedAt < :staleBefore))")
+    int resume(Long id, LocalDateTime staleBefore, LocalDateTime now);
+
+    @Modifying
+    @Query("UPDATE StatementReconciliation r SET r.status = :status, r.lastError = :lastError, r.updatedAt = :now " +
+            "WHERE r.id = :id")
+    int finish(Long id, StatementReconciliation.RunStatus status, String lastError, LocalDateTime now);
+}
@@ -0,0 +1,30 @@
+package org.ncu.mf_loan_system.service;
+
+import org.ncu.mf_loan_system.dto.ArchiveResult;
+import org.ncu.mf_loan_system.dto.LoanRow;
+import org.ncu.mf_loan_system.dto.LoanStatusTotals;
+import org.ncu.mf_loan_system.dto.PaymentRow;
+import org.ncu.mf_loan_system.dto.PaymentStatusTotals;
+import org.ncu.mf_loan_system.entities.ArchivedLoan;
+import org.ncu.mf_loan_system.entities.Loan;
+import org.ncu.mf_loan_system.entities.Payment;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+public interface ArchiveService {
+    ArchiveResult archiveClient(Long clientId);
+    ArchiveResult archiveLoans(Collection<Long> loanIds, ArchivedLoan.ArchiveReason reason);
+    List<Long> archivePaidLoans(LocalDate lastPaidBefore, long afterId, int limit);
+    Optional<Loan> findPaidLoan(Long loanId);
+    boolean isPaidLoanArchived(Long loanId);
+    Optional<Payment> findPaidLoanPayment(Long paymentId);
+    List<LoanRow> findPaidLoanRows(Long clientId);
+    List<PaymentRow> findPaymentRows(Collection<Long> loanIds);
+    Stream<LoanRow> streamPaidLoanRows();
+    List<LoanStatusTotals> summarizeLoansByStatus();
+    List<PaymentStatusTotals> summarizePaymentsByLoanStatus();
+}
@@ -0,0 +1,165 @@
+package org.ncu.mf_loan_system.service;
+
+import org.ncu.mf_loan_system.dto.ArchiveResult;
+import org.ncu.mf_loan_system.dto.LoanRow;
+import org.ncu.mf_loan_system.dto.LoanStatusTotals;
+import org.ncu.mf_loan_system.dto.PaymentRow;
+import org.ncu.mf_loan_system.dto.PaymentStatusTotals;
+import org.ncu.mf_loan_system.entities.ArchivedLoan;
+import org.ncu.mf_loan_system.entities.ArchivedPayment;
+import org.ncu.mf_loan_system.entities.Loan;
+import org.ncu.mf_loan_system.entities.Payment;
+import org.ncu.mf_loan_system.exception.ResourceNotFoundException;
+import org.ncu.mf_loan_system.repository.*;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+// Moves clients and loans to the archive tables with INSERT ... SELECT and bulk DELETE, in
+// the caller's transaction. A client costs the same handful of statements whatever number
+// of loans and payments it has; nothing is loaded into the persistence context, so the
+// Client.loans / Loan.payments cascades never run. Settled loans archived as PAID stay
+// readable through the find* methods.
+@Service
+@Transactional
+public class ArchiveServiceImpl implements ArchiveService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ArchiveServiceImpl.class);
+
+    private final ClientRepository clientRepository;
+    private final LoanRepository loanRepository;
+    private final PaymentRepository paymentRepository;
+    private final InstallmentRepository installmentRepository;
+    private final ArchivedClientRepository archivedClientRepository;
+    private final ArchivedLoanRepository archivedLoanRepository;
+    private final ArchivedPaymentRepository archivedPaymentRepository;
+    private final LoanSnapshotCache snapshotCache;
+    private final ParAgingService parAgingService;
+
+    public ArchiveServiceImpl(ClientRepository clientRepository, LoanRepository loanRepository,
+                              PaymentRepository paymentRepository, InstallmentRepository installmentRepository,
+                              ArchivedClientRepository archivedClientRepository,
+                              ArchivedLoanRepository archivedLoanRepository,
+                              ArchivedPaymentRepository archivedPaymentRepository,
+                              LoanSnapshotCache snapshotCache, ParAgingService parAgingService) {
+        this.clientRepository = clientRepository;
+        this.loanRepository = loanRepository;
+        this.paymentRepository = paymentRepository;
+        this.installmentRepository = installmentRepository;
+        this.archivedClientRepository = archivedClientRepository;
+        this.archivedLoanRepository = archivedLoanRepository;
+        this.archivedPaymentRepository = archivedPaymentRepository;
+        this.snapshotCache = snapshotCache;
+        this.parAgingService = parAgingService;
+    }
+
+    @Override
+    public ArchiveResult archiveClient(Long clientId) {
+        if (!clientRepository.existsById(clientId)) {
+            throw new ResourceNotFoundException("Client not found with id: " + clientId);
+        }
+        ArchiveResult loans = archiveLoans(loanRepository.findIdsByClientId(clientId),
+                ArchivedLoan.ArchiveReason.DELETED);
+        archivedLoanRepository.markDeletedByClientId(clientId);
+        int clients = archivedClientRepository.archive(clientId, LocalDateTime.now());
+        clientRepository.deleteAllByIdInBatch(List.of(clientId));
+        logger.info("Archived client {} with {} loans and {} payments", clientId, loans.loans(), loans.payments());
+        return new ArchiveResult(clients, loans.loans(), loans.payments());
+    }
+
+    @Override
+    public ArchiveResult archiveLoans(Collection<Long> loanIds, ArchivedLoan.ArchiveReason reason) {
+        if (loanIds.isEmpty()) {
+            return new ArchiveResult(0, 0, 0);
+        }
+        LocalDateTime now = LocalDateTime.now();
+        int payments = archivedPaymentRepository.archive(loanIds, now);
+        int loans = archivedLoanRepository.archive(loanIds, reason, now);
+
+        // Children first; the schedule is not archived, it follows from the loan's terms
+        paymentRepository.deleteByLoanIds(loanIds);
+        installmentRepository.deleteByLoanIds(loanIds);
+        loanRepository.deleteAllByIdInBatch(loanIds);
+
+        snapshotCache.evictAll(loanIds);
+        // Loans that are gone drop out of their PAR bucket and the totals
+        parAgingService.refresh(loanIds);
+        return new ArchiveResult(0, loans, payments);
+    }
+
+    // One keyset chunk of settled loans; returns the ids it moved so the caller can continue
+    // after the last one
+    @Override
+    public List<Long> archivePaidLoans(LocalDate lastPaidBefore, long afterId, int limit) {
+        List<Long> loanIds = loanRepository.findIdsLastPaidBefore(Loan.LoanStatus.PAID, lastPaidBefore, afterId,
+                Limit.of(limit));
+        archiveLoans(loanIds, ArchivedLoan.ArchiveReason.PAID);
+        return loanIds;
+    }
+
+    // Read fallback for LoanService once a settled loan has left the hot tables
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<Loan> findPaidLoan(Long loanId) {
+        return archivedLoanRepository.findByIdAndReason(loanId, ArchivedLoan.ArchiveReason.PAID)
+                .map(archived -> archived.toLoan(clientRepository.getReferenceById(archived.getClientId()),
+                        archivedPaymentRepository.findByLoanIdOrderByIdAsc(loanId).stream()
+                                .map(ArchivedPayment::toPayment)
+                                .collect(Collectors.toCollection(ArrayList::new))));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public boolean isPaidLoanArchived(Long loanId) {
+        return archivedLoanRepository.existsByIdAndReason(loanId, ArchivedLoan.ArchiveReason.PAID);
+    }
+
+    // Read fallback for PaymentService; the copy has no loan attached
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<Payment> findPaidLoanPayment(Long paymentId) {
+        return archivedPaymentRepository.findPaidById(paymentId).map(ArchivedPayment::toPayment);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<LoanRow> findPaidLoanRows(Long clientId) {
+        return archivedLoanRepository.findRowsByClientId(clientId);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<PaymentRow> findPaymentRows(Collection<Long> loanIds) {
+        return archivedPaymentRepository.findRowsByLoanIds(loanIds);
+    }
+
+    // Must be consumed inside the caller's transaction, like any repository stream
+    @Override
+    @Transactional(readOnly = true)
+    public Stream<LoanRow> streamPaidLoanRows() {
+        return archivedLoanRepository.streamForExport();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<LoanStatusTotals> summarizeLoansByStatus() {
+        return archivedLoanRepository.summarizeByStatus();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<PaymentStatusTotals> summarizePaymentsByLoanStatus() {
+        return archivedPaymentRepository.summarizeByLoanStatus();
+    }
+}
@@ -0,0 +1,185 @@
+package org.ncu.mf_loan_system.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.ncu.mf_loan_system.config.AuditProperties;
+import org.ncu.mf_loan_system.entities.AuditEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.web.context.WebServerGracefulShutdownLifecycle;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+// Request threads only enqueue; one background writer batch-inserts into audit_events.
+// Events raised inside a transaction are enqueued after it commits, so rolled-back work
+// never reaches the trail. A batch the database rejects is kept and retried with backoff
+// until it is written; only a shutdown that outlasts audit.shutdown-timeout gives up on it.
+@Component
+public class AuditTrail implements SmartLifecycle {
+
+    private static final Logger logger = LoggerFactory.getLogger(AuditTrail.class);
+
+    private static final String INSERT_SQL = "INSERT INTO audit_events (event_type, entity_id, loan_id, amount, occurred_at) " +
+            "VALUES (?, ?, ?, ?, ?)";
+
+    private final BlockingQueue<AuditEvent> buffer;
+    private final JdbcTemplate jdbcTemplate;
+    private final AuditProperties properties;
+    private final Counter written;
+    private final Counter dropped;
+    private final Counter failed;
+    private final Counter retried;
+
+    private volatile boolean running;
+    private volatile long stopDeadline;
+    private Thread writer;
+
+    public AuditTrail(JdbcTemplate jdbcTemplate, AuditProperties properties, MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.properties = properties;
+        this.buffer = new ArrayBlockingQueue<>(properties.getCapacity());
+        Gauge.builder("audit.queue.depth", buffer, BlockingQueue::size)
+                .description("Audit events waiting to be written")
+                .register(meterRegistry);
+        this.written = meterRegistry.counter("audit.events", "result", "written");
+        this.dropped = meterRegistry.counter("audit.events", "result", "dropped");
+        this.failed = meterRegistry.counter("audit.events", "result", "failed");
+        this.retried = meterRegistry.counter("audit.events", "result", "retried");
+    }
+
+    public void record(AuditEvent event) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    enqueue(event);
+                }
+            });
+        } else {
+            enqueue(event);
+        }
+    }
+
+    private void enqueue(AuditEvent event) {
+        if (buffer.offer(event)) {
+            return;
+        }
+        if (properties.getOverflow() == AuditProperties.OverflowPolicy.BLOCK) {
+            try {
+                if (buffer.offer(event, properties.getBlockTimeout().toNanos(), TimeUnit.NANOSECONDS)) {
+                    return;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        dropped.increment();
+    }
+
+    int pending() {
+        return buffer.size();
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        // Not a daemon: the JVM must not exit with a batch in flight
+        writer = new Thread(this::writeLoop, "audit-writer");
+        writer.start();
+    }
+
+    // Drains whatever is still buffered before the datasource goes away
+    @Override
+    public void stop() {
+        long timeout = properties.getShutdownTimeout().toNanos();
+        stopDeadline = System.nanoTime() + timeout;
+        running = false;
+        LockSupport.unpark(writer);
+        try {
+            writer.join(TimeUnit.NANOSECONDS.toMillis(timeout) + 1000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    // Lower phases stop later: one step below the web server's own start/stop phase, so
+    // this stops only after the server has stopped taking and finishing requests
+    @Override
+    public int getPhase() {
+        return WebServerGracefulShutdownLifecycle.SMART_LIFECYCLE_PHASE - 2048;
+    }
+
+    private void writeLoop() {
+        List<AuditEvent> batch = new ArrayList<>(properties.getBatchSize());
+        int failures = 0;
+        while (running || buffer.size() > 0 || !batch.isEmpty()) {
+            if (batch.isEmpty()) {
+                buffer.drainTo(batch, properties.getBatchSize());
+                if (batch.isEmpty()) {
+                    LockSupport.parkNanos(properties.getPollInterval().toNanos());
+                    continue;
+                }
+            }
+            if (write(batch, failures + 1)) {
+                batch.clear();
+                failures = 0;
+                continue;
+            }
+            failures++;
+            if (!running && System.nanoTime() - stopDeadline >= 0) {
+                int lost = batch.size() + buffer.size();
+                failed.increment(lost);
+                logger.error("Shutting down with {} audit events that could not be written", lost);
+                return;
+            }
+            LockSupport.parkNanos(backoffNanos(failures));
+        }
+    }
+
+    // Doubles from the poll interval up to audit.max-retry-backoff; short while shutting down
+    private long backoffNanos(int failures) {
+        long poll = properties.getPollInterval().toNanos();
+        if (!running) {
+            return poll;
+        }
+        long backoff = poll << Math.min(failures - 1, 20);
+        return Math.min(backoff, properties.getMaxRetryBackoff().toNanos());
+    }
+
+    private boolean write(List<AuditEvent> batch, int attempt) {
+        try {
+            jdbcTemplate.batchUpdate(INSERT_SQL, batch, batch.size(), (ps, event) -> {
+                ps.setString(1, event.getEventType().name());
+                ps.setObject(2, event.getEntityId(), Types.BIGINT);
+                ps.setObject(3, event.getLoanId(), Types.BIGINT);
+                ps.setBigDecimal(4, event.getAmount());
+                ps.setTimestamp(5, Timestamp.from(event.getOccurredAt()));
+            });
+            written.increment(batch.size());
+            return true;
+        } catch (RuntimeException ex) {
+            retried.increment(batch.size());
+            logger.error("Failed to write {} audit events (attempt {}), keeping them for retry",
+                    batch.size(), attempt, ex);
+            return false;
+        }
+    }
+}
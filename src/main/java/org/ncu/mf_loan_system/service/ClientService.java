@@ -1,10 +1,14 @@
 package org.ncu.mf_loan_system.service;
 
+import org.ncu.mf_loan_system.dto.CursorPage;
+import org.ncu.mf_loan_system.dto.SearchPage;
 import org.ncu.mf_loan_system.entities.Client;
 import java.util.List;
 
 public interface ClientService {
     List<Client> getAllClients();
+    CursorPage<Client> getClientsPage(Long cursor, Integer size);
+    SearchPage<Client> searchClients(String query, Integer page, Integer size);
     Client getClientById(Long Id);
     Client createClient(Client client);
     Client updateClient(Long id, Client client);
@@ -1,21 +1,33 @@
 package org.ncu.mf_loan_system.service;
 
+import org.ncu.mf_loan_system.dto.CursorPage;
+import org.ncu.mf_loan_system.dto.SearchPage;
 import org.ncu.mf_loan_system.entities.Client;
 import org.ncu.mf_loan_system.exception.ResourceNotFoundException;
 import org.ncu.mf_loan_system.repository.ClientRepository;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
 
 @Service
 @Transactional
 public class ClientServiceImpl implements ClientService {
 
+    // Digits with the usual separators, e.g. "+91 98765-43"
+    private static final Pattern PHONE_QUERY = Pattern.compile("^\\+?[0-9 ()-]+$");
+
     private final ClientRepository clientRepository;
+    private final ArchiveService archiveService;
 
-    public ClientServiceImpl(ClientRepository clientRepository) {
+    public ClientServiceImpl(ClientRepository clientRepository, ArchiveService archiveService) {
         this.clientRepository = clientRepository;
+        this.archiveService = archiveService;
     }
 
     @Override
@@ -23,6 +35,59 @@ public class ClientServiceImpl implements ClientService {
         return clientRepository.findAll();
     }
 
+    @Override
+    public CursorPage<Client> getClientsPage(Long cursor, Integer size) {
+        int pageSize = CursorPage.clampSize(size);
+        List<Client> rows = clientRepository.findByIdGreaterThanOrderByIdAsc(
+                CursorPage.startAfter(cursor), Limit.of(pageSize + 1));
+        return CursorPage.of(rows, pageSize, Client::getId);
+    }
+
+    // Ranked: name prefix (exact names sort first), then surname, email and phone prefix.
+    // Each tier is an index range scan limited to the rows the requested page can need.
+    @Override
+    @Transactional(readOnly = true)
+    public SearchPage<Client> searchClients(String query, Integer page, Integer size) {
+        int pageSize = SearchPage.clampSize(size);
+        int pageNumber = page != null ? Math.max(0, page) : 0;
+        String text = Client.normalizeName(query);
+        int needed = (pageNumber + 1) * pageSize + 1;
+        if (text == null || text.isEmpty() || needed - 1 > SearchPage.MAX_RESULTS) {
+            return new SearchPage<>(List.of(), pageNumber, pageSize, false);
+        }
+
+        Limit limit = Limit.of(needed);
+        String pattern = prefixPattern(text);
+        Map<Long, Client> ranked = new LinkedHashMap<>();
+        addAll(ranked, clientRepository.searchByName(text, pattern, limit), needed);
+        if (text.indexOf(' ') < 0) {
+            addAll(ranked, clientRepository.searchByLastName(text, pattern, limit), needed);
+            addAll(ranked, clientRepository.searchByEmail(text, pattern, limit), needed);
+        }
+        String digits = Client.phoneDigits(text);
+        if (!digits.isEmpty() && PHONE_QUERY.matcher(text).matches()) {
+            addAll(ranked, clientRepository.searchByPhone(digits, prefixPattern(digits), limit), needed);
+        }
+
+        List<Client> matches = new ArrayList<>(ranked.values());
+        int from = Math.min(pageNumber * pageSize, matches.size());
+        int to = Math.min(from + pageSize, matches.size());
+        return new SearchPage<>(matches.subList(from, to), pageNumber, pageSize, matches.size() > to);
+    }
+
+    private static String prefixPattern(String text) {
+        return text.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%";
+    }
+
+    private static void addAll(Map<Long, Client> ranked, List<Client> tier, int needed) {
+        for (Client client : tier) {
+            if (ranked.size() >= needed) {
+                return;
+            }
+            ranked.putIfAbsent(client.getId(), client);
+        }
+    }
+
     @Override
     public Client getClientById(Long id) {
         return clientRepository.findById(id)
@@ -43,9 +108,9 @@ public class ClientServiceImpl implements ClientService {
         return clientRepository.save(client);
     }
 
+    // Set-based move to the archive tables instead of cascading entity removal
     @Override
     public void deleteClient(Long id) {
-        Client client = getClientById(id);
-        clientRepository.delete(client);
+        archiveService.archiveClient(id);
     }
 }
\ No newline at end of file
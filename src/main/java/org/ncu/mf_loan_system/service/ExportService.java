@@ -0,0 +1,8 @@
+package org.ncu.mf_loan_system.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+public interface ExportService {
+    long exportLoans(OutputStream out) throws IOException;
+}
@@ -0,0 +1,98 @@
+package org.ncu.mf_loan_system.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import org.ncu.mf_loan_system.dto.LoanRow;
+import org.ncu.mf_loan_system.dto.LoanWithPayments;
+import org.ncu.mf_loan_system.dto.PaymentRow;
+import org.ncu.mf_loan_system.repository.LoanRepository;
+import org.ncu.mf_loan_system.repository.PaymentRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+@Service
+public class ExportServiceImpl implements ExportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExportServiceImpl.class);
+
+    // Loans buffered before their payments are fetched with one IN query
+    private static final int CHUNK_SIZE = 500;
+
+    private final LoanRepository loanRepository;
+    private final PaymentRepository paymentRepository;
+    private final ArchiveService archiveService;
+    private final ObjectMapper objectMapper;
+
+    public ExportServiceImpl(LoanRepository loanRepository, PaymentRepository paymentRepository,
+                             ArchiveService archiveService, ObjectMapper objectMapper) {
+        this.loanRepository = loanRepository;
+        this.paymentRepository = paymentRepository;
+        this.archiveService = archiveService;
+        this.objectMapper = objectMapper;
+    }
+
+    // Hot loans first, then the settled ones LoanArchivalJob has moved out, each in id order
+    @Override
+    @Transactional(readOnly = true)
+    public long exportLoans(OutputStream out) throws IOException {
+        logger.info("Starting NDJSON loan export");
+        long written = 0;
+
+        try (SequenceWriter writer = objectMapper.writer()
+                .withRootValueSeparator("\n")
+                .writeValues(out)) {
+
+            try (Stream<LoanRow> loans = loanRepository.streamForExport()) {
+                written += writeAll(writer, loans, paymentRepository::findRowsByLoanIds);
+            }
+            try (Stream<LoanRow> loans = archiveService.streamPaidLoanRows()) {
+                written += writeAll(writer, loans, archiveService::findPaymentRows);
+            }
+            if (written > 0) {
+                writer.flush();
+                out.write('\n');
+            }
+        }
+
+        logger.info("Loan export finished, {} loans written", written);
+        return written;
+    }
+
+    private long writeAll(SequenceWriter writer, Stream<LoanRow> loans,
+                          Function<List<Long>, List<PaymentRow>> paymentsOf) throws IOException {
+        long written = 0;
+        List<LoanRow> chunk = new ArrayList<>(CHUNK_SIZE);
+        Iterator<LoanRow> rows = loans.iterator();
+        while (rows.hasNext()) {
+            chunk.add(rows.next());
+            if (chunk.size() == CHUNK_SIZE || !rows.hasNext()) {
+                written += writeChunk(writer, chunk, paymentsOf);
+                chunk.clear();
+            }
+        }
+        return written;
+    }
+
+    private int writeChunk(SequenceWriter writer, List<LoanRow> chunk,
+                           Function<List<Long>, List<PaymentRow>> paymentsOf) throws IOException {
+        List<Long> ids = chunk.stream().map(LoanRow::id).toList();
+
+        // Payments come back ordered by loan id, matching the order of the chunk
+        List<PaymentRow> payments = paymentsOf.apply(ids);
+        for (LoanWithPayments line : LoanWithPayments.join(chunk, payments)) {
+            writer.write(line);
+        }
+        writer.flush();
+        return chunk.size();
+    }
+}
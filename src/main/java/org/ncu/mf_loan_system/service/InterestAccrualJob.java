@@ -0,0 +1,137 @@
+package org.ncu.mf_loan_system.service;
+
+import org.ncu.mf_loan_system.config.AccrualProperties;
+import org.ncu.mf_loan_system.entities.InterestAccrualPartition;
+import org.ncu.mf_loan_system.entities.Loan;
+import org.ncu.mf_loan_system.repository.InterestAccrualPartitionRepository;
+import org.ncu.mf_loan_system.repository.LoanRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+// Posts a day's interest on every performing (ACTIVE or OVERDUE) loan. The loan id range is
+// split into partitions that run in parallel on virtual threads; each walks its range in
+// chunked transactions, and records its progress in the same transaction. Running a day
+// again resumes the unfinished partitions only. DEFAULTED loans are non-accrual. Payments
+// settle the accrued interest before principal (Loan.applyPayment), so the principal the
+// next day accrues on is what the payments have left.
+@Component
+public class InterestAccrualJob {
+
+    private static final Logger logger = LoggerFactory.getLogger(InterestAccrualJob.class);
+
+    private static final List<Loan.LoanStatus> ACCRUING_STATUSES =
+            List.of(Loan.LoanStatus.ACTIVE, Loan.LoanStatus.OVERDUE);
+
+    private final LoanRepository loanRepository;
+    private final InterestAccrualPartitionRepository partitionRepository;
+    private final AccrualProperties properties;
+    private final TransactionTemplate transactionTemplate;
+
+    public InterestAccrualJob(LoanRepository loanRepository, InterestAccrualPartitionRepository partitionRepository,
+                              AccrualProperties properties, PlatformTransactionManager transactionManager) {
+        this.loanRepository = loanRepository;
+        this.partitionRepository = partitionRepository;
+        this.properties = properties;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Scheduled(cron = "${loan.accrual.cron:0 45 0 * * *}")
+    public void run() {
+        accrue(LocalDate.now().minusDays(1));
+    }
+
+    // Accrues interest up to and including day; loans missed on earlier days catch up here,
+    // since each accrues for every day since its last accrual
+    public List<InterestAccrualPartition> accrue(LocalDate day) {
+        long started = System.currentTimeMillis();
+        List<InterestAccrualPartition> pending = plan(day).stream()
+                .filter(partition -> partition.getCompletedAt() == null)
+                .toList();
+
+        int failed = 0;
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<?>> futures = new ArrayList<>();
+            for (InterestAccrualPartition partition : pending) {
+                futures.add(executor.submit(() -> runPartition(partition, day)));
+            }
+            for (int i = 0; i < futures.size(); i++) {
+                try {
+                    futures.get(i).get();
+                } catch (ExecutionException e) {
+                    failed++;
+                    logger.error("Interest accrual partition {} for {} failed", pending.get(i).getPartitionNo(), day,
+                            e.getCause());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("Interest accrual for " + day + " was interrupted", e);
+                }
+            }
+        }
+
+        List<InterestAccrualPartition> partitions = partitionRepository.findByAccrualDateOrderByPartitionNo(day);
+        long loans = partitions.stream().mapToLong(InterestAccrualPartition::getLoansAccrued).sum();
+        BigDecimal interest = partitions.stream().map(InterestAccrualPartition::getInterestAccrued)
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        logger.info("Interest accrual for {}: {} loans, {} accrued over {} partitions ({} ms)",
+                day, loans, interest, partitions.size(), System.currentTimeMillis() - started);
+        if (failed > 0) {
+            throw new IllegalStateException(failed + " interest accrual partitions for " + day
+                    + " failed; run the day again to resume them");
+        }
+        return partitions;
+    }
+
+    // The day's partitions, split once from the accruing id range and reused on every rerun
+    private List<InterestAccrualPartition> plan(LocalDate day) {
+        return transactionTemplate.execute(status -> {
+            List<InterestAccrualPartition> existing = partitionRepository.findByAccrualDateOrderByPartitionNo(day);
+            if (!existing.isEmpty()) {
+                return existing;
+            }
+            Long minId = loanRepository.findMinIdByStatusIn(ACCRUING_STATUSES);
+            Long maxId = loanRepository.findMaxIdByStatusIn(ACCRUING_STATUSES);
+            if (minId == null) {
+                return List.of();
+            }
+            int count = Math.max(1, properties.getPartitions());
+            long width = Math.max(1, (maxId - minId + count) / count);
+            List<InterestAccrualPartition> partitions = new ArrayList<>();
+            for (long from = minId; from <= maxId; from += width) {
+                partitions.add(new InterestAccrualPartition(day, partitions.size(), from, Math.min(from + width, maxId + 1)));
+            }
+            return partitionRepository.saveAll(partitions);
+        });
+    }
+
+    private void runPartition(InterestAccrualPartition partition, LocalDate day) {
+        for (long from = partition.getNextId(); from < partition.getToId(); from += properties.getChunkSize()) {
+            long fromId = from;
+            long toId = Math.min(from + properties.getChunkSize(), partition.getToId());
+            transactionTemplate.executeWithoutResult(status -> {
+                int loans = loanRepository.accrueInterest(day, ACCRUING_STATUSES, fromId, toId);
+                BigDecimal interest = loans > 0 ? loanRepository.sumAccrued(day, fromId, toId) : BigDecimal.ZERO;
+                if (partitionRepository.advance(partition.getId(), fromId, toId, loans, interest) == 0) {
+                    // Another run moved this partition on; roll back rather than count the chunk twice
+                    throw new IllegalStateException("Interest accrual partition " + partition.getPartitionNo()
+                            + " for " + day + " is being run concurrently");
+                }
+            });
+        }
+        transactionTemplate.executeWithoutResult(status ->
+                partitionRepository.complete(partition.getId(), LocalDateTime.now()));
+    }
+}
@@ -0,0 +1,50 @@
+package org.ncu.mf_loan_system.service;
+
+import org.ncu.mf_loan_system.config.ArchiveProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.List;
+
+// Hot/cold split: moves loans that have been PAID for loan.archive.paid-age-days (counted
+// from their last payment) to archived_loans / archived_payments, so the hot tables only
+// hold the active book. Each chunk is its own ArchiveService transaction. Reads fall back
+// to the archive in LoanServiceImpl.
+@Component
+public class LoanArchivalJob {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoanArchivalJob.class);
+
+    private final ArchiveService archiveService;
+    private final ArchiveProperties properties;
+
+    public LoanArchivalJob(ArchiveService archiveService, ArchiveProperties properties) {
+        this.archiveService = archiveService;
+        this.properties = properties;
+    }
+
+    @Scheduled(cron = "${loan.archive.cron:0 15 1 * * *}")
+    public void run() {
+        archive(LocalDate.now().minusDays(properties.getPaidAgeDays()));
+    }
+
+    public int archive(LocalDate lastPaidBefore) {
+        long started = System.currentTimeMillis();
+        long afterId = 0;
+        int loans = 0;
+        List<Long> chunk;
+        do {
+            chunk = archiveService.archivePaidLoans(lastPaidBefore, afterId, properties.getChunkSize());
+            if (!chunk.isEmpty()) {
+                afterId = chunk.get(chunk.size() - 1);
+                loans += chunk.size();
+            }
+        } while (chunk.size() == properties.getChunkSize());
+        logger.info("Archived {} loans last paid before {} ({} ms)", loans, lastPaidBefore,
+                System.currentTimeMillis() - started);
+        return loans;
+    }
+}
@@ -0,0 +1,77 @@
+package org.ncu.mf_loan_system.service;
+
+import org.ncu.mf_loan_system.config.ClassificationProperties;
+import org.ncu.mf_loan_system.entities.Loan;
+import org.ncu.mf_loan_system.repository.LoanRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Component
+public class LoanClassificationJob {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoanClassificationJob.class);
+
+    private static final List<Loan.LoanStatus> OPEN_STATUSES =
+            List.of(Loan.LoanStatus.ACTIVE, Loan.LoanStatus.OVERDUE);
+
+    private final LoanRepository loanRepository;
+    private final ClassificationProperties properties;
+    private final TransactionTemplate transactionTemplate;
+    private final LoanSnapshotCache snapshotCache;
+
+    public LoanClassificationJob(LoanRepository loanRepository, ClassificationProperties properties,
+                                 PlatformTransactionManager transactionManager, LoanSnapshotCache snapshotCache) {
+        this.loanRepository = loanRepository;
+        this.properties = properties;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.snapshotCache = snapshotCache;
+    }
+
+    @Scheduled(cron = "${loan.classification.cron:0 15 0 * * *}")
+    public void run() {
+        classify(LocalDate.now());
+    }
+
+    // Moves ACTIVE -> OVERDUE -> DEFAULTED (and cured OVERDUE -> ACTIVE) with bulk UPDATEs,
+    // one committed transaction per id window so locks are short and a failure loses one chunk
+    public int[] classify(LocalDate today) {
+        LocalDate overdueCutoff = today.minusDays(properties.getOverdueAfterDays());
+        LocalDate defaultCutoff = today.minusDays(properties.getDefaultAfterDays());
+
+        Long minId = loanRepository.findMinIdByStatusIn(OPEN_STATUSES);
+        Long maxId = loanRepository.findMaxIdByStatusIn(OPEN_STATUSES);
+        int[] totals = new int[3];
+        if (minId == null) {
+            return totals;
+        }
+
+        long started = System.currentTimeMillis();
+        for (long from = minId; from <= maxId; from += properties.getChunkSize()) {
+            long fromId = from;
+            long toId = from + properties.getChunkSize();
+            int[] counts = transactionTemplate.execute(status -> new int[] {
+                    loanRepository.markCured(overdueCutoff, today, fromId, toId),
+                    loanRepository.markOverdue(overdueCutoff, today, fromId, toId),
+                    loanRepository.markDefaulted(defaultCutoff, fromId, toId)
+            });
+            for (int i = 0; i < totals.length; i++) {
+                totals[i] += counts[i];
+            }
+        }
+
+        // Bulk UPDATEs do not say which rows changed, so drop every cached status
+        if (totals[0] + totals[1] + totals[2] > 0) {
+            snapshotCache.clear();
+        }
+        logger.info("Loan classification for {}: {} cured, {} overdue, {} defaulted ({} ms)",
+                today, totals[0], totals[1], totals[2], System.currentTimeMillis() - started);
+        return totals;
+    }
+}
@@ -0,0 +1,13 @@
+package org.ncu.mf_loan_system.service;
+
+import org.ncu.mf_loan_system.dto.CursorPage;
+import org.ncu.mf_loan_system.dto.LoanImportReport;
+import org.ncu.mf_loan_system.entities.LoanImportError;
+
+import java.io.InputStream;
+
+public interface LoanImportService {
+    LoanImportReport importLoans(InputStream csv, String fileName, Long resumeImportId);
+    LoanImportReport getImport(Long importId);
+    CursorPage<LoanImportError> getImportErrors(Long importId, Long cursor, Integer size);
+}
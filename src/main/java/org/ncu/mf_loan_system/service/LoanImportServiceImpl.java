@@ -0,0 +1,363 @@
+package org.ncu.mf_loan_system.service;
+
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.ncu.mf_loan_system.config.ImportProperties;
+import org.ncu.mf_loan_system.config.ReadRouting;
+import org.ncu.mf_loan_system.dto.CursorPage;
+import org.ncu.mf_loan_system.dto.LoanImportReport;
+import org.ncu.mf_loan_system.entities.Client;
+import org.ncu.mf_loan_system.entities.Installment;
+import org.ncu.mf_loan_system.entities.Loan;
+import org.ncu.mf_loan_system.entities.LoanImport;
+import org.ncu.mf_loan_system.entities.LoanImportError;
+import org.ncu.mf_loan_system.exception.ResourceNotFoundException;
+import org.ncu.mf_loan_system.repository.ClientRepository;
+import org.ncu.mf_loan_system.repository.InstallmentRepository;
+import org.ncu.mf_loan_system.repository.LoanImportErrorRepository;
+import org.ncu.mf_loan_system.repository.LoanImportRepository;
+import org.ncu.mf_loan_system.repository.LoanRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.*;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.*;
+import java.util.stream.Collectors;
+
+// Streaming CSV loan-book import. Rows are read one chunk at a time; each chunk is parsed
+// and bean-validated in parallel, its clients resolved with one IN query per key type, and
+// its clients, loans, schedules and rejected rows inserted as JDBC batches in a single
+// transaction that also moves the import's committed row forward. Resuming with the same
+// file skips everything already committed.
+@Service
+@Transactional(readOnly = true)
+public class LoanImportServiceImpl implements LoanImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoanImportServiceImpl.class);
+
+    static final String CLIENT_ID = "client_id";
+    static final String CLIENT_NAME = "client_name";
+    static final String CLIENT_EMAIL = "client_email";
+    static final String CLIENT_PHONE = "client_phone";
+    static final String PRINCIPAL_AMOUNT = "principal_amount";
+    static final String INTEREST_RATE = "interest_rate";
+    static final String START_DATE = "start_date";
+    static final String END_DATE = "end_date";
+
+    private static final List<String> REQUIRED_COLUMNS =
+            List.of(PRINCIPAL_AMOUNT, INTEREST_RATE, START_DATE, END_DATE);
+
+    private record CsvRow(long rowNumber, List<String> fields) {
+    }
+
+    // Outcome of the parallel parse/validate stage; error is set for rejected rows
+    private record Candidate(long rowNumber, Loan loan, Long clientId, String emailKey, Client newClient,
+                             String clientError, String error) {
+
+        static Candidate rejected(long rowNumber, String error) {
+            return new Candidate(rowNumber, null, null, null, null, null, error);
+        }
+    }
+
+    private final LoanImportRepository importRepository;
+    private final LoanImportErrorRepository errorRepository;
+    private final ClientRepository clientRepository;
+    private final LoanRepository loanRepository;
+    private final InstallmentRepository installmentRepository;
+    private final ParAgingService parAgingService;
+    private final EntityManager entityManager;
+    private final Validator validator;
+    private final ImportProperties properties;
+    private final TransactionTemplate transactionTemplate;
+
+    public LoanImportServiceImpl(LoanImportRepository importRepository, LoanImportErrorRepository errorRepository,
+                                 ClientRepository clientRepository, LoanRepository loanRepository,
+                                 InstallmentRepository installmentRepository, ParAgingService parAgingService,
+                                 EntityManager entityManager, Validator validator, ImportProperties properties,
+                                 PlatformTransactionManager transactionManager) {
+        this.importRepository = importRepository;
+        this.errorRepository = errorRepository;
+        this.clientRepository = clientRepository;
+        this.loanRepository = loanRepository;
+        this.installmentRepository = installmentRepository;
+        this.parAgingService = parAgingService;
+        this.entityManager = entityManager;
+        this.validator = validator;
+        this.properties = properties;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    // Each chunk commits on its own, so there is no transaction around the whole upload
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public LoanImportReport importLoans(InputStream csv, String fileName, Long resumeImportId) {
+        LoanImport job = resumeImportId == null
+                ? transactionTemplate.execute(status -> importRepository.save(new LoanImport(fileName)))
+                : ReadRouting.onPrimary(() -> findImport(resumeImportId));
+        Long importId = job.getId();
+        if (job.getStatus() == LoanImport.ImportStatus.COMPLETED) {
+            return getImport(importId);
+        }
+        if (resumeImportId != null) {
+            logger.info("Resuming loan import {} after row {}", importId, job.getRowsCommitted());
+            setStatus(importId, LoanImport.ImportStatus.RUNNING, null);
+        }
+
+        long started = System.currentTimeMillis();
+        long committed = job.getRowsCommitted();
+        try (Reader reader = new BufferedReader(new InputStreamReader(csv, StandardCharsets.UTF_8), 64 * 1024)) {
+            CsvRecordReader records = new CsvRecordReader(reader);
+            Map<String, Integer> columns = readHeader(records.next());
+
+            List<CsvRow> chunk = new ArrayList<>(properties.getChunkSize());
+            long rowNumber = 0;
+            List<String> record;
+            while ((record = records.next()) != null) {
+                rowNumber++;
+                if (rowNumber <= committed) {
+                    continue;
+                }
+                chunk.add(new CsvRow(rowNumber, record));
+                if (chunk.size() == properties.getChunkSize()) {
+                    committed = commitChunk(importId, committed, chunk, columns);
+                    chunk.clear();
+                }
+            }
+            if (!chunk.isEmpty()) {
+                commitChunk(importId, committed, chunk, columns);
+            }
+            setStatus(importId, LoanImport.ImportStatus.COMPLETED, null);
+        } catch (IOException | RuntimeException e) {
+            logger.error("Loan import {} failed after row {}", importId, committed, e);
+            setStatus(importId, LoanImport.ImportStatus.FAILED, e.getMessage() != null ? e.getMessage() : e.toString());
+        }
+
+        LoanImportReport report = ReadRouting.onPrimary(() -> getImport(importId));
+        logger.info("Loan import {} {}: {} imported, {} rejected, {} clients created ({} ms)", importId,
+                report.status(), report.imported(), report.rejected(), report.clientsCreated(),
+                System.currentTimeMillis() - started);
+        return report;
+    }
+
+    @Override
+    public LoanImportReport getImport(Long importId) {
+        LoanImport job = findImport(importId);
+        List<LoanImportError> errors = errorRepository.findPageAfter(importId, 0, Limit.of(properties.getReportErrors()));
+        return LoanImportReport.of(job, errors);
+    }
+
+    @Override
+    public CursorPage<LoanImportError> getImportErrors(Long importId, Long cursor, Integer size) {
+        findImport(importId);
+        int pageSize = CursorPage.clampSize(size);
+        List<LoanImportError> rows = errorRepository.findPageAfter(importId, CursorPage.startAfter(cursor),
+                Limit.of(pageSize + 1));
+        return CursorPage.of(rows, pageSize, LoanImportError::getId);
+    }
+
+    private LoanImport findImport(Long importId) {
+        return importRepository.findById(importId)
+                .orElseThrow(() -> new ResourceNotFoundException("Loan import not found with id: " + importId));
+    }
+
+    private void setStatus(Long importId, LoanImport.ImportStatus status, String error) {
+        String message = error != null && error.length() > 1000 ? error.substring(0, 1000) : error;
+        transactionTemplate.executeWithoutResult(tx ->
+                importRepository.finish(importId, status, message, LocalDateTime.now()));
+    }
+
+    private static Map<String, Integer> readHeader(List<String> header) throws IOException {
+        if (header == null) {
+            throw new IOException("CSV file is empty");
+        }
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            columns.put(header.get(i).trim().toLowerCase(Locale.ROOT), i);
+        }
+        List<String> missing = REQUIRED_COLUMNS.stream().filter(column -> !columns.containsKey(column)).toList();
+        if (!missing.isEmpty()) {
+            throw new IOException("CSV header is missing columns: " + String.join(", ", missing));
+        }
+        if (!columns.containsKey(CLIENT_ID) && !columns.containsKey(CLIENT_EMAIL)) {
+            throw new IOException("CSV header needs a " + CLIENT_ID + " or " + CLIENT_EMAIL + " column");
+        }
+        return columns;
+    }
+
+    // Returns the new committed row number
+    private long commitChunk(Long importId, long committed, List<CsvRow> chunk, Map<String, Integer> columns) {
+        // Parse and bean-validate off the database, in parallel
+        List<Candidate> candidates = chunk.parallelStream()
+                .map(row -> parse(row, columns))
+                .toList();
+        long lastRow = chunk.get(chunk.size() - 1).rowNumber();
+
+        return transactionTemplate.execute(status -> {
+            // Bulk client resolution: one IN query for ids, one for emails
+            Set<Long> clientIds = candidates.stream()
+                    .filter(candidate -> candidate.error() == null && candidate.clientId() != null)
+                    .map(Candidate::clientId)
+                    .collect(Collectors.toSet());
+            Set<Long> existingIds = clientIds.isEmpty()
+                    ? Set.of() : new HashSet<>(clientRepository.findExistingIds(clientIds));
+            Set<String> emailKeys = candidates.stream()
+                    .filter(candidate -> candidate.error() == null && candidate.clientId() == null)
+                    .map(Candidate::emailKey)
+                    .collect(Collectors.toSet());
+            Map<String, Client> clientsByEmail = emailKeys.isEmpty() ? new HashMap<>()
+                    : clientRepository.findByEmailKeys(emailKeys).stream().collect(Collectors.toMap(
+                            client -> Client.emailKey(client.getEmail()), client -> client, (a, b) -> a));
+
+            List<LoanImportError> errors = new ArrayList<>();
+            List<Client> newClients = new ArrayList<>();
+            List<Loan> loans = new ArrayList<>();
+            for (Candidate candidate : candidates) {
+                String error = candidate.error();
+                Client client = null;
+                if (error == null && candidate.clientId() != null) {
+                    if (existingIds.contains(candidate.clientId())) {
+                        client = entityManager.getReference(Client.class, candidate.clientId());
+                    } else {
+                        error = "Client not found with id: " + candidate.clientId();
+                    }
+                } else if (error == null) {
+                    client = clientsByEmail.get(candidate.emailKey());
+                    if (client == null && candidate.clientError() != null) {
+                        error = candidate.clientError();
+                    } else if (client == null) {
+                        // Later rows for the same email attach to this one
+                        client = candidate.newClient();
+                        clientsByEmail.put(candidate.emailKey(), client);
+                        newClients.add(client);
+                    }
+                }
+                if (error != null) {
+                    errors.add(new LoanImportError(importId, candidate.rowNumber(), error));
+                    continue;
+                }
+                candidate.loan().setClient(client);
+                loans.add(candidate.loan());
+            }
+
+            // Pooled ids, so each of these goes out as JDBC batches at flush
+            clientRepository.saveAll(newClients);
+            loanRepository.saveAll(loans);
+            List<Installment> schedules = new ArrayList<>();
+            for (Loan loan : loans) {
+                schedules.addAll(loan.buildSchedule());
+            }
+            installmentRepository.saveAll(schedules);
+            errorRepository.saveAll(errors);
+            entityManager.flush();
+            parAgingService.refresh(loans.stream().map(Loan::getId).toList());
+
+            if (importRepository.advance(importId, committed, lastRow, loans.size(), errors.size(),
+                    newClients.size(), LocalDateTime.now()) == 0) {
+                // Another upload resumed this import and got here first
+                throw new IllegalStateException("Loan import " + importId + " is being resumed concurrently");
+            }
+            return lastRow;
+        });
+    }
+
+    private Candidate parse(CsvRow row, Map<String, Integer> columns) {
+        long rowNumber = row.rowNumber();
+        Loan loan = new Loan();
+        try {
+            loan.setPrincipalAmount(decimal(row, columns, PRINCIPAL_AMOUNT));
+            loan.setInterestRate(decimal(row, columns, INTEREST_RATE));
+            loan.setStartDate(date(row, columns, START_DATE));
+            loan.setEndDate(date(row, columns, END_DATE));
+        } catch (IllegalArgumentException e) {
+            return Candidate.rejected(rowNumber, e.getMessage());
+        }
+
+        String violations = describe(validator.validate(loan));
+        if (violations != null) {
+            return Candidate.rejected(rowNumber, violations);
+        }
+        if (loan.getEndDate().isBefore(loan.getStartDate())) {
+            return Candidate.rejected(rowNumber, "End date must be after start date");
+        }
+
+        String clientId = field(row, columns, CLIENT_ID);
+        if (clientId != null) {
+            try {
+                return new Candidate(rowNumber, loan, Long.valueOf(clientId), null, null, null, null);
+            } catch (NumberFormatException e) {
+                return Candidate.rejected(rowNumber, CLIENT_ID + ": not a number");
+            }
+        }
+        String email = field(row, columns, CLIENT_EMAIL);
+        if (email == null) {
+            return Candidate.rejected(rowNumber, CLIENT_ID + " or " + CLIENT_EMAIL + " is required");
+        }
+
+        // Only used if no client has this email yet
+        Client client = new Client();
+        client.setName(field(row, columns, CLIENT_NAME));
+        client.setEmail(email);
+        client.setPhone(field(row, columns, CLIENT_PHONE));
+        String clientError = describe(validator.validate(client));
+        if (clientError == null && client.getPhone() == null) {
+            // Not a bean constraint, but the column is NOT NULL
+            clientError = CLIENT_PHONE + " is required";
+        }
+        return new Candidate(rowNumber, loan, null, Client.emailKey(email), client, clientError, null);
+    }
+
+    private static String field(CsvRow row, Map<String, Integer> columns, String column) {
+        Integer index = columns.get(column);
+        if (index == null || index >= row.fields().size()) {
+            return null;
+        }
+        String value = row.fields().get(index).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    private static BigDecimal decimal(CsvRow row, Map<String, Integer> columns, String column) {
+        String value = field(row, columns, column);
+        if (value == null) {
+            throw new IllegalArgumentException(column + " is required");
+        }
+        try {
+            return new BigDecimal(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(column + ": not a number");
+        }
+    }
+
+    private static LocalDate date(CsvRow row, Map<String, Integer> columns, String column) {
+        String value = field(row, columns, column);
+        if (value == null) {
+            throw new IllegalArgumentException(column + " is required");
+        }
+        try {
+            return LocalDate.parse(value);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException(column + ": expected yyyy-MM-dd");
+        }
+    }
+
+    private static <T> String describe(Set<ConstraintViolation<T>> violations) {
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                .sorted()
+                .collect(Collectors.joining("; "));
+    }
+}
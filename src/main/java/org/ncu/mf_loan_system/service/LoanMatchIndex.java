@@ -0,0 +1,115 @@
+package org.ncu.mf_loan_system.service;
+
+import org.ncu.mf_loan_system.dto.LoanMatchKey;
+import org.ncu.mf_loan_system.entities.Client;
+import org.ncu.mf_loan_system.entities.ReconciliationExceptionItem.Reason;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// In-memory hash index over open loans for statement reconciliation: loan id -> EMI and
+// phone (last digits) -> loan ids. Built once per run; every line is then matched without a
+// database round trip. Not thread-safe, filled and read by the reconciling thread only.
+final class LoanMatchIndex {
+
+    record Match(Long loanId, Reason reason, String message) {
+
+        static Match of(Long loanId) {
+            return new Match(loanId, null, null);
+        }
+
+        static Match failed(Reason reason, String message) {
+            return new Match(null, reason, message);
+        }
+
+        boolean matched() {
+            return loanId != null;
+        }
+    }
+
+    private final int phoneDigits;
+    private final Map<Long, BigDecimal> emiByLoan = new HashMap<>();
+    // Most phones have one open loan, so the value stays a List.of(id) until a second arrives
+    private final Map<String, List<Long>> loansByPhone = new HashMap<>();
+
+    LoanMatchIndex(int phoneDigits) {
+        this.phoneDigits = phoneDigits;
+    }
+
+    void add(LoanMatchKey key) {
+        emiByLoan.put(key.loanId(), key.emi());
+        String phone = phoneKey(key.phoneKey());
+        if (phone == null) {
+            return;
+        }
+        List<Long> loans = loansByPhone.get(phone);
+        if (loans == null) {
+            loansByPhone.put(phone, List.of(key.loanId()));
+        } else {
+            if (loans.size() == 1) {
+                loans = new ArrayList<>(loans);
+                loansByPhone.put(phone, loans);
+            }
+            loans.add(key.loanId());
+        }
+    }
+
+    int size() {
+        return emiByLoan.size();
+    }
+
+    // Loan reference first; then the payer's phone, using the amount to pick between several
+    // open loans on the same phone when it is exactly one of their EMIs
+    Match match(String loanReference, String phone, BigDecimal amount) {
+        Long loanId = loanIdOf(loanReference);
+        if (loanId != null && emiByLoan.containsKey(loanId)) {
+            return Match.of(loanId);
+        }
+
+        String key = phone != null ? phoneKey(Client.phoneDigits(phone)) : null;
+        List<Long> candidates = key != null ? loansByPhone.get(key) : null;
+        if (candidates == null) {
+            return Match.failed(Reason.UNMATCHED, loanReference != null
+                    ? "No open loan for reference " + loanReference + (phone != null ? " or phone " + phone : "")
+                    : phone != null ? "No open loan for phone " + phone : "No loan reference or phone");
+        }
+        if (candidates.size() == 1) {
+            return Match.of(candidates.get(0));
+        }
+
+        Long byAmount = null;
+        for (Long candidate : candidates) {
+            if (emiByLoan.get(candidate).compareTo(amount) == 0) {
+                if (byAmount != null) {
+                    byAmount = null;
+                    break;
+                }
+                byAmount = candidate;
+            }
+        }
+        return byAmount != null ? Match.of(byAmount) : Match.failed(Reason.AMBIGUOUS,
+                candidates.size() + " open loans for phone " + phone + " and the amount matches none of their EMIs uniquely");
+    }
+
+    private String phoneKey(String digits) {
+        if (digits == null || digits.length() < phoneDigits) {
+            return null;
+        }
+        return digits.substring(digits.length() - phoneDigits);
+    }
+
+    // Accepts "123", "LN-000123" and the like; anything without 1-18 digits is no reference
+    static Long loanIdOf(String reference) {
+        if (reference == null) {
+            return null;
+        }
+        String digits = reference.replaceAll("[^0-9]", "");
+        if (digits.isEmpty() || digits.length() > 18) {
+            return null;
+        }
+        return Long.valueOf(digits);
+    }
+}
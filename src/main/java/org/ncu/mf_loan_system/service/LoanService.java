@@ -1,22 +1,38 @@
 package org.ncu.mf_loan_system.service;
 
+import org.ncu.mf_loan_system.dto.CursorPage;
+import org.ncu.mf_loan_system.dto.LoanRow;
+import org.ncu.mf_loan_system.dto.LoanSnapshot;
+import org.ncu.mf_loan_system.dto.LoanWithPayments;
+import org.ncu.mf_loan_system.dto.PortfolioSummary;
+import org.ncu.mf_loan_system.entities.Installment;
 import org.ncu.mf_loan_system.entities.Loan;
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 
 public interface LoanService {
     List<Loan> getAllLoans();
+    CursorPage<LoanRow> getLoansPage(Long cursor, Integer size, Loan.LoanStatus status, Long clientId,
+                                  LocalDate from, LocalDate to);
     Loan getLoanById(Long id);
+    LoanSnapshot getLoanSnapshot(Long id);
+    Map<String, Object> getSnapshotCacheStats();
     Loan createLoan(Loan loan);
     Loan updateLoan(Long id, Loan loan);
     void deleteLoan(Long id);
     BigDecimal getTotalOutstandingAmount();
+    PortfolioSummary getPortfolioSummary();
     BigDecimal calculateEMI(Long loanId);
+    List<Installment> getSchedule(Long loanId);
+    Installment getNextInstallment(Long loanId);
+    BigDecimal getArrears(Long loanId);
     void processPayment(Long loanId, BigDecimal amount);
 
     BigDecimal getOutstandingBalance(Long loanId);
 
-    List<Loan> getLoansByClientId(Long clientId);
+    List<LoanWithPayments> getLoansByClientId(Long clientId, boolean includePayments);
 
-    List<Loan> getOverdueLoans();
+    CursorPage<LoanRow> getOverdueLoans(Long cursor, Integer size);
 }
\ No newline at end of file
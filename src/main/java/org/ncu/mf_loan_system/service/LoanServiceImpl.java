@@ -1,19 +1,38 @@
 package org.ncu.mf_loan_system.service;
 
+import org.ncu.mf_loan_system.config.ReadRouting;
+import org.ncu.mf_loan_system.dto.CursorPage;
+import org.ncu.mf_loan_system.dto.LoanRow;
+import org.ncu.mf_loan_system.dto.LoanSnapshot;
+import org.ncu.mf_loan_system.dto.LoanStatusTotals;
+import org.ncu.mf_loan_system.dto.LoanWithPayments;
+import org.ncu.mf_loan_system.dto.PaymentRow;
+import org.ncu.mf_loan_system.dto.PaymentStatusTotals;
+import org.ncu.mf_loan_system.dto.PortfolioSummary;
+import org.ncu.mf_loan_system.entities.ArchivedLoan;
 import org.ncu.mf_loan_system.entities.Client;
+import org.ncu.mf_loan_system.entities.Installment;
 import org.ncu.mf_loan_system.entities.Loan;
 import org.ncu.mf_loan_system.entities.Payment;
 import org.ncu.mf_loan_system.exception.*;
 import org.ncu.mf_loan_system.repository.ClientRepository;
+import org.ncu.mf_loan_system.repository.InstallmentRepository;
 import org.ncu.mf_loan_system.repository.LoanRepository;
+import org.ncu.mf_loan_system.repository.PaymentRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
 
 @Service
 @Transactional
@@ -23,10 +42,25 @@ public class LoanServiceImpl implements LoanService {
 
     private final LoanRepository loanRepository;
     private final ClientRepository clientRepository;
+    private final PaymentRepository paymentRepository;
+    private final InstallmentRepository installmentRepository;
+    private final LoanSnapshotCache snapshotCache;
+    private final LoanWriteCoordinator writeCoordinator;
+    private final ParAgingService parAgingService;
+    private final ArchiveService archiveService;
 
-    public LoanServiceImpl(LoanRepository loanRepository, ClientRepository clientRepository) {
+    public LoanServiceImpl(LoanRepository loanRepository, ClientRepository clientRepository,
+                           PaymentRepository paymentRepository, InstallmentRepository installmentRepository,
+                           LoanSnapshotCache snapshotCache, LoanWriteCoordinator writeCoordinator,
+                           ParAgingService parAgingService, ArchiveService archiveService) {
         this.loanRepository = loanRepository;
         this.clientRepository = clientRepository;
+        this.paymentRepository = paymentRepository;
+        this.installmentRepository = installmentRepository;
+        this.snapshotCache = snapshotCache;
+        this.writeCoordinator = writeCoordinator;
+        this.parAgingService = parAgingService;
+        this.archiveService = archiveService;
     }
 
     @Override
@@ -36,14 +70,72 @@ public class LoanServiceImpl implements LoanService {
         return loanRepository.findAll();
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<LoanRow> getLoansPage(Long cursor, Integer size, Loan.LoanStatus status, Long clientId,
+                                            LocalDate from, LocalDate to) {
+        int pageSize = CursorPage.clampSize(size);
+        logger.info("Fetching loans after id {} (page size {})", cursor, pageSize);
+        long afterId = CursorPage.startAfter(cursor);
+        LocalDate start = CursorPage.onOrAfter(from);
+        LocalDate end = CursorPage.onOrBefore(to);
+        Limit limit = Limit.of(pageSize + 1);
+        List<LoanRow> rows;
+        if (clientId != null && status != null) {
+            rows = loanRepository.findPageAfterByClientAndStatus(afterId, clientId, status, start, end, limit);
+        } else if (clientId != null) {
+            rows = loanRepository.findPageAfterByClient(afterId, clientId, start, end, limit);
+        } else if (status != null) {
+            rows = loanRepository.findPageAfterByStatus(afterId, status, start, end, limit);
+        } else {
+            rows = loanRepository.findPageAfter(afterId, start, end, limit);
+        }
+        return CursorPage.of(rows, pageSize, LoanRow::id);
+    }
+
     @Override
     @Transactional(readOnly = true)
     public Loan getLoanById(Long id) {
         logger.info("Fetching loan with id: {}", id);
         return loanRepository.findById(id)
+                // Settled loans moved out of the hot table by LoanArchivalJob
+                .or(() -> archiveService.findPaidLoan(id))
                 .orElseThrow(() -> new LoanNotFoundException("Loan not found with id: " + id));
     }
 
+    // Writes only ever touch the hot table; an archived loan is read-only
+    private Loan getLoanForUpdate(Long id) {
+        return loanRepository.findById(id).orElseThrow(() -> notWritable(id));
+    }
+
+    private RuntimeException notWritable(Long id) {
+        return archiveService.isPaidLoanArchived(id)
+                ? new LoanArchivedException("Loan " + id + " is archived and cannot be modified")
+                : new LoanNotFoundException("Loan not found with id: " + id);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public LoanSnapshot getLoanSnapshot(Long id) {
+        // Loaded from the primary: a lagging replica would re-cache the state a write just evicted
+        return snapshotCache.get(id, loanId -> ReadRouting.onPrimary(() -> loadSnapshot(loanId)));
+    }
+
+    @Override
+    public Map<String, Object> getSnapshotCacheStats() {
+        return snapshotCache.stats();
+    }
+
+    private LoanSnapshot loadSnapshot(Long id) {
+        Loan loan = getLoanById(id);
+        BigDecimal emi = installmentRepository.findFirstByLoanIdOrderByInstallmentNumberAsc(id)
+                .map(Installment::getAmount)
+                // Loans created before schedules were persisted
+                .orElseGet(loan::calculateEMI);
+        return new LoanSnapshot(loan.getId(), loan.getClient().getId(), loan.getStatus(), emi,
+                loan.getTotalPaid(), loan.getOutstandingBalance(), loan.getNextPaymentDate());
+    }
+
     @Override
     public Loan createLoan(Loan loan) {
         logger.info("Creating new loan for client: {}", loan.getClient().getId());
@@ -55,53 +147,153 @@ public class LoanServiceImpl implements LoanService {
         Client client = clientRepository.findById(loan.getClient().getId())
                 .orElseThrow(() -> new ClientNotFoundException("Client not found with id: " + loan.getClient().getId()));
 
-        return loanRepository.save(loan);
+        Loan savedLoan = loanRepository.save(loan);
+        installmentRepository.saveAll(savedLoan.buildSchedule());
+        parAgingService.refresh(List.of(savedLoan.getId()));
+        return savedLoan;
     }
 
+    // Same per-loan stripe and version retry as payments; a term change rewrites the whole ledger
     @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public Loan updateLoan(Long id, Loan updatedLoan) {
         logger.info("Updating loan with id: {}", id);
+        return writeCoordinator.execute(id, () -> amendLoan(id, updatedLoan));
+    }
 
-        Loan existingLoan = getLoanById(id);
+    private Loan amendLoan(Long id, Loan updatedLoan) {
+        Loan existingLoan = getLoanForUpdate(id);
         existingLoan.setPrincipalAmount(updatedLoan.getPrincipalAmount());
         existingLoan.setInterestRate(updatedLoan.getInterestRate());
         existingLoan.setStartDate(updatedLoan.getStartDate());
         existingLoan.setEndDate(updatedLoan.getEndDate());
+        existingLoan.rebuildLedger();
 
-        return loanRepository.save(existingLoan);
+        installmentRepository.deleteByLoanId(id);
+        List<Installment> schedule = installmentRepository.saveAll(existingLoan.buildSchedule());
+        existingLoan.updateNextPaymentDate(schedule.stream()
+                .filter(installment -> installment.getCumulativeDue().compareTo(existingLoan.getTotalPaid()) > 0)
+                .map(Installment::getDueDate)
+                .findFirst()
+                .orElse(null));
+        Loan saved = loanRepository.save(existingLoan);
+        snapshotCache.evict(id);
+        parAgingService.refresh(List.of(id));
+        return saved;
     }
 
+    // Transaction is opened per attempt by the write coordinator, not around the retry loop
     @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public void deleteLoan(Long id) {
         logger.info("Deleting loan with id: {}", id);
-        if (!loanRepository.existsById(id)) {
-            throw new LoanNotFoundException("Loan not found with id: " + id);
-        }
-        loanRepository.deleteById(id);
+        writeCoordinator.execute(id, () -> {
+            if (loanRepository.findByIdForUpdate(id).isEmpty()) {
+                throw notWritable(id);
+            }
+            // Payments and schedule go with it in bulk statements, not one entity removal per row
+            archiveService.archiveLoans(List.of(id), ArchivedLoan.ArchiveReason.DELETED);
+            return null;
+        });
     }
 
     @Override
     @Transactional(readOnly = true)
     public BigDecimal getTotalOutstandingAmount() {
         logger.info("Calculating total outstanding amount");
-        return loanRepository.findAll().stream()
-                .map(loan -> loan.getPrincipalAmount().subtract(
-                        loan.getPayments().stream()
-                                .map(Payment::getAmount)
-                                .reduce(BigDecimal.ZERO, BigDecimal::add)
-                ))
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        return loanRepository.sumOutstandingBalance();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public PortfolioSummary getPortfolioSummary() {
+        logger.info("Building portfolio summary");
+
+        // GROUP BY queries, one row per status each, regardless of portfolio size: two on the hot
+        // tables and two on the archive, which holds most of the PAID book
+        Map<Loan.LoanStatus, PortfolioSummary.StatusBreakdown> byStatus = new EnumMap<>(Loan.LoanStatus.class);
+        addStatusTotals(byStatus, loanRepository.summarizeByStatus(), paymentRepository.summarizeByLoanStatus());
+        addStatusTotals(byStatus, archiveService.summarizeLoansByStatus(),
+                archiveService.summarizePaymentsByLoanStatus());
+
+        long loanCount = 0;
+        long paymentCount = 0;
+        BigDecimal disbursed = BigDecimal.ZERO;
+        BigDecimal collected = BigDecimal.ZERO;
+        BigDecimal outstanding = BigDecimal.ZERO;
+        for (PortfolioSummary.StatusBreakdown totals : byStatus.values()) {
+            loanCount += totals.loanCount();
+            paymentCount += totals.paymentCount();
+            disbursed = disbursed.add(totals.disbursed());
+            collected = collected.add(totals.collected());
+            outstanding = outstanding.add(totals.outstanding());
+        }
+
+        return new PortfolioSummary(loanCount, paymentCount, disbursed, collected, outstanding, byStatus);
+    }
+
+    private static void addStatusTotals(Map<Loan.LoanStatus, PortfolioSummary.StatusBreakdown> byStatus,
+                                        List<LoanStatusTotals> loanTotals, List<PaymentStatusTotals> paymentTotals) {
+        Map<Loan.LoanStatus, PaymentStatusTotals> payments = new EnumMap<>(Loan.LoanStatus.class);
+        for (PaymentStatusTotals totals : paymentTotals) {
+            payments.put(totals.getStatus(), totals);
+        }
+        for (LoanStatusTotals totals : loanTotals) {
+            PaymentStatusTotals statusPayments = payments.get(totals.getStatus());
+            byStatus.merge(totals.getStatus(), new PortfolioSummary.StatusBreakdown(totals.getLoanCount(),
+                    statusPayments != null ? statusPayments.getPaymentCount() : 0,
+                    totals.getDisbursed(),
+                    statusPayments != null ? statusPayments.getCollected() : BigDecimal.ZERO,
+                    totals.getOutstanding()), PortfolioSummary.StatusBreakdown::plus);
+        }
     }
 
     @Override
     @Transactional(readOnly = true)
     public BigDecimal calculateEMI(Long loanId) {
         logger.info("Calculating EMI for loan id: {}", loanId);
+        return getLoanSnapshot(loanId).emi();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Installment> getSchedule(Long loanId) {
+        logger.info("Fetching repayment schedule for loan id: {}", loanId);
+        if (loanRepository.existsById(loanId)) {
+            return installmentRepository.findByLoanIdOrderByInstallmentNumberAsc(loanId);
+        }
+        // The archive keeps no schedule rows; a settled loan's is rebuilt from its terms, as
+        // /next-installment and /arrears also answer for archived loans
+        return archiveService.findPaidLoan(loanId)
+                .map(Loan::buildSchedule)
+                .orElseThrow(() -> new LoanNotFoundException("Loan not found with id: " + loanId));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Installment getNextInstallment(Long loanId) {
+        logger.info("Fetching next installment for loan id: {}", loanId);
+        Loan loan = getLoanById(loanId);
+        return installmentRepository
+                .findFirstByLoanIdAndCumulativeDueGreaterThanOrderByInstallmentNumberAsc(loanId, loan.getTotalPaid())
+                .orElseThrow(() -> new ResourceNotFoundException("No unpaid installment for loan id: " + loanId));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public BigDecimal getArrears(Long loanId) {
+        logger.info("Calculating arrears for loan id: {}", loanId);
         Loan loan = getLoanById(loanId);
-        return loan.calculateEMI();
+        BigDecimal dueToDate = installmentRepository
+                .findFirstByLoanIdAndDueDateLessThanEqualOrderByDueDateDesc(loanId, LocalDate.now())
+                .map(Installment::getCumulativeDue)
+                .orElse(BigDecimal.ZERO);
+        return dueToDate.subtract(loan.getTotalPaid()).max(BigDecimal.ZERO);
     }
 
+    // Transaction is opened per attempt by the write coordinator, not around the retry loop
     @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public void processPayment(Long loanId, BigDecimal amount) {
         logger.info("Processing payment of {} for loan id: {}", amount, loanId);
 
@@ -109,7 +301,14 @@ public class LoanServiceImpl implements LoanService {
             throw new InvalidPaymentException("Payment amount must be positive");
         }
 
-        Loan loan = getLoanById(loanId);
+        writeCoordinator.execute(loanId, () -> {
+            postPayment(loanId, amount);
+            return null;
+        });
+    }
+
+    private void postPayment(Long loanId, BigDecimal amount) {
+        Loan loan = getLoanForUpdate(loanId);
 
         if (loan.getStatus() == Loan.LoanStatus.PAID) {
             throw new LoanAlreadyPaidException("Cannot process payment - loan is already paid");
@@ -118,50 +317,68 @@ public class LoanServiceImpl implements LoanService {
         Payment payment = new Payment();
         payment.setAmount(amount);
         payment.setPaymentDate(LocalDate.now());
-        payment.setLoan(loan);
-        loan.getPayments().add(payment);
 
-        // Update loan status and next payment date
-        BigDecimal totalPaid = loan.getPayments().stream()
-                .map(Payment::getAmount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        // Update running totals, loan status and next payment date
+        loan.applyPayment(payment);
+        paymentRepository.save(payment);
 
-        if (totalPaid.compareTo(loan.getPrincipalAmount()) >= 0) {
-            loan.setStatus(Loan.LoanStatus.PAID);
-            loan.setNextPaymentDate(null);
-        } else {
-            loan.setNextPaymentDate(LocalDate.now().plusMonths(1));
-        }
+        loan.updateNextPaymentDate(installmentRepository
+                .findFirstByLoanIdAndCumulativeDueGreaterThanOrderByInstallmentNumberAsc(loanId, loan.getTotalPaid())
+                .map(Installment::getDueDate)
+                .orElse(null));
 
         loanRepository.save(loan);
+        snapshotCache.evict(loanId);
+        parAgingService.refresh(List.of(loanId));
     }
 
     @Override
     @Transactional(readOnly = true)
     public BigDecimal getOutstandingBalance(Long loanId) {
         logger.info("Getting outstanding balance for loan id: {}", loanId);
-        Loan loan = getLoanById(loanId);
-        BigDecimal totalPaid = loan.getPayments().stream()
-                .map(Payment::getAmount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-        return loan.getPrincipalAmount().subtract(totalPaid);
+        return getLoanSnapshot(loanId).outstandingBalance();
     }
 
     @Override
     @Transactional(readOnly = true)
-    public List<Loan> getOverdueLoans() {
-        logger.info("Fetching all overdue loans");
-        return loanRepository.findByStatusAndEndDateBefore(
-                Loan.LoanStatus.ACTIVE, LocalDate.now());
+    public CursorPage<LoanRow> getOverdueLoans(Long cursor, Integer size) {
+        int pageSize = CursorPage.clampSize(size);
+        logger.info("Fetching overdue loans after id {} (page size {})", cursor, pageSize);
+        // Status is maintained by LoanClassificationJob, so this is a read on the status index
+        List<LoanRow> rows = loanRepository.findRowsByStatusInAfter(
+                List.of(Loan.LoanStatus.OVERDUE, Loan.LoanStatus.DEFAULTED),
+                CursorPage.startAfter(cursor), Limit.of(pageSize + 1));
+        return CursorPage.of(rows, pageSize, LoanRow::id);
     }
 
     @Override
     @Transactional(readOnly = true)
-    public List<Loan> getLoansByClientId(Long clientId) {
+    public List<LoanWithPayments> getLoansByClientId(Long clientId, boolean includePayments) {
         logger.info("Fetching loans for client id: {}", clientId);
         if (!clientRepository.existsById(clientId)) {
             throw new ClientNotFoundException("Client not found with id: " + clientId);
         }
-        return loanRepository.findByClientId(clientId);
+
+        // DTO rows only: at most one query for loans and one for all of their payments, per table
+        List<LoanRow> loans = loanRepository.findRowsByClientId(clientId);
+        List<LoanRow> archived = archiveService.findPaidLoanRows(clientId);
+        if (!archived.isEmpty()) {
+            loans = Stream.concat(loans.stream(), archived.stream())
+                    .sorted(Comparator.comparing(LoanRow::id))
+                    .toList();
+        }
+        if (!includePayments || loans.isEmpty()) {
+            return LoanWithPayments.withoutPayments(loans);
+        }
+        List<Long> loanIds = loans.stream().map(LoanRow::id).toList();
+        List<PaymentRow> payments = paymentRepository.findRowsByLoanIds(loanIds);
+        if (!archived.isEmpty()) {
+            // join() needs payments in loan id order across both tables
+            payments = Stream.concat(payments.stream(),
+                            archiveService.findPaymentRows(archived.stream().map(LoanRow::id).toList()).stream())
+                    .sorted(Comparator.comparing(PaymentRow::loanId).thenComparing(PaymentRow::id))
+                    .toList();
+        }
+        return LoanWithPayments.join(loans, payments);
     }
 }
\ No newline at end of file
@@ -0,0 +1,69 @@
+package org.ncu.mf_loan_system.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.ncu.mf_loan_system.config.LoanCacheProperties;
+import org.ncu.mf_loan_system.dto.LoanSnapshot;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+@Component
+public class LoanSnapshotCache {
+
+    private final Cache<Long, LoanSnapshot> cache;
+
+    public LoanSnapshotCache(LoanCacheProperties properties) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                .expireAfterWrite(properties.getExpireAfterWrite())
+                .recordStats()
+                .build();
+    }
+
+    public LoanSnapshot get(Long loanId, Function<Long, LoanSnapshot> loader) {
+        return cache.get(loanId, loader);
+    }
+
+    // Evicts now and again after commit, so a reader that reloaded the old row
+    // while the writing transaction was still open cannot leave it cached
+    public void evict(Long loanId) {
+        evictAll(List.of(loanId));
+    }
+
+    public void evictAll(Collection<Long> loanIds) {
+        cache.invalidateAll(loanIds);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            List<Long> ids = List.copyOf(loanIds);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    cache.invalidateAll(ids);
+                }
+            });
+        }
+    }
+
+    public void clear() {
+        cache.invalidateAll();
+    }
+
+    public Map<String, Object> stats() {
+        CacheStats stats = cache.stats();
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("size", cache.estimatedSize());
+        body.put("hits", stats.hitCount());
+        body.put("misses", stats.missCount());
+        body.put("hitRate", stats.hitRate());
+        body.put("evictions", stats.evictionCount());
+        body.put("averageLoadMillis", stats.averageLoadPenalty() / 1_000_000.0);
+        return body;
+    }
+}
@@ -0,0 +1,68 @@
+package org.ncu.mf_loan_system.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+// Runs loan writes in their own transaction, serialized per loan inside this JVM by a
+// striped lock and retried a bounded number of times when another instance wins the
+// @Version check. Different loans hash to different stripes and proceed in parallel.
+@Component
+public class LoanWriteCoordinator {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoanWriteCoordinator.class);
+
+    static final int STRIPES = 1024;
+    static final int MAX_ATTEMPTS = 5;
+
+    private final ReentrantLock[] locks = new ReentrantLock[STRIPES];
+    private final TransactionTemplate transactionTemplate;
+
+    public LoanWriteCoordinator(PlatformTransactionManager transactionManager) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        for (int i = 0; i < STRIPES; i++) {
+            locks[i] = new ReentrantLock();
+        }
+    }
+
+    public <T> T execute(Long loanId, Supplier<T> work) {
+        ReentrantLock lock = locks[Math.floorMod(Long.hashCode(loanId), STRIPES)];
+        lock.lock();
+        try {
+            return executeWithRetry(work);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // For writes spanning many loans (bulk posting), where taking every stripe would be worse than retrying
+    public <T> T executeWithRetry(Supplier<T> work) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transactionTemplate.execute(status -> work.get());
+            } catch (OptimisticLockingFailureException ex) {
+                if (attempt >= MAX_ATTEMPTS) {
+                    throw ex;
+                }
+                logger.debug("Optimistic lock conflict, retrying (attempt {} of {})", attempt, MAX_ATTEMPTS);
+                backoff(attempt);
+            }
+        }
+    }
+
+    private void backoff(int attempt) {
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(1, 5L << attempt));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while retrying a loan update", e);
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package org.ncu.mf_loan_system.service;
+
+import org.ncu.mf_loan_system.config.ParAgingProperties;
+import org.ncu.mf_loan_system.repository.LoanRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.List;
+
+// Day rollover for PAR aging: re-derives the positions of loans whose days past due crossed
+// a bucket boundary overnight. Each chunk is its own ParAgingService transaction, so
+// payments only ever wait on one chunk's par_totals updates.
+@Component
+public class ParAgingJob {
+
+    private static final Logger logger = LoggerFactory.getLogger(ParAgingJob.class);
+
+    private final ParAgingService parAgingService;
+    private final LoanRepository loanRepository;
+    private final ParAgingProperties properties;
+
+    public ParAgingJob(ParAgingService parAgingService, LoanRepository loanRepository,
+                       ParAgingProperties properties) {
+        this.parAgingService = parAgingService;
+        this.loanRepository = loanRepository;
+        this.properties = properties;
+    }
+
+    @Scheduled(cron = "${loan.par.cron:0 30 0 * * *}")
+    public void run() {
+        age(LocalDate.now());
+    }
+
+    public int age(LocalDate today) {
+        long started = System.currentTimeMillis();
+        List<Long> loanIds = parAgingService.findLoansToAge(today, properties.getLookbackDays());
+        for (int from = 0; from < loanIds.size(); from += properties.getChunkSize()) {
+            parAgingService.refresh(loanIds.subList(from, Math.min(from + properties.getChunkSize(), loanIds.size())), today);
+        }
+        logger.info("PAR aging for {}: {} loans re-aged ({} ms)", today, loanIds.size(),
+                System.currentTimeMillis() - started);
+        return loanIds.size();
+    }
+
+    // Full recomputation by loan id range; for first start-up or repair, while no
+    // payments are being posted
+    public int rebuild() {
+        long started = System.currentTimeMillis();
+        parAgingService.resetPositions();
+        long afterId = 0;
+        int loans = 0;
+        List<Long> chunk;
+        do {
+            chunk = loanRepository.findIdsAfter(afterId, Limit.of(properties.getChunkSize()));
+            if (!chunk.isEmpty()) {
+                parAgingService.refresh(chunk);
+                afterId = chunk.get(chunk.size() - 1);
+                loans += chunk.size();
+            }
+        } while (chunk.size() == properties.getChunkSize());
+        logger.info("Rebuilt PAR positions for {} loans ({} ms)", loans, System.currentTimeMillis() - started);
+        return loans;
+    }
+}
@@ -0,0 +1,17 @@
+package org.ncu.mf_loan_system.service;
+
+import org.ncu.mf_loan_system.dto.ParSummary;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+public interface ParAgingService {
+    ParSummary getPortfolioPar();
+    ParSummary getClientPar(Long clientId);
+    void refresh(Collection<Long> loanIds);
+    void refresh(Collection<Long> loanIds, LocalDate today);
+    List<Long> findLoansToAge(LocalDate today, int lookbackDays);
+    boolean needsRebuild();
+    void resetPositions();
+}
@@ -0,0 +1,204 @@
+package org.ncu.mf_loan_system.service;
+
+import org.ncu.mf_loan_system.dto.LoanParState;
+import org.ncu.mf_loan_system.dto.ParSummary;
+import org.ncu.mf_loan_system.entities.Loan;
+import org.ncu.mf_loan_system.entities.LoanParPosition;
+import org.ncu.mf_loan_system.entities.ParBucket;
+import org.ncu.mf_loan_system.entities.ParTotal;
+import org.ncu.mf_loan_system.exception.ClientNotFoundException;
+import org.ncu.mf_loan_system.repository.ClientRepository;
+import org.ncu.mf_loan_system.repository.LoanParPositionRepository;
+import org.ncu.mf_loan_system.repository.LoanRepository;
+import org.ncu.mf_loan_system.repository.ParTotalRepository;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// Keeps each loan's PAR bucket and outstanding principal in loan_par_positions and the
+// portfolio totals in par_totals. Writers call refresh() with the loans they touched, in
+// their own transaction; the nightly ParAgingJob re-ages the loans whose days past due
+// crossed a bucket boundary. Reads never scan the loans table.
+@Service
+@Transactional
+public class ParAgingServiceImpl implements ParAgingService {
+
+    private static final List<Loan.LoanStatus> UNPAID_STATUSES =
+            List.of(Loan.LoanStatus.ACTIVE, Loan.LoanStatus.OVERDUE, Loan.LoanStatus.DEFAULTED);
+
+    private final LoanRepository loanRepository;
+    private final ClientRepository clientRepository;
+    private final LoanParPositionRepository positionRepository;
+    private final ParTotalRepository totalRepository;
+
+    public ParAgingServiceImpl(LoanRepository loanRepository, ClientRepository clientRepository,
+                               LoanParPositionRepository positionRepository, ParTotalRepository totalRepository) {
+        this.loanRepository = loanRepository;
+        this.clientRepository = clientRepository;
+        this.positionRepository = positionRepository;
+        this.totalRepository = totalRepository;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ParSummary getPortfolioPar() {
+        return ParSummary.of(totalRepository.summarize());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ParSummary getClientPar(Long clientId) {
+        if (!clientRepository.existsById(clientId)) {
+            throw new ClientNotFoundException("Client not found with id: " + clientId);
+        }
+        return ParSummary.of(positionRepository.summarizeByClientId(clientId));
+    }
+
+    // Re-derives the given loans' positions from the loans table (after the caller's pending
+    // changes are flushed) and moves only the difference into par_totals. Positions are read
+    // with a row lock, before the loans, so a writer and the nightly job (which runs outside
+    // LoanWriteCoordinator) refreshing the same loan take turns and the second one sees the
+    // first one's committed position and loan state.
+    @Override
+    public void refresh(Collection<Long> loanIds) {
+        refresh(loanIds, LocalDate.now());
+    }
+
+    @Override
+    public void refresh(Collection<Long> loanIds, LocalDate today) {
+        if (loanIds.isEmpty()) {
+            return;
+        }
+        Map<Long, LoanParPosition> positions = positionRepository.findAllForUpdate(loanIds).stream()
+                .collect(Collectors.toMap(LoanParPosition::getLoanId, Function.identity()));
+        Map<Long, LoanParState> states = loanRepository.findParStates(loanIds).stream()
+                .collect(Collectors.toMap(LoanParState::loanId, Function.identity()));
+
+        // Keyed by par_totals id, so rows are always locked in the same order
+        SortedMap<Integer, Delta> deltas = new TreeMap<>();
+        List<LoanParPosition> changed = new ArrayList<>();
+        List<LoanParPosition> removed = new ArrayList<>();
+        for (Long loanId : new HashSet<>(loanIds)) {
+            LoanParState state = states.get(loanId);
+            LoanParPosition position = positions.get(loanId);
+            boolean open = state != null && state.status() != Loan.LoanStatus.PAID;
+            ParBucket bucket = open ? bucketOf(state.nextPaymentDate(), today) : null;
+            BigDecimal balance = open ? outstandingPrincipal(state) : null;
+
+            if (position != null) {
+                if (open && position.getBucket() == bucket && position.getBalance().compareTo(balance) == 0) {
+                    continue;
+                }
+                delta(deltas, position.getBucket(), loanId).subtract(position.getBalance());
+            }
+            if (open) {
+                delta(deltas, bucket, loanId).add(balance);
+                if (position == null) {
+                    changed.add(new LoanParPosition(loanId, state.clientId(), bucket, balance));
+                } else {
+                    position.setClientId(state.clientId());
+                    position.setBucket(bucket);
+                    position.setBalance(balance);
+                    changed.add(position);
+                }
+            } else if (position != null) {
+                removed.add(position);
+            }
+        }
+
+        // Flushed here since bulk callers clear the persistence context after each chunk
+        positionRepository.saveAll(changed);
+        positionRepository.deleteAll(removed);
+        positionRepository.flush();
+        deltas.forEach((id, delta) -> {
+            if (delta.loans != 0 || delta.balance.signum() != 0) {
+                totalRepository.applyDelta(id, delta.loans, delta.balance);
+            }
+        });
+    }
+
+    // Days past due only change bucket at 1, 31, 61 and 91 days, so only loans due exactly
+    // that long ago (or within lookbackDays of it, to cover missed runs) need re-aging
+    @Override
+    @Transactional(readOnly = true)
+    public List<Long> findLoansToAge(LocalDate today, int lookbackDays) {
+        Set<Long> loanIds = new TreeSet<>();
+        for (ParBucket bucket : ParBucket.values()) {
+            if (bucket == ParBucket.CURRENT) {
+                continue;
+            }
+            LocalDate through = today.minusDays(bucket.getFromDays());
+            loanIds.addAll(loanRepository.findIdsDueBetween(UNPAID_STATUSES, through.minusDays(lookbackDays), through));
+        }
+        return new ArrayList<>(loanIds);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public boolean needsRebuild() {
+        return totalRepository.count() < (long) ParBucket.values().length * ParTotal.STRIPES
+                || (positionRepository.findFirstByOrderByLoanIdAsc().isEmpty()
+                    && !loanRepository.findIdsAfter(0, Limit.of(1)).isEmpty());
+    }
+
+    // Empties every position and total; the caller then refresh()es all loans
+    @Override
+    public void resetPositions() {
+        ensureTotalRows();
+        positionRepository.deleteAllPositions();
+        totalRepository.resetAll();
+    }
+
+    private void ensureTotalRows() {
+        Set<Integer> existing = new HashSet<>();
+        totalRepository.findAll().forEach(total -> existing.add(total.getId()));
+        List<ParTotal> missing = new ArrayList<>();
+        for (ParBucket bucket : ParBucket.values()) {
+            for (int stripe = 0; stripe < ParTotal.STRIPES; stripe++) {
+                if (!existing.contains(ParTotal.idOf(bucket, stripe))) {
+                    missing.add(new ParTotal(bucket, stripe));
+                }
+            }
+        }
+        totalRepository.saveAll(missing);
+        totalRepository.flush();
+    }
+
+    static ParBucket bucketOf(LocalDate nextPaymentDate, LocalDate today) {
+        if (nextPaymentDate == null || !nextPaymentDate.isBefore(today)) {
+            return ParBucket.CURRENT;
+        }
+        return ParBucket.of(ChronoUnit.DAYS.between(nextPaymentDate, today));
+    }
+
+    private static BigDecimal outstandingPrincipal(LoanParState state) {
+        BigDecimal repaid = state.principalRepaid() != null ? state.principalRepaid() : BigDecimal.ZERO;
+        return state.principalAmount().subtract(repaid).max(BigDecimal.ZERO);
+    }
+
+    private static Delta delta(SortedMap<Integer, Delta> deltas, ParBucket bucket, Long loanId) {
+        return deltas.computeIfAbsent(ParTotal.idOf(bucket, ParTotal.stripeOf(loanId)), id -> new Delta());
+    }
+
+    private static final class Delta {
+        long loans;
+        BigDecimal balance = BigDecimal.ZERO;
+
+        void add(BigDecimal amount) {
+            loans++;
+            balance = balance.add(amount);
+        }
+
+        void subtract(BigDecimal amount) {
+            loans--;
+            balance = balance.subtract(amount);
+        }
+    }
+}
@@ -0,0 +1,380 @@
+package org.ncu.mf_loan_system.service;
+
+import org.ncu.mf_loan_system.config.PaymentJournalProperties;
+import org.ncu.mf_loan_system.exception.InvalidPaymentException;
+import org.ncu.mf_loan_system.exception.PaymentJournalUnavailableException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+// Append-only repayment journal on memory-mapped segment files. append() returns once the
+// entry has been forced to disk; a flusher thread forces whatever was appended since the
+// last flush in one go, so concurrent appenders share fsyncs. Durable entries are handed to
+// PaymentJournalApplier through a queue. If a flush fails the journal stops for good: every
+// waiting and later append fails rather than acknowledging an entry that may not be on disk.
+//
+// Record layout (40 bytes): magic int, sequence long, loan id long, amount in cents long,
+// payment date as epoch day long, CRC32 of the preceding 36 bytes int. Replay stops at the
+// first slot without a valid magic and checksum, i.e. the unwritten tail or a torn write.
+@Component
+@ConditionalOnProperty(prefix = "payment.journal", name = "enabled", havingValue = "true")
+public class PaymentJournal {
+
+    private static final Logger logger = LoggerFactory.getLogger(PaymentJournal.class);
+
+    static final int RECORD_SIZE = 40;
+    private static final int MAGIC = 0x4A524E4C;
+    private static final String SEGMENT_PREFIX = "journal-";
+    private static final String SEGMENT_SUFFIX = ".log";
+
+    public record Entry(long sequence, Long loanId, BigDecimal amount, LocalDate paymentDate) {
+    }
+
+    private final Path directory;
+    private final int segmentEntries;
+    private final long flushIntervalNanos;
+    private final long appendTimeoutNanos;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition durable = lock.newCondition();
+    private final Condition appended = lock.newCondition();
+    private final BlockingQueue<Entry> ready = new LinkedBlockingQueue<>();
+    // Segment files by the first sequence they hold
+    private final NavigableMap<Long, Path> segments = new TreeMap<>();
+    // Appended but not yet forced, in sequence order
+    private final ArrayDeque<Entry> unflushed = new ArrayDeque<>();
+
+    private FileChannel channel;
+    private MappedByteBuffer active;
+    private int writeOffset;
+    private int forcedOffset;
+    private long nextSequence;
+    private long durableSequence;
+    private volatile boolean open;
+    // Why the flusher stopped, if it did; guarded by lock
+    private RuntimeException failure;
+    private Thread flusher;
+
+    public PaymentJournal(PaymentJournalProperties properties) {
+        this.directory = Path.of(properties.getDirectory());
+        this.segmentEntries = properties.getSegmentEntries();
+        this.flushIntervalNanos = properties.getFlushInterval().toNanos();
+        this.appendTimeoutNanos = properties.getAppendTimeout().toNanos();
+    }
+
+    // Queues every entry after the checkpoint for the applier, then starts a fresh segment
+    void open(long checkpoint) throws IOException {
+        Files.createDirectories(directory);
+        long lastSequence = checkpoint;
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : files.filter(PaymentJournal::isSegment).toList()) {
+                segments.put(firstSequenceOf(file), file);
+            }
+        }
+        int replayed = 0;
+        for (Path file : segments.values()) {
+            for (Entry entry : read(file)) {
+                lastSequence = Math.max(lastSequence, entry.sequence());
+                if (entry.sequence() > checkpoint) {
+                    ready.add(entry);
+                    replayed++;
+                }
+            }
+        }
+        if (replayed > 0) {
+            logger.info("Replaying {} journaled payments after checkpoint {}", replayed, checkpoint);
+        }
+
+        nextSequence = lastSequence + 1;
+        durableSequence = lastSequence;
+        roll();
+        open = true;
+        flusher = new Thread(this::flushLoop, "payment-journal-flusher");
+        flusher.setDaemon(true);
+        flusher.start();
+    }
+
+    public Entry append(Long loanId, BigDecimal amount, LocalDate paymentDate) {
+        LocalDate date = paymentDate != null ? paymentDate : LocalDate.now();
+        long cents = validate(loanId, amount, date);
+        Entry entry;
+        lock.lock();
+        try {
+            if (!open) {
+                throw notAccepting();
+            }
+            if (writeOffset == active.capacity()) {
+                roll();
+            }
+            entry = new Entry(nextSequence++, loanId, amount, date);
+            write(entry, cents);
+            unflushed.add(entry);
+            appended.signal();
+
+            long remaining = appendTimeoutNanos;
+            while (durableSequence < entry.sequence()) {
+                if (failure != null) {
+                    throw notAccepting();
+                }
+                if (remaining <= 0) {
+                    throw new PaymentJournalUnavailableException("Payment journal entry " + entry.sequence()
+                            + " was not confirmed durable in time");
+                }
+                remaining = durable.awaitNanos(remaining);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Payment journal write failed", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new PaymentJournalUnavailableException("Interrupted waiting for payment journal flush");
+        } finally {
+            lock.unlock();
+        }
+        return entry;
+    }
+
+    // Waits up to timeout for the first durable entry, then takes whatever else is ready
+    List<Entry> takeBatch(int max, long timeout, TimeUnit unit) throws InterruptedException {
+        Entry first = ready.poll(timeout, unit);
+        if (first == null) {
+            return List.of();
+        }
+        List<Entry> batch = new ArrayList<>(Math.min(max, ready.size() + 1));
+        batch.add(first);
+        ready.drainTo(batch, max - 1);
+        return batch;
+    }
+
+    int backlog() {
+        return ready.size();
+    }
+
+    // Removes segments whose entries are all at or below the checkpoint; the active
+    // segment is always the last one and is never removed
+    void checkpointed(long sequence) {
+        lock.lock();
+        try {
+            while (segments.size() > 1) {
+                Map.Entry<Long, Path> oldest = segments.firstEntry();
+                if (segments.higherKey(oldest.getKey()) - 1 > sequence) {
+                    break;
+                }
+                Files.deleteIfExists(oldest.getValue());
+                segments.pollFirstEntry();
+            }
+        } catch (IOException e) {
+            logger.warn("Could not remove applied journal segment", e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Stops accepting appends and forces what was already written
+    void close() {
+        lock.lock();
+        try {
+            if (!open) {
+                return;
+            }
+            open = false;
+            appended.signal();
+        } finally {
+            lock.unlock();
+        }
+        try {
+            flusher.join(TimeUnit.SECONDS.toMillis(5));
+            channel.close();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            logger.warn("Could not close payment journal", e);
+        }
+    }
+
+    private void flushLoop() {
+        while (true) {
+            MappedByteBuffer buffer;
+            int from;
+            int to;
+            long target;
+            lock.lock();
+            try {
+                while (open && unflushed.isEmpty()) {
+                    appended.awaitUninterruptibly();
+                }
+                if (unflushed.isEmpty()) {
+                    return;
+                }
+            } finally {
+                lock.unlock();
+            }
+
+            // Give concurrent appenders a moment to join this fsync
+            if (flushIntervalNanos > 0 && open) {
+                LockSupport.parkNanos(flushIntervalNanos);
+            }
+
+            lock.lock();
+            try {
+                buffer = active;
+                from = forcedOffset;
+                to = writeOffset;
+                target = unflushed.peekLast().sequence();
+            } finally {
+                lock.unlock();
+            }
+
+            // Outside the lock: appends keep landing past "to" while this forces
+            try {
+                force(buffer, from, to - from);
+            } catch (RuntimeException e) {
+                fail(e);
+                return;
+            }
+
+            lock.lock();
+            try {
+                if (buffer == active) {
+                    forcedOffset = Math.max(forcedOffset, to);
+                }
+                markDurable(target);
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    void force(MappedByteBuffer buffer, int from, int length) {
+        buffer.force(from, length);
+    }
+
+    // Stops the journal and wakes every appender still waiting for a flush
+    private void fail(RuntimeException e) {
+        logger.error("Payment journal flush failed, no further entries will be accepted", e);
+        lock.lock();
+        try {
+            open = false;
+            failure = e;
+            durable.signalAll();
+            channel.close();
+        } catch (IOException closeFailed) {
+            logger.warn("Could not close payment journal", closeFailed);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Caller holds the lock
+    private PaymentJournalUnavailableException notAccepting() {
+        return failure != null
+                ? new PaymentJournalUnavailableException("Payment journal failed: " + failure.getMessage())
+                : new PaymentJournalUnavailableException("Payment journal is not accepting entries");
+    }
+
+    // Caller holds the lock
+    private void markDurable(long sequence) {
+        while (!unflushed.isEmpty() && unflushed.peekFirst().sequence() <= sequence) {
+            ready.add(unflushed.pollFirst());
+        }
+        durableSequence = Math.max(durableSequence, sequence);
+        durable.signalAll();
+    }
+
+    // Caller holds the lock (or is open() before the flusher starts)
+    private void roll() throws IOException {
+        if (active != null) {
+            active.force();
+            channel.close();
+            if (!unflushed.isEmpty()) {
+                markDurable(unflushed.peekLast().sequence());
+            }
+        }
+        Path file = directory.resolve(String.format("%s%020d%s", SEGMENT_PREFIX, nextSequence, SEGMENT_SUFFIX));
+        channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        active = channel.map(FileChannel.MapMode.READ_WRITE, 0, (long) segmentEntries * RECORD_SIZE);
+        writeOffset = 0;
+        forcedOffset = 0;
+        segments.put(nextSequence, file);
+    }
+
+    private void write(Entry entry, long cents) {
+        int base = writeOffset;
+        active.putLong(base + 4, entry.sequence());
+        active.putLong(base + 12, entry.loanId());
+        active.putLong(base + 20, cents);
+        active.putLong(base + 28, entry.paymentDate().toEpochDay());
+        active.putInt(base + 36, checksum(active, base));
+        // Magic last, so a slot only looks valid once the rest of it is in place
+        active.putInt(base, MAGIC);
+        writeOffset += RECORD_SIZE;
+    }
+
+    private static List<Entry> read(Path file) throws IOException {
+        List<Entry> entries = new ArrayList<>();
+        try (FileChannel in = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = in.map(FileChannel.MapMode.READ_ONLY, 0, in.size());
+            for (int base = 0; base + RECORD_SIZE <= buffer.capacity(); base += RECORD_SIZE) {
+                if (buffer.getInt(base) != MAGIC || buffer.getInt(base + 36) != checksum(buffer, base)) {
+                    break;
+                }
+                entries.add(new Entry(buffer.getLong(base + 4), buffer.getLong(base + 12),
+                        BigDecimal.valueOf(buffer.getLong(base + 20), 2),
+                        LocalDate.ofEpochDay(buffer.getLong(base + 28))));
+            }
+        }
+        return entries;
+    }
+
+    private static int checksum(MappedByteBuffer buffer, int base) {
+        CRC32 crc = new CRC32();
+        crc.update(buffer.slice(base + 4, 32));
+        return (int) crc.getValue();
+    }
+
+    // Only checks that need no database round trip; loan-level checks happen when applied
+    private static long validate(Long loanId, BigDecimal amount, LocalDate paymentDate) {
+        if (loanId == null) {
+            throw new InvalidPaymentException("Loan reference is required");
+        }
+        if (amount == null || amount.compareTo(BigDecimal.ZERO) <= 0) {
+            throw new InvalidPaymentException("Amount must be positive");
+        }
+        if (amount.scale() > 2) {
+            throw new InvalidPaymentException("Amount must have at most 2 decimal places");
+        }
+        if (paymentDate.isAfter(LocalDate.now())) {
+            throw new InvalidPaymentException("Payment date cannot be in the future");
+        }
+        return amount.movePointRight(2).longValueExact();
+    }
+
+    private static boolean isSegment(Path file) {
+        String name = file.getFileName().toString();
+        return name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX);
+    }
+
+    private static long firstSequenceOf(Path file) {
+        String name = file.getFileName().toString();
+        return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+    }
+}
@@ -0,0 +1,140 @@
+package org.ncu.mf_loan_system.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.ncu.mf_loan_system.config.PaymentJournalProperties;
+import org.ncu.mf_loan_system.config.ReadRouting;
+import org.ncu.mf_loan_system.dto.BulkPaymentRequest;
+import org.ncu.mf_loan_system.dto.BulkPaymentResult;
+import org.ncu.mf_loan_system.entities.JournalCheckpoint;
+import org.ncu.mf_loan_system.repository.JournalCheckpointRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.context.WebServerGracefulShutdownLifecycle;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Posts durable journal entries to the database in batches through the bulk payment path.
+// The checkpoint moves in the same transaction, so after a crash the journal is replayed
+// from exactly the first entry that was not posted.
+@Component
+@ConditionalOnProperty(prefix = "payment.journal", name = "enabled", havingValue = "true")
+public class PaymentJournalApplier implements SmartLifecycle {
+
+    private static final Logger logger = LoggerFactory.getLogger(PaymentJournalApplier.class);
+
+    private static final long RETRY_DELAY_MS = 1000;
+
+    private final PaymentJournal journal;
+    private final PaymentService paymentService;
+    private final JournalCheckpointRepository checkpointRepository;
+    private final PaymentJournalProperties properties;
+
+    private volatile boolean running;
+    private Thread applier;
+
+    public PaymentJournalApplier(PaymentJournal journal, PaymentService paymentService,
+                                 JournalCheckpointRepository checkpointRepository,
+                                 PaymentJournalProperties properties, MeterRegistry meterRegistry) {
+        this.journal = journal;
+        this.paymentService = paymentService;
+        this.checkpointRepository = checkpointRepository;
+        this.properties = properties;
+        Gauge.builder("payment.journal.backlog", journal, PaymentJournal::backlog)
+                .description("Journaled repayments acknowledged but not yet posted")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void start() {
+        // From the primary: a stale checkpoint would replay entries that were already posted
+        long checkpoint = ReadRouting.onPrimary(() -> checkpointRepository.findById(properties.getName())
+                .orElseGet(() -> checkpointRepository.save(new JournalCheckpoint(properties.getName(), 0)))
+                .getLastSequence());
+        try {
+            journal.open(checkpoint);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not open payment journal in " + properties.getDirectory(), e);
+        }
+        running = true;
+        applier = new Thread(this::applyLoop, "payment-journal-applier");
+        applier.setDaemon(true);
+        applier.start();
+    }
+
+    // Whatever is still queued at shutdown stays in the journal and is replayed on restart
+    @Override
+    public void stop() {
+        journal.close();
+        running = false;
+        try {
+            applier.join(TimeUnit.SECONDS.toMillis(30));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    // Lower phases stop later: one step below the web server's own start/stop phase, so
+    // appends have stopped arriving before the journal closes
+    @Override
+    public int getPhase() {
+        return WebServerGracefulShutdownLifecycle.SMART_LIFECYCLE_PHASE - 2048;
+    }
+
+    private void applyLoop() {
+        while (running) {
+            List<PaymentJournal.Entry> batch;
+            try {
+                batch = journal.takeBatch(properties.getApplyBatchSize(), 200, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                return;
+            }
+            if (!batch.isEmpty()) {
+                apply(batch);
+            }
+        }
+    }
+
+    // Retries the same batch until it posts; the checkpoint makes a retry after a partial
+    // failure safe, since nothing from a rolled-back attempt is counted as posted
+    private void apply(List<PaymentJournal.Entry> batch) {
+        List<BulkPaymentRequest> requests = batch.stream()
+                .map(entry -> new BulkPaymentRequest(entry.loanId(), entry.amount(), entry.paymentDate()))
+                .toList();
+        List<Long> sequences = batch.stream().map(PaymentJournal.Entry::sequence).toList();
+        long through = sequences.get(sequences.size() - 1);
+
+        while (running) {
+            try {
+                List<BulkPaymentResult> results = paymentService.postJournalBatch(properties.getName(), requests, sequences);
+                // Already stored in journal_exceptions along with the checkpoint
+                for (BulkPaymentResult result : results) {
+                    if (!result.posted()) {
+                        logger.warn("Journaled payment {} for loan {} rejected: {}",
+                                sequences.get(result.index()), result.loanId(), result.error());
+                    }
+                }
+                journal.checkpointed(through);
+                return;
+            } catch (RuntimeException ex) {
+                logger.error("Failed to post {} journaled payments through sequence {}, retrying", batch.size(), through, ex);
+                try {
+                    Thread.sleep(RETRY_DELAY_MS);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        }
+    }
+}
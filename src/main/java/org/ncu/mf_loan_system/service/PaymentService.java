@@ -1,12 +1,24 @@
 package org.ncu.mf_loan_system.service;
 
+import org.ncu.mf_loan_system.dto.BulkPaymentRequest;
+import org.ncu.mf_loan_system.dto.BulkPaymentResult;
+import org.ncu.mf_loan_system.dto.CursorPage;
+import org.ncu.mf_loan_system.dto.PaymentRow;
+import org.ncu.mf_loan_system.entities.JournalExceptionItem;
 import org.ncu.mf_loan_system.entities.Payment;
+
+import java.time.LocalDate;
 import java.util.List;
 
 public interface PaymentService {
     List<Payment> getAllPayments();
+    CursorPage<PaymentRow> getPaymentsPage(Long cursor, Integer size, Long loanId, Long clientId,
+                                        LocalDate from, LocalDate to);
     Payment getPaymentById(Long id);
     Payment createPayment(Payment payment);
+    List<BulkPaymentResult> createPayments(List<BulkPaymentRequest> requests);
+    List<BulkPaymentResult> postJournalBatch(String journal, List<BulkPaymentRequest> requests, List<Long> sequences);
+    CursorPage<JournalExceptionItem> getJournalExceptions(String journal, Long cursor, Integer size);
     Payment updatePayment(Long id, Payment payment);
     void deletePayment(Long id);
 }
\ No newline at end of file
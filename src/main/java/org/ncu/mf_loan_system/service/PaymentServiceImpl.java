@@ -1,26 +1,75 @@
 package org.ncu.mf_loan_system.service;
 
+import jakarta.persistence.EntityManager;
+import org.ncu.mf_loan_system.dto.BulkPaymentRequest;
+import org.ncu.mf_loan_system.dto.BulkPaymentResult;
+import org.ncu.mf_loan_system.dto.CursorPage;
+import org.ncu.mf_loan_system.dto.LoanDueDate;
+import org.ncu.mf_loan_system.dto.PaymentRow;
+import org.ncu.mf_loan_system.entities.Installment;
+import org.ncu.mf_loan_system.entities.JournalExceptionItem;
 import org.ncu.mf_loan_system.entities.Loan;
 import org.ncu.mf_loan_system.entities.Payment;
+import org.ncu.mf_loan_system.repository.InstallmentRepository;
+import org.ncu.mf_loan_system.repository.JournalCheckpointRepository;
+import org.ncu.mf_loan_system.repository.JournalExceptionItemRepository;
 import org.ncu.mf_loan_system.repository.LoanRepository;
+import org.ncu.mf_loan_system.exception.InvalidPaymentException;
+import org.ncu.mf_loan_system.exception.LoanArchivedException;
+import org.ncu.mf_loan_system.exception.LoanNotFoundException;
+import org.ncu.mf_loan_system.exception.ResourceNotFoundException;
 import org.ncu.mf_loan_system.repository.PaymentRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
-import java.math.RoundingMode;
-import java.util.List;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @Transactional
 public class PaymentServiceImpl implements PaymentService {
 
+    private static final Logger logger = LoggerFactory.getLogger(PaymentServiceImpl.class);
+
+    static final int MAX_BULK_ROWS = 20_000;
+
+    // Loans loaded, posted and flushed together; keeps the persistence context small
+    private static final int BULK_LOAN_CHUNK = 500;
+
     private final PaymentRepository paymentRepository;
     private final LoanRepository loanRepository;
+    private final InstallmentRepository installmentRepository;
+    private final EntityManager entityManager;
+    private final LoanSnapshotCache snapshotCache;
+    private final LoanWriteCoordinator writeCoordinator;
+    private final JournalCheckpointRepository checkpointRepository;
+    private final JournalExceptionItemRepository journalExceptionRepository;
+    private final ParAgingService parAgingService;
+    private final ArchiveService archiveService;
 
-    public PaymentServiceImpl(PaymentRepository paymentRepository, LoanRepository loanRepository) {
+    public PaymentServiceImpl(PaymentRepository paymentRepository, LoanRepository loanRepository,
+                              InstallmentRepository installmentRepository, EntityManager entityManager,
+                              LoanSnapshotCache snapshotCache, LoanWriteCoordinator writeCoordinator,
+                              JournalCheckpointRepository checkpointRepository,
+                              JournalExceptionItemRepository journalExceptionRepository,
+                              ParAgingService parAgingService, ArchiveService archiveService) {
         this.paymentRepository = paymentRepository;
         this.loanRepository = loanRepository;
+        this.installmentRepository = installmentRepository;
+        this.entityManager = entityManager;
+        this.snapshotCache = snapshotCache;
+        this.writeCoordinator = writeCoordinator;
+        this.checkpointRepository = checkpointRepository;
+        this.journalExceptionRepository = journalExceptionRepository;
+        this.parAgingService = parAgingService;
+        this.archiveService = archiveService;
     }
 
     @Override
@@ -29,56 +78,299 @@ public class PaymentServiceImpl implements PaymentService {
         return paymentRepository.findAll();
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<PaymentRow> getPaymentsPage(Long cursor, Integer size, Long loanId, Long clientId,
+                                                  LocalDate from, LocalDate to) {
+        int pageSize = CursorPage.clampSize(size);
+        long afterId = CursorPage.startAfter(cursor);
+        LocalDate start = CursorPage.onOrAfter(from);
+        LocalDate end = CursorPage.onOrBefore(to);
+        Limit limit = Limit.of(pageSize + 1);
+        List<PaymentRow> rows;
+        if (loanId != null && clientId != null) {
+            rows = paymentRepository.findPageAfterByLoanAndClient(afterId, loanId, clientId, start, end, limit);
+        } else if (loanId != null) {
+            rows = paymentRepository.findPageAfterByLoan(afterId, loanId, start, end, limit);
+        } else if (clientId != null) {
+            rows = paymentRepository.findPageAfterByClient(afterId, clientId, start, end, limit);
+        } else {
+            rows = paymentRepository.findPageAfter(afterId, start, end, limit);
+        }
+        return CursorPage.of(rows, pageSize, PaymentRow::id);
+    }
+
     @Override
     @Transactional(readOnly = true)
     public Payment getPaymentById(Long id) {
         return paymentRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Payment not found with id: " + id));
+                // Payments of settled loans moved out of the hot table by LoanArchivalJob
+                .or(() -> archiveService.findPaidLoanPayment(id))
+                .orElseThrow(() -> new ResourceNotFoundException("Payment not found with id: " + id));
     }
 
+    // Writes only ever touch the hot table; payments of an archived loan are read-only
+    private Payment getPaymentForUpdate(Long id) {
+        return paymentRepository.findById(id).orElseThrow(() -> paymentNotWritable(id));
+    }
+
+    private RuntimeException paymentNotWritable(Long paymentId) {
+        return archiveService.findPaidLoanPayment(paymentId).isPresent()
+                ? new LoanArchivedException("Payment " + paymentId + " belongs to an archived loan and cannot be modified")
+                : new ResourceNotFoundException("Payment not found with id: " + paymentId);
+    }
+
+    private RuntimeException loanNotWritable(Long loanId) {
+        return archiveService.isPaidLoanArchived(loanId)
+                ? new LoanArchivedException("Loan " + loanId + " is archived and cannot be modified")
+                : new LoanNotFoundException("Loan not found with id: " + loanId);
+    }
+
+    // Transaction is opened per attempt by the write coordinator, not around the retry loop
     @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public Payment createPayment(Payment payment) {
+        Long loanId = payment.getLoan().getId();
+        return writeCoordinator.execute(loanId, () -> postPayment(loanId, payment));
+    }
+
+    private Payment postPayment(Long loanId, Payment request) {
         // Find the loan from DB
-        Loan loan = loanRepository.findById(payment.getLoan().getId())
-                .orElseThrow(() -> new RuntimeException("Loan not found with id: " + payment.getLoan().getId()));
+        Loan loan = loanRepository.findById(loanId).orElseThrow(() -> loanNotWritable(loanId));
 
-        // Save the payment
-        payment.setLoan(loan);
+        // Fresh entity per attempt; a rolled-back attempt may already have assigned an id
+        Payment payment = new Payment();
+        payment.setAmount(request.getAmount());
+        payment.setPaymentDate(request.getPaymentDate());
+
+        // Post against the loan's running totals (also flips status to PAID once settled)
+        loan.applyPayment(payment);
+
+        // Save the payment and the updated ledger
+        loan.updateNextPaymentDate(nextDueDate(loan));
         Payment savedPayment = paymentRepository.save(payment);
+        loanRepository.save(loan);
+        snapshotCache.evict(loan.getId());
+        parAgingService.refresh(List.of(loan.getId()));
+
+        return savedPayment;
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public List<BulkPaymentResult> createPayments(List<BulkPaymentRequest> requests) {
+        if (requests.size() > MAX_BULK_ROWS) {
+            throw new InvalidPaymentException("Bulk upload is limited to " + MAX_BULK_ROWS + " rows");
+        }
+        logger.info("Posting bulk upload of {} repayments", requests.size());
+
+        // Spans many loans, so no per-loan locks; a version conflict replays the whole upload
+        return writeCoordinator.executeWithRetry(() -> postBulk(requests));
+    }
+
+    // Same posting path as bulk uploads, with the journal checkpoint advanced in the same
+    // transaction so a replay after a crash skips exactly the entries already posted.
+    // sequences holds each request's journal sequence; refused entries are kept in
+    // journal_exceptions by that same transaction, since the caller was already acknowledged.
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public List<BulkPaymentResult> postJournalBatch(String journal, List<BulkPaymentRequest> requests,
+                                                    List<Long> sequences) {
+        return writeCoordinator.executeWithRetry(() -> {
+            List<BulkPaymentResult> results = postBulk(requests);
+            List<JournalExceptionItem> rejected = new ArrayList<>();
+            for (BulkPaymentResult result : results) {
+                if (!result.posted()) {
+                    BulkPaymentRequest request = requests.get(result.index());
+                    rejected.add(new JournalExceptionItem(journal, sequences.get(result.index()), request.loanId(),
+                            request.amount(), request.paymentDate(), result.error()));
+                }
+            }
+            journalExceptionRepository.saveAll(rejected);
+            checkpointRepository.advance(journal, sequences.get(sequences.size() - 1));
+            return results;
+        });
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<JournalExceptionItem> getJournalExceptions(String journal, Long cursor, Integer size) {
+        int pageSize = CursorPage.clampSize(size);
+        List<JournalExceptionItem> rows = journalExceptionRepository.findPageAfter(journal,
+                CursorPage.startAfter(cursor), Limit.of(pageSize + 1));
+        return CursorPage.of(rows, pageSize, JournalExceptionItem::getId);
+    }
+
+    private List<BulkPaymentResult> postBulk(List<BulkPaymentRequest> requests) {
+        BulkPaymentResult[] results = new BulkPaymentResult[requests.size()];
+
+        // Validate rows up front and group the valid ones by loan, preserving upload order; a
+        // reference seen earlier in the same upload is a duplicate like one already posted
+        Map<Long, List<Integer>> rowsByLoan = new LinkedHashMap<>();
+        Set<String> references = new HashSet<>();
+        LocalDate today = LocalDate.now();
+        for (int i = 0; i < requests.size(); i++) {
+            BulkPaymentRequest request = requests.get(i);
+            String error = validate(request, today);
+            if (error != null) {
+                results[i] = BulkPaymentResult.rejected(i, request.loanId(), error);
+            } else if (request.reference() != null && !references.add(request.reference())) {
+                results[i] = BulkPaymentResult.duplicate(i, request.loanId());
+            } else {
+                rowsByLoan.computeIfAbsent(request.loanId(), id -> new ArrayList<>()).add(i);
+            }
+        }
 
-        // Add payment to loan's payment list
-        loan.getPayments().add(savedPayment);
+        List<Long> loanIds = new ArrayList<>(rowsByLoan.keySet());
+        for (int from = 0; from < loanIds.size(); from += BULK_LOAN_CHUNK) {
+            List<Long> chunk = loanIds.subList(from, Math.min(from + BULK_LOAN_CHUNK, loanIds.size()));
+            postChunk(chunk, rowsByLoan, requests, results);
+        }
 
-        // Calculate total paid so far
-        BigDecimal totalPaid = loan.getPayments().stream()
-                .map(Payment::getAmount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        return Arrays.asList(results);
+    }
 
-        // Calculate total due (principal + interest)
-        BigDecimal interestAmount = loan.getPrincipalAmount()
-                .multiply(loan.getInterestRate())
-                .divide(BigDecimal.valueOf(100), 2, RoundingMode.HALF_UP);
-        BigDecimal totalDue = loan.getPrincipalAmount().add(interestAmount);
+    private void postChunk(List<Long> loanIds, Map<Long, List<Integer>> rowsByLoan,
+                           List<BulkPaymentRequest> requests, BulkPaymentResult[] results) {
+        Map<Long, Loan> loans = loanRepository.findAllById(loanIds).stream()
+                .collect(Collectors.toMap(Loan::getId, Function.identity()));
+        Set<String> posted = postedReferences(loanIds, rowsByLoan, requests);
 
-        // If fully paid, update status
-        if (totalPaid.compareTo(totalDue) >= 0) {
-            loan.setStatus(Loan.LoanStatus.PAID);
-            loanRepository.save(loan); // update loan status
+        List<Payment> payments = new ArrayList<>();
+        List<Integer> paymentRows = new ArrayList<>();
+        for (Long loanId : loanIds) {
+            Loan loan = loans.get(loanId);
+            for (Integer row : rowsByLoan.get(loanId)) {
+                BulkPaymentRequest request = requests.get(row);
+                if (loan == null) {
+                    results[row] = BulkPaymentResult.rejected(row, loanId, "Loan not found with id: " + loanId);
+                } else if (request.reference() != null && posted.contains(request.reference())) {
+                    results[row] = BulkPaymentResult.duplicate(row, loanId);
+                } else if (loan.getStatus() == Loan.LoanStatus.PAID) {
+                    results[row] = BulkPaymentResult.rejected(row, loanId, "Loan is already paid");
+                } else {
+                    Payment payment = new Payment();
+                    payment.setAmount(request.amount());
+                    payment.setPaymentDate(request.paymentDate() != null ? request.paymentDate() : LocalDate.now());
+                    payment.setStatementReference(request.reference());
+                    loan.applyPayment(payment);
+                    payments.add(payment);
+                    paymentRows.add(row);
+                }
+            }
         }
 
-        return savedPayment;
+        // Ids come from the pooled generator, so these inserts go out as JDBC batches;
+        // each loan's ledger and status is written once by the flush
+        paymentRepository.saveAll(payments);
+        entityManager.flush();
+        if (!loans.isEmpty()) {
+            // One grouped read against the flushed totals, then set on the managed loans
+            Map<Long, LocalDate> dueDates = new HashMap<>();
+            for (LoanDueDate due : installmentRepository.findNextDueDates(loans.keySet())) {
+                dueDates.put(due.loanId(), due.dueDate());
+            }
+            loans.values().forEach(loan -> loan.updateNextPaymentDate(dueDates.get(loan.getId())));
+            entityManager.flush();
+            snapshotCache.evictAll(loans.keySet());
+            parAgingService.refresh(loans.keySet());
+        }
+
+        for (int i = 0; i < payments.size(); i++) {
+            int row = paymentRows.get(i);
+            results[row] = BulkPaymentResult.posted(row, requests.get(row).loanId(), payments.get(i).getId());
+        }
+        entityManager.clear();
+    }
+
+    // The chunk's references that already have a payment; read in the posting transaction, and
+    // the unique key catches anything posted concurrently in between
+    private Set<String> postedReferences(List<Long> loanIds, Map<Long, List<Integer>> rowsByLoan,
+                                         List<BulkPaymentRequest> requests) {
+        List<String> references = new ArrayList<>();
+        for (Long loanId : loanIds) {
+            for (Integer row : rowsByLoan.get(loanId)) {
+                if (requests.get(row).reference() != null) {
+                    references.add(requests.get(row).reference());
+                }
+            }
+        }
+        return references.isEmpty() ? Set.of() : new HashSet<>(paymentRepository.findPostedReferences(references));
+    }
+
+    private Long loanIdOf(Long paymentId) {
+        return paymentRepository.findLoanIdById(paymentId).orElseThrow(() -> paymentNotWritable(paymentId));
     }
 
+    // First installment the loan's in-memory total paid does not cover yet
+    private LocalDate nextDueDate(Loan loan) {
+        return installmentRepository
+                .findFirstByLoanIdAndCumulativeDueGreaterThanOrderByInstallmentNumberAsc(loan.getId(), loan.getTotalPaid())
+                .map(Installment::getDueDate)
+                .orElse(null);
+    }
+
+    private String validate(BulkPaymentRequest request, LocalDate today) {
+        if (request.loanId() == null) {
+            return "Loan reference is required";
+        }
+        if (request.amount() == null || request.amount().compareTo(BigDecimal.ZERO) <= 0) {
+            return "Amount must be positive";
+        }
+        if (request.amount().scale() > 2) {
+            return "Amount must have at most 2 decimal places";
+        }
+        if (request.paymentDate() != null && request.paymentDate().isAfter(today)) {
+            return "Payment date cannot be in the future";
+        }
+        if (request.reference() != null && request.reference().length() > 100) {
+            return "Reference must be at most 100 characters";
+        }
+        return null;
+    }
+
+    // Edits go through the same per-loan stripe and version retry as postings
     @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public Payment updatePayment(Long id, Payment payment) {
-        Payment existing = getPaymentById(id);
+        return writeCoordinator.execute(loanIdOf(id), () -> amendPayment(id, payment));
+    }
+
+    private Payment amendPayment(Long id, Payment payment) {
+        Payment existing = getPaymentForUpdate(id);
         existing.setAmount(payment.getAmount());
         existing.setPaymentDate(payment.getPaymentDate());
-        return paymentRepository.save(existing);
+        Payment saved = paymentRepository.save(existing);
+
+        // Amount edits are rare, so re-derive the ledger from history rather than reversing allocations
+        existing.getLoan().rebuildLedger();
+        existing.getLoan().updateNextPaymentDate(nextDueDate(existing.getLoan()));
+        Long loanId = existing.getLoan().getId();
+        loanRepository.save(existing.getLoan());
+        snapshotCache.evict(loanId);
+        parAgingService.refresh(List.of(loanId));
+        return saved;
     }
 
     @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public void deletePayment(Long id) {
-        paymentRepository.deleteById(id);
+        writeCoordinator.execute(loanIdOf(id), () -> {
+            removePayment(id);
+            return null;
+        });
+    }
+
+    private void removePayment(Long id) {
+        Payment existing = getPaymentForUpdate(id);
+        Loan loan = existing.getLoan();
+        loan.getPayments().remove(existing);
+        paymentRepository.delete(existing);
+
+        loan.rebuildLedger();
+        loan.updateNextPaymentDate(nextDueDate(loan));
+        loanRepository.save(loan);
+        snapshotCache.evict(loan.getId());
+        parAgingService.refresh(List.of(loan.getId()));
     }
 }
\ No newline at end of file
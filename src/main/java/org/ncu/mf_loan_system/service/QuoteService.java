@@ -0,0 +1,10 @@
+package org.ncu.mf_loan_system.service;
+
+import org.ncu.mf_loan_system.dto.EmiQuote;
+import org.ncu.mf_loan_system.dto.QuoteGridRequest;
+
+import java.util.List;
+
+public interface QuoteService {
+    List<EmiQuote> quoteGrid(QuoteGridRequest request);
+}
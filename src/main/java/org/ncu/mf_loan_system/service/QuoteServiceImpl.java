@@ -0,0 +1,109 @@
+package org.ncu.mf_loan_system.service;
+
+import org.ncu.mf_loan_system.dto.EmiQuote;
+import org.ncu.mf_loan_system.dto.QuoteGridRequest;
+import org.ncu.mf_loan_system.entities.Loan;
+import org.ncu.mf_loan_system.exception.InvalidLoanParametersException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Service
+public class QuoteServiceImpl implements QuoteService {
+
+    private static final Logger logger = LoggerFactory.getLogger(QuoteServiceImpl.class);
+
+    static final int MAX_SCENARIOS = 100_000;
+    // (1+r)^n is exact, so its scale grows by 10 digits per month of tenor; 50 years bounds the cost
+    static final int MAX_TENOR_MONTHS = 600;
+    // Same bounds as a booked Loan (@Digits(integer = 10, fraction = 2), @DecimalMax("100.0"))
+    private static final BigDecimal MAX_AMOUNT = new BigDecimal("9999999999.99");
+    private static final BigDecimal MAX_RATE = BigDecimal.valueOf(100);
+    private static final int MAX_CACHED_FACTORS = 10_000;
+
+    // (1+r)^n depends only on rate and tenor, so it is shared by every amount in a grid
+    // and across requests; rates and tenors offered in practice are a small set
+    private final Map<FactorKey, Factor> factors = new ConcurrentHashMap<>();
+
+    private record FactorKey(BigDecimal rate, int months) {}
+
+    private record Factor(BigDecimal monthlyRate, BigDecimal growth) {}
+
+    private record Scenario(BigDecimal amount, BigDecimal rate, int months) {}
+
+    @Override
+    public List<EmiQuote> quoteGrid(QuoteGridRequest request) {
+        List<Scenario> scenarios = expand(request);
+        logger.info("Quoting {} EMI scenarios", scenarios.size());
+
+        return scenarios.parallelStream()
+                .map(this::quote)
+                .toList();
+    }
+
+    private List<Scenario> expand(QuoteGridRequest request) {
+        if (request.amounts() == null || request.rates() == null || request.tenors() == null
+                || request.amounts().isEmpty() || request.rates().isEmpty() || request.tenors().isEmpty()) {
+            throw new InvalidLoanParametersException("Amounts, rates and tenors are all required");
+        }
+        long size = (long) request.amounts().size() * request.rates().size() * request.tenors().size();
+        if (size > MAX_SCENARIOS) {
+            throw new InvalidLoanParametersException("A quote grid is limited to " + MAX_SCENARIOS + " scenarios");
+        }
+
+        List<Scenario> scenarios = new ArrayList<>((int) size);
+        for (BigDecimal amount : request.amounts()) {
+            if (amount == null || amount.signum() <= 0) {
+                throw new InvalidLoanParametersException("Principal amount must be positive");
+            }
+            if (amount.compareTo(MAX_AMOUNT) > 0 || amount.scale() > 2) {
+                throw new InvalidLoanParametersException("Principal amount must be at most " + MAX_AMOUNT
+                        + " with at most 2 decimal places");
+            }
+            for (BigDecimal rate : request.rates()) {
+                if (rate == null || rate.signum() <= 0 || rate.compareTo(MAX_RATE) > 0) {
+                    throw new InvalidLoanParametersException("Interest rate must be between 0 and 100");
+                }
+                for (Integer tenor : request.tenors()) {
+                    if (tenor == null || tenor <= 0 || tenor > MAX_TENOR_MONTHS) {
+                        throw new InvalidLoanParametersException("Tenor must be between 1 and "
+                                + MAX_TENOR_MONTHS + " months");
+                    }
+                    scenarios.add(new Scenario(amount, rate, tenor));
+                }
+            }
+        }
+        return scenarios;
+    }
+
+    private EmiQuote quote(Scenario scenario) {
+        Factor factor = factorFor(scenario.rate(), scenario.months());
+        BigDecimal emi = Loan.emi(scenario.amount(), factor.monthlyRate(), factor.growth());
+        // Summed like the booked schedule, whose last installment absorbs the rounding of the others
+        BigDecimal totalInterest = Loan.scheduledInterest(scenario.amount(), factor.monthlyRate(), emi, scenario.months());
+        return new EmiQuote(scenario.amount(), scenario.rate(), scenario.months(), emi,
+                scenario.amount().add(totalInterest), totalInterest);
+    }
+
+    private Factor factorFor(BigDecimal rate, int months) {
+        // stripTrailingZeros so 12 and 12.00 share an entry
+        FactorKey key = new FactorKey(rate.stripTrailingZeros(), months);
+        Factor cached = factors.get(key);
+        if (cached != null) {
+            return cached;
+        }
+        if (factors.size() >= MAX_CACHED_FACTORS) {
+            factors.clear();
+        }
+        return factors.computeIfAbsent(key, k -> {
+            BigDecimal monthlyRate = Loan.monthlyRate(rate);
+            return new Factor(monthlyRate, Loan.growthFactor(monthlyRate, months));
+        });
+    }
+}
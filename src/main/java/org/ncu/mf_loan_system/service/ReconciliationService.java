@@ -0,0 +1,15 @@
+package org.ncu.mf_loan_system.service;
+
+import org.ncu.mf_loan_system.dto.CursorPage;
+import org.ncu.mf_loan_system.dto.ReconciliationReport;
+import org.ncu.mf_loan_system.entities.ReconciliationExceptionItem;
+
+import java.io.InputStream;
+
+public interface ReconciliationService {
+    ReconciliationReport reconcile(InputStream statement, String fileName);
+    ReconciliationReport resume(Long reconciliationId, InputStream statement);
+    ReconciliationReport getReconciliation(Long reconciliationId);
+    CursorPage<ReconciliationExceptionItem> getExceptions(Long reconciliationId, Long cursor, Integer size,
+                                                         ReconciliationExceptionItem.Reason reason);
+}
@@ -0,0 +1,430 @@
+package org.ncu.mf_loan_system.service;
+
+import org.ncu.mf_loan_system.config.ReadRouting;
+import org.ncu.mf_loan_system.config.ReconciliationProperties;
+import org.ncu.mf_loan_system.dto.BulkPaymentRequest;
+import org.ncu.mf_loan_system.dto.BulkPaymentResult;
+import org.ncu.mf_loan_system.dto.CursorPage;
+import org.ncu.mf_loan_system.dto.LoanMatchKey;
+import org.ncu.mf_loan_system.dto.ReconciliationReport;
+import org.ncu.mf_loan_system.entities.Loan;
+import org.ncu.mf_loan_system.entities.ReconciliationExceptionItem;
+import org.ncu.mf_loan_system.entities.ReconciliationExceptionItem.Reason;
+import org.ncu.mf_loan_system.entities.StatementReconciliation;
+import org.ncu.mf_loan_system.exception.ResourceNotFoundException;
+import org.ncu.mf_loan_system.repository.LoanRepository;
+import org.ncu.mf_loan_system.repository.ReconciliationExceptionItemRepository;
+import org.ncu.mf_loan_system.repository.StatementReconciliationRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.*;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.*;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReference;
+
+// Matches a settlement file against open loans and posts the matches as repayments. The
+// file is streamed line by line against a LoanMatchIndex built up front; matched lines are
+// posted through PaymentService.createPayments in batches by a few parallel workers, and
+// everything that does not become a payment is written to reconciliation_exceptions. Each
+// payment keeps the line's reference under a unique key, so a line whose reference was
+// already posted is skipped; that is also what lets a failed run be resumed from the top
+// of the same file.
+@Service
+@Transactional(readOnly = true)
+public class ReconciliationServiceImpl implements ReconciliationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReconciliationServiceImpl.class);
+
+    static final String REFERENCE = "reference";
+    static final String LOAN_REFERENCE = "loan_reference";
+    static final String PHONE = "phone";
+    static final String AMOUNT = "amount";
+    static final String VALUE_DATE = "value_date";
+
+    private static final List<Loan.LoanStatus> OPEN_STATUSES =
+            List.of(Loan.LoanStatus.ACTIVE, Loan.LoanStatus.OVERDUE, Loan.LoanStatus.DEFAULTED);
+
+    // A matched line on its way to a posting worker
+    private record Line(long lineNumber, String reference, String loanReference, String phone,
+                        BulkPaymentRequest request) {
+    }
+
+    private final StatementReconciliationRepository reconciliationRepository;
+    private final ReconciliationExceptionItemRepository exceptionRepository;
+    private final LoanRepository loanRepository;
+    private final PaymentService paymentService;
+    private final ReconciliationProperties properties;
+    private final TransactionTemplate transactionTemplate;
+
+    public ReconciliationServiceImpl(StatementReconciliationRepository reconciliationRepository,
+                                     ReconciliationExceptionItemRepository exceptionRepository,
+                                     LoanRepository loanRepository, PaymentService paymentService,
+                                     ReconciliationProperties properties,
+                                     PlatformTransactionManager transactionManager) {
+        this.reconciliationRepository = reconciliationRepository;
+        this.exceptionRepository = exceptionRepository;
+        this.loanRepository = loanRepository;
+        this.paymentService = paymentService;
+        this.properties = properties;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    // Each posting batch commits on its own, so there is no transaction around the whole file
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public ReconciliationReport reconcile(InputStream statement, String fileName) {
+        Long runId = transactionTemplate.execute(status ->
+                reconciliationRepository.save(new StatementReconciliation(fileName))).getId();
+        return run(runId, statement, 0);
+    }
+
+    // Re-reads the file from the top: exceptions are recorded again only past the committed
+    // position, and matched lines are all handed to the bulk path, which skips the ones whose
+    // reference was posted before the failure
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public ReconciliationReport resume(Long reconciliationId, InputStream statement) {
+        LocalDateTime now = LocalDateTime.now();
+        int claimed = transactionTemplate.execute(status ->
+                reconciliationRepository.resume(reconciliationId, now.minus(properties.getStaleAfter()), now));
+        StatementReconciliation run = ReadRouting.onPrimary(() -> findReconciliation(reconciliationId));
+        if (claimed == 0) {
+            throw new IllegalStateException("Reconciliation " + reconciliationId + " is " + run.getStatus()
+                    + "; only a failed or stalled run can be resumed");
+        }
+        logger.info("Reconciliation {}: resuming after line {}", reconciliationId, run.getLinesRead());
+        return run(reconciliationId, statement, run.getLinesRead());
+    }
+
+    private ReconciliationReport run(Long runId, InputStream statement, long resumeAfter) {
+        long started = System.currentTimeMillis();
+
+        // The index must see loans disbursed moments ago, so it is never read from a replica
+        LoanMatchIndex index = ReadRouting.onPrimary(this::buildIndex);
+        transactionTemplate.executeWithoutResult(tx ->
+                reconciliationRepository.indexed(runId, index.size(), LocalDateTime.now()));
+        logger.info("Reconciliation {}: indexed {} open loans in {} ms", runId, index.size(),
+                System.currentTimeMillis() - started);
+
+        long linesRead = 0;
+        try {
+            linesRead = readAndPost(runId, statement, index, resumeAfter);
+            setStatus(runId, StatementReconciliation.RunStatus.COMPLETED, null);
+        } catch (IOException | RuntimeException e) {
+            logger.error("Reconciliation {} failed after line {}", runId, linesRead, e);
+            setStatus(runId, StatementReconciliation.RunStatus.FAILED, e.getMessage() != null ? e.getMessage() : e.toString());
+        }
+
+        ReconciliationReport report = ReadRouting.onPrimary(() -> getReconciliation(runId));
+        logger.info("Reconciliation {} {}: {} lines, {} posted ({}), {} exceptions ({} ms)", runId, report.status(),
+                report.linesRead(), report.posted(), report.amountPosted(), report.exceptions(),
+                System.currentTimeMillis() - started);
+        return report;
+    }
+
+    // Matched lines are split by loan id across the posting workers, each draining its own
+    // queue in file order: a loan's payments stay in sequence, and workers never post to the
+    // same loan, so their bulk transactions do not conflict with each other. The bounded
+    // queues keep memory flat however far the reader gets ahead. Exceptions up to resumeAfter
+    // were written by an earlier attempt and are not recorded again.
+    private long readAndPost(Long runId, InputStream statement, LoanMatchIndex index, long resumeAfter)
+            throws IOException {
+        int workers = Math.max(1, properties.getPostingThreads());
+        int batchSize = Math.min(properties.getPostingBatchSize(), PaymentServiceImpl.MAX_BULK_ROWS);
+        AtomicReference<RuntimeException> failure = new AtomicReference<>();
+        List<BlockingQueue<List<Line>>> queues = new ArrayList<>(workers);
+        List<List<Line>> pending = new ArrayList<>(workers);
+        for (int i = 0; i < workers; i++) {
+            queues.add(new ArrayBlockingQueue<>(2));
+            pending.add(new ArrayList<>(batchSize));
+        }
+
+        List<ReconciliationExceptionItem> exceptions = new ArrayList<>();
+        long lineNumber = 0;
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (BlockingQueue<List<Line>> queue : queues) {
+                executor.submit(() -> drain(runId, queue, resumeAfter > 0, failure));
+            }
+            try (Reader reader = new BufferedReader(new InputStreamReader(statement, StandardCharsets.UTF_8), 64 * 1024)) {
+                CsvRecordReader records = new CsvRecordReader(reader);
+                Map<String, Integer> columns = readHeader(records.next());
+
+                List<String> record;
+                while ((record = records.next()) != null) {
+                    lineNumber++;
+                    String reference = field(record, columns, REFERENCE);
+                    String loanReference = field(record, columns, LOAN_REFERENCE);
+                    String phone = field(record, columns, PHONE);
+
+                    ReconciliationExceptionItem exception = null;
+                    BigDecimal amount = null;
+                    LocalDate valueDate = null;
+                    try {
+                        if (reference == null) {
+                            throw new IllegalArgumentException(REFERENCE + " is required");
+                        }
+                        amount = amount(field(record, columns, AMOUNT));
+                        valueDate = date(field(record, columns, VALUE_DATE));
+                    } catch (IllegalArgumentException e) {
+                        amount = null;
+                        exception = new ReconciliationExceptionItem(runId, lineNumber, Reason.UNREADABLE,
+                                e.getMessage(), reference, loanReference, phone, null, null, null);
+                    }
+
+                    if (amount != null) {
+                        LoanMatchIndex.Match match = index.match(loanReference, phone, amount);
+                        if (match.matched()) {
+                            int worker = (int) Math.floorMod(match.loanId(), (long) workers);
+                            List<Line> batch = pending.get(worker);
+                            batch.add(new Line(lineNumber, reference, loanReference, phone,
+                                    new BulkPaymentRequest(match.loanId(), amount, valueDate, reference)));
+                            if (batch.size() == batchSize) {
+                                handOff(queues.get(worker), batch, failure);
+                                pending.set(worker, new ArrayList<>(batchSize));
+                                // Moves the committed position on even when the file has few exceptions
+                                if (lineNumber > resumeAfter) {
+                                    saveExceptions(runId, lineNumber, exceptions);
+                                }
+                            }
+                        } else {
+                            exception = new ReconciliationExceptionItem(runId, lineNumber, match.reason(),
+                                    match.message(), reference, loanReference, phone, amount, valueDate, null);
+                        }
+                    }
+                    if (exception != null && lineNumber > resumeAfter) {
+                        exceptions.add(exception);
+                    }
+                    if (exceptions.size() == batchSize) {
+                        saveExceptions(runId, lineNumber, exceptions);
+                    }
+                }
+                for (int i = 0; i < workers; i++) {
+                    if (!pending.get(i).isEmpty()) {
+                        handOff(queues.get(i), pending.get(i), failure);
+                    }
+                }
+                if (lineNumber > resumeAfter) {
+                    saveExceptions(runId, lineNumber, exceptions);
+                }
+            } finally {
+                // An empty batch tells a worker to stop; sent even on failure so close() can return
+                for (BlockingQueue<List<Line>> queue : queues) {
+                    putUninterruptibly(queue, List.of());
+                }
+            }
+        }
+        if (failure.get() != null) {
+            throw failure.get();
+        }
+        return lineNumber;
+    }
+
+    private void drain(Long runId, BlockingQueue<List<Line>> queue, boolean resumed,
+                       AtomicReference<RuntimeException> failure) {
+        while (true) {
+            List<Line> batch;
+            try {
+                batch = queue.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                failure.compareAndSet(null, new IllegalStateException("Reconciliation posting was interrupted"));
+                return;
+            }
+            if (batch.isEmpty()) {
+                return;
+            }
+            // After a failure keep taking batches, so the reader is never left blocked on a full queue
+            if (failure.get() == null) {
+                try {
+                    post(runId, batch, resumed);
+                } catch (RuntimeException e) {
+                    failure.compareAndSet(null, e);
+                }
+            }
+        }
+    }
+
+    private static void handOff(BlockingQueue<List<Line>> queue, List<Line> batch,
+                                AtomicReference<RuntimeException> failure) {
+        if (failure.get() != null) {
+            throw failure.get();
+        }
+        putUninterruptibly(queue, batch);
+    }
+
+    private static void putUninterruptibly(BlockingQueue<List<Line>> queue, List<Line> batch) {
+        boolean interrupted = false;
+        while (true) {
+            try {
+                queue.put(batch);
+                break;
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public ReconciliationReport getReconciliation(Long reconciliationId) {
+        StatementReconciliation run = findReconciliation(reconciliationId);
+        List<ReconciliationExceptionItem> exceptions = exceptionRepository.findPageAfter(reconciliationId, 0, null,
+                Limit.of(properties.getReportExceptions()));
+        return ReconciliationReport.of(run, exceptions);
+    }
+
+    @Override
+    public CursorPage<ReconciliationExceptionItem> getExceptions(Long reconciliationId, Long cursor, Integer size,
+                                                                Reason reason) {
+        findReconciliation(reconciliationId);
+        int pageSize = CursorPage.clampSize(size);
+        List<ReconciliationExceptionItem> rows = exceptionRepository.findPageAfter(reconciliationId,
+                CursorPage.startAfter(cursor), reason, Limit.of(pageSize + 1));
+        return CursorPage.of(rows, pageSize, ReconciliationExceptionItem::getId);
+    }
+
+    private StatementReconciliation findReconciliation(Long reconciliationId) {
+        return reconciliationRepository.findById(reconciliationId)
+                .orElseThrow(() -> new ResourceNotFoundException("Reconciliation not found with id: " + reconciliationId));
+    }
+
+    private LoanMatchIndex buildIndex() {
+        LoanMatchIndex index = new LoanMatchIndex(properties.getPhoneMatchDigits());
+        long afterId = 0;
+        List<LoanMatchKey> page;
+        do {
+            page = loanRepository.findMatchKeys(OPEN_STATUSES, afterId, Limit.of(properties.getIndexPageSize()));
+            for (LoanMatchKey key : page) {
+                index.add(key);
+            }
+            if (!page.isEmpty()) {
+                afterId = page.get(page.size() - 1).loanId();
+            }
+        } while (page.size() == properties.getIndexPageSize());
+        return index;
+    }
+
+    // Posts one worker's batch through the bulk payment path; lines whose reference is already
+    // posted are counted as duplicates, other refused lines become exceptions. A resumed run
+    // may be refused again on lines the failed attempt already recorded.
+    private void post(Long runId, List<Line> batch, boolean resumed) {
+        List<BulkPaymentRequest> requests = batch.stream().map(Line::request).toList();
+        List<BulkPaymentResult> results = paymentService.createPayments(requests);
+
+        long posted = 0;
+        long duplicates = 0;
+        BigDecimal amountPosted = BigDecimal.ZERO;
+        List<ReconciliationExceptionItem> rejected = new ArrayList<>();
+        for (BulkPaymentResult result : results) {
+            Line line = batch.get(result.index());
+            BulkPaymentRequest request = line.request();
+            if (result.posted()) {
+                posted++;
+                amountPosted = amountPosted.add(request.amount());
+            } else if (BulkPaymentResult.DUPLICATE_REFERENCE.equals(result.error())) {
+                duplicates++;
+            } else {
+                rejected.add(new ReconciliationExceptionItem(runId, line.lineNumber(), Reason.REJECTED,
+                        result.error(), line.reference(), line.loanReference(), line.phone(),
+                        request.amount(), request.paymentDate(), request.loanId()));
+            }
+        }
+
+        long postedCount = posted;
+        long duplicateCount = duplicates;
+        BigDecimal amount = amountPosted;
+        transactionTemplate.executeWithoutResult(tx -> {
+            if (resumed && !rejected.isEmpty()) {
+                Set<Long> recorded = new HashSet<>(exceptionRepository.findLineNumbers(runId,
+                        rejected.stream().map(ReconciliationExceptionItem::getLineNumber).toList()));
+                rejected.removeIf(item -> recorded.contains(item.getLineNumber()));
+            }
+            exceptionRepository.saveAll(rejected);
+            reconciliationRepository.advance(runId, postedCount, amount, duplicateCount, rejected.size(),
+                    LocalDateTime.now());
+        });
+    }
+
+    // Unmatched and unreadable lines, written from the reading thread along with its position
+    private void saveExceptions(Long runId, long linesRead, List<ReconciliationExceptionItem> exceptions) {
+        transactionTemplate.executeWithoutResult(tx -> {
+            exceptionRepository.saveAll(exceptions);
+            reconciliationRepository.read(runId, linesRead, exceptions.size(), LocalDateTime.now());
+        });
+        exceptions.clear();
+    }
+
+    private void setStatus(Long runId, StatementReconciliation.RunStatus status, String error) {
+        String message = error != null && error.length() > 1000 ? error.substring(0, 1000) : error;
+        transactionTemplate.executeWithoutResult(tx ->
+                reconciliationRepository.finish(runId, status, message, LocalDateTime.now()));
+    }
+
+    private static Map<String, Integer> readHeader(List<String> header) throws IOException {
+        if (header == null) {
+            throw new IOException("Statement file is empty");
+        }
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            columns.put(header.get(i).trim().toLowerCase(Locale.ROOT), i);
+        }
+        for (String required : List.of(REFERENCE, AMOUNT)) {
+            if (!columns.containsKey(required)) {
+                throw new IOException("Statement header is missing column: " + required);
+            }
+        }
+        if (!columns.containsKey(LOAN_REFERENCE) && !columns.containsKey(PHONE)) {
+            throw new IOException("Statement header needs a " + LOAN_REFERENCE + " or " + PHONE + " column");
+        }
+        return columns;
+    }
+
+    private static String field(List<String> record, Map<String, Integer> columns, String column) {
+        Integer index = columns.get(column);
+        if (index == null || index >= record.size()) {
+            return null;
+        }
+        String value = record.get(index).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    private static BigDecimal amount(String value) {
+        if (value == null) {
+            throw new IllegalArgumentException(AMOUNT + " is required");
+        }
+        try {
+            return new BigDecimal(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(AMOUNT + ": not a number");
+        }
+    }
+
+    // Optional; the bulk payment path books undated lines for today
+    private static LocalDate date(String value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return LocalDate.parse(value);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException(VALUE_DATE + ": expected yyyy-MM-dd");
+        }
+    }
+}
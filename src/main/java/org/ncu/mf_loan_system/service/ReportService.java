@@ -0,0 +1,15 @@
+package org.ncu.mf_loan_system.service;
+
+import org.ncu.mf_loan_system.dto.CursorPage;
+import org.ncu.mf_loan_system.dto.PortfolioSnapshot;
+import org.ncu.mf_loan_system.entities.Loan;
+import org.ncu.mf_loan_system.entities.LoanDailySnapshot;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface ReportService {
+    PortfolioSnapshot getPortfolioSnapshot(LocalDate date);
+    CursorPage<LoanDailySnapshot> getLoanSnapshots(LocalDate date, Long cursor, Integer size, Loan.LoanStatus status);
+    List<LoanDailySnapshot> getLoanHistory(Long loanId, LocalDate from, LocalDate to);
+}
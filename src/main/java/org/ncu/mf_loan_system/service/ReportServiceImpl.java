@@ -0,0 +1,91 @@
+package org.ncu.mf_loan_system.service;
+
+import org.ncu.mf_loan_system.dto.CursorPage;
+import org.ncu.mf_loan_system.dto.PortfolioSnapshot;
+import org.ncu.mf_loan_system.entities.Loan;
+import org.ncu.mf_loan_system.entities.LoanDailySnapshot;
+import org.ncu.mf_loan_system.entities.PortfolioDailySnapshot;
+import org.ncu.mf_loan_system.exception.ResourceNotFoundException;
+import org.ncu.mf_loan_system.repository.LoanDailySnapshotRepository;
+import org.ncu.mf_loan_system.repository.PortfolioDailySnapshotRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+// Reporting reads come only from the nightly snapshot tables (PortfolioSnapshotJob), never
+// the live loans/payments tables, and run read-only so a configured replica serves them
+@Service
+@Transactional(readOnly = true)
+public class ReportServiceImpl implements ReportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReportServiceImpl.class);
+
+    private final LoanDailySnapshotRepository loanSnapshotRepository;
+    private final PortfolioDailySnapshotRepository portfolioSnapshotRepository;
+
+    public ReportServiceImpl(LoanDailySnapshotRepository loanSnapshotRepository,
+                             PortfolioDailySnapshotRepository portfolioSnapshotRepository) {
+        this.loanSnapshotRepository = loanSnapshotRepository;
+        this.portfolioSnapshotRepository = portfolioSnapshotRepository;
+    }
+
+    @Override
+    public PortfolioSnapshot getPortfolioSnapshot(LocalDate date) {
+        LocalDate day = resolveDate(date);
+        logger.info("Fetching portfolio snapshot for {}", day);
+
+        Map<Loan.LoanStatus, PortfolioSnapshot.StatusBreakdown> byStatus = new EnumMap<>(Loan.LoanStatus.class);
+        long loanCount = 0;
+        long pastDueCount = 0;
+        BigDecimal disbursed = BigDecimal.ZERO;
+        BigDecimal collected = BigDecimal.ZERO;
+        BigDecimal outstanding = BigDecimal.ZERO;
+        for (PortfolioDailySnapshot row : portfolioSnapshotRepository.findBySnapshotDate(day)) {
+            byStatus.put(row.getStatus(), new PortfolioSnapshot.StatusBreakdown(row.getLoanCount(),
+                    row.getPastDueCount(), row.getDisbursed(), row.getCollected(), row.getOutstanding()));
+            loanCount += row.getLoanCount();
+            pastDueCount += row.getPastDueCount();
+            disbursed = disbursed.add(row.getDisbursed());
+            collected = collected.add(row.getCollected());
+            outstanding = outstanding.add(row.getOutstanding());
+        }
+        return new PortfolioSnapshot(day, loanCount, pastDueCount, disbursed, collected, outstanding, byStatus);
+    }
+
+    @Override
+    public CursorPage<LoanDailySnapshot> getLoanSnapshots(LocalDate date, Long cursor, Integer size,
+                                                          Loan.LoanStatus status) {
+        LocalDate day = resolveDate(date);
+        int pageSize = CursorPage.clampSize(size);
+        List<LoanDailySnapshot> rows = loanSnapshotRepository.findPageAfter(day, CursorPage.startAfter(cursor),
+                status, Limit.of(pageSize + 1));
+        return CursorPage.of(rows, pageSize, LoanDailySnapshot::getLoanId);
+    }
+
+    @Override
+    public List<LoanDailySnapshot> getLoanHistory(Long loanId, LocalDate from, LocalDate to) {
+        LocalDate through = to != null ? to : resolveDate(null);
+        LocalDate since = from != null ? from : through.minusDays(30);
+        return loanSnapshotRepository.findHistory(loanId, since, through);
+    }
+
+    // Latest snapshot when no date is given
+    private LocalDate resolveDate(LocalDate date) {
+        if (date != null) {
+            return date;
+        }
+        LocalDate latest = portfolioSnapshotRepository.findLatestDate();
+        if (latest == null) {
+            throw new ResourceNotFoundException("No portfolio snapshot has been taken yet");
+        }
+        return latest;
+    }
+}
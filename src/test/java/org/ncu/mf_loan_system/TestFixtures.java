@@ -0,0 +1,40 @@
+package org.ncu.mf_loan_system;
+
+import org.ncu.mf_loan_system.entities.Client;
+import org.ncu.mf_loan_system.entities.Loan;
+import org.ncu.mf_loan_system.service.ClientService;
+import org.ncu.mf_loan_system.service.LoanService;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+// Clients and loans for the tests on the shared "test" profile database; client names (and so
+// emails) must be unique across test classes
+public final class TestFixtures {
+
+    private TestFixtures() {
+    }
+
+    public static Client newClient(ClientService clientService, String name) {
+        return newClient(clientService, name, name + "@example.com", "+1234567890");
+    }
+
+    public static Client newClient(ClientService clientService, String name, String email, String phone) {
+        Client client = new Client();
+        client.setName(name);
+        client.setEmail(email);
+        client.setPhone(phone);
+        return clientService.createClient(client);
+    }
+
+    // A twelve-month loan at 12%
+    public static Loan newLoan(LoanService loanService, Client client, long principal, LocalDate startDate) {
+        Loan loan = new Loan();
+        loan.setClient(client);
+        loan.setPrincipalAmount(BigDecimal.valueOf(principal));
+        loan.setInterestRate(new BigDecimal("12"));
+        loan.setStartDate(startDate);
+        loan.setEndDate(startDate.plusMonths(12));
+        return loanService.createLoan(loan);
+    }
+}
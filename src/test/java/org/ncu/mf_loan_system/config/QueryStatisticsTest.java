@@ -0,0 +1,47 @@
+package org.ncu.mf_loan_system.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class QueryStatisticsTest {
+
+    @Test
+    void foldsAnInListOfTenThousandParameters() {
+        String parameters = String.join(", ", Collections.nCopies(10_000, "?"));
+        String sql = "select l.id from loans l where l.id in (" + parameters + ") and l.status = 'ACTIVE'";
+
+        assertEquals("select l.id from loans l where l.id in (?, ...) and l.status = ?",
+                QueryStatistics.normalize(sql));
+    }
+
+    @Test
+    void countsTheStatementsRunThroughTheDataSourceWhileACountIsOpen() {
+        QueryStatistics statistics = new QueryStatistics(new QueryStatsProperties(), new SimpleMeterRegistry());
+        DefaultListableBeanFactory beans = new DefaultListableBeanFactory();
+        beans.registerSingleton("queryStatistics", statistics);
+        StatementTimingDataSource dataSource = new StatementTimingDataSource(
+                new DriverManagerDataSource("jdbc:h2:mem:querystats;DB_CLOSE_DELAY=-1", "sa", ""),
+                beans.getBeanProvider(QueryStatistics.class));
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("CREATE TABLE counted (id BIGINT)");
+
+        statistics.startCount();
+        jdbc.batchUpdate("INSERT INTO counted (id) VALUES (?)", List.of(new Object[]{1L}, new Object[]{2L}));
+        jdbc.queryForObject("SELECT COUNT(*) FROM counted WHERE id > ?", Long.class, 0L);
+        jdbc.execute("DELETE FROM counted");
+        assertEquals(3, statistics.stopCount());
+
+        // Outside a count statements still feed the shapes, but nobody is counting them
+        jdbc.execute("DROP TABLE counted");
+        assertEquals(0, statistics.stopCount());
+        assertEquals(5, statistics.getShapeCount());
+    }
+}
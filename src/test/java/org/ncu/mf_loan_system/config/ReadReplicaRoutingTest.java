@@ -0,0 +1,112 @@
+package org.ncu.mf_loan_system.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.Test;
+import org.ncu.mf_loan_system.LoanManagementApplication;
+import org.ncu.mf_loan_system.TestFixtures;
+import org.ncu.mf_loan_system.entities.Client;
+import org.ncu.mf_loan_system.entities.Loan;
+import org.ncu.mf_loan_system.service.ClientService;
+import org.ncu.mf_loan_system.service.LoanService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// Two in-memory H2 databases stand in for the primary (the test profile's database) and the
+// replica. The replica is seeded from a copy of the primary and then given a different loan
+// status, so each read shows which database served it.
+@SpringBootTest(classes = LoanManagementApplication.class, webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {
+                "datasource.replica.url=jdbc:h2:mem:replica;MODE=MySQL;DB_CLOSE_DELAY=-1",
+                "datasource.replica.username=sa",
+                "datasource.replica.password="
+        })
+@ActiveProfiles("test")
+class ReadReplicaRoutingTest {
+
+    @Autowired
+    private LoanService loanService;
+
+    @Autowired
+    private ClientService clientService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    @Qualifier("replicaDataSource")
+    private HikariDataSource replicaDataSource;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Test
+    void routesReadsToReplicaAndWritesToPrimary() throws Exception {
+        Long loanId = createLoan();
+        JdbcTemplate replica = replicateAndMark(loanId);
+
+        // Read-only transaction: served by the replica
+        assertEquals(Loan.LoanStatus.DEFAULTED, loanService.getLoanById(loanId).getStatus());
+
+        // Pinned reads and the request header both go to the primary
+        assertEquals(Loan.LoanStatus.ACTIVE, ReadRouting.onPrimary(() -> loanService.getLoanById(loanId)).getStatus());
+        assertEquals("DEFAULTED", getStatus(loanId, false));
+        assertEquals("ACTIVE", getStatus(loanId, true));
+
+        // Writes land on the primary only
+        loanService.processPayment(loanId, new BigDecimal("100.00"));
+        assertEquals(0, new BigDecimal("100.00").compareTo(
+                jdbcTemplate.queryForObject("SELECT total_paid FROM loans WHERE id = ?", BigDecimal.class, loanId)));
+        assertEquals(0, BigDecimal.ZERO.compareTo(
+                replica.queryForObject("SELECT total_paid FROM loans WHERE id = ?", BigDecimal.class, loanId)));
+
+        // Replica gone: reads fall back to the primary instead of failing
+        replicaDataSource.close();
+        assertEquals(Loan.LoanStatus.ACTIVE, loanService.getLoanById(loanId).getStatus());
+
+        loanService.deleteLoan(loanId);
+    }
+
+    private Long createLoan() {
+        Client client = TestFixtures.newClient(clientService, "replica");
+        return TestFixtures.newLoan(loanService, client, 1_000, LocalDate.now()).getId();
+    }
+
+    private JdbcTemplate replicateAndMark(Long loanId) throws Exception {
+        Path dump = Files.createTempFile("primary", ".sql");
+        try {
+            jdbcTemplate.execute("SCRIPT TO '" + dump + "'");
+            JdbcTemplate replica = new JdbcTemplate(replicaDataSource);
+            replica.execute("RUNSCRIPT FROM '" + dump + "'");
+            replica.update("UPDATE loans SET status = 'DEFAULTED' WHERE id = ?", loanId);
+            return replica;
+        } finally {
+            Files.deleteIfExists(dump);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private String getStatus(Long loanId, boolean readYourWrites) {
+        HttpHeaders headers = new HttpHeaders();
+        if (readYourWrites) {
+            headers.set(ReadReplicaRoutingConfig.READ_YOUR_WRITES_HEADER, "true");
+        }
+        Map<String, Object> body = restTemplate.exchange("/api/loans/" + loanId, HttpMethod.GET,
+                new HttpEntity<>(headers), Map.class).getBody();
+        return (String) body.get("status");
+    }
+}
@@ -0,0 +1,87 @@
+package org.ncu.mf_loan_system.controller;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.ncu.mf_loan_system.LoanManagementApplication;
+import org.ncu.mf_loan_system.TestFixtures;
+import org.ncu.mf_loan_system.entities.Client;
+import org.ncu.mf_loan_system.repository.ClientRepository;
+import org.ncu.mf_loan_system.service.ClientService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(classes = LoanManagementApplication.class)
+@ActiveProfiles("test")
+@AutoConfigureMockMvc
+class ClientSearchControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ClientService clientService;
+
+    @Autowired
+    private ClientRepository clientRepository;
+
+    private final List<Client> seeded = new ArrayList<>();
+
+    @BeforeEach
+    void seed() {
+        seeded.add(TestFixtures.newClient(clientService, "Grace Wanjiru", "Grace.Wanjiru@Example.com", "+254711000001"));
+        seeded.add(TestFixtures.newClient(clientService, "Wanjiku Otieno", "w.otieno@example.com", "+254722000002"));
+        seeded.add(TestFixtures.newClient(clientService, "Peter Kamau", "pk@mail.example.com", "+254733000003"));
+    }
+
+    // Only this class's clients go; the rest of the shared database is left as it was
+    @AfterEach
+    void removeSeeded() {
+        clientRepository.deleteAll(seeded);
+        seeded.clear();
+    }
+
+    @Test
+    void ranksNameMatchesBeforeSurnameMatches() throws Exception {
+        mockMvc.perform(get("/api/clients/search").param("q", "wanji"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[*].name", contains("Wanjiku Otieno", "Grace Wanjiru")))
+                .andExpect(jsonPath("$.hasMore").value(false));
+    }
+
+    @Test
+    void matchesMixedCaseEmailsCaseInsensitively() throws Exception {
+        mockMvc.perform(get("/api/clients/search").param("q", "GRACE.W"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items", hasSize(1)))
+                .andExpect(jsonPath("$.items[0].email").value("Grace.Wanjiru@Example.com"));
+    }
+
+    @Test
+    void matchesPhonePrefixIgnoringFormatting() throws Exception {
+        mockMvc.perform(get("/api/clients/search").param("q", "+254 733"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[*].name", contains("Peter Kamau")));
+    }
+
+    @Test
+    void pagesThroughRankedResults() throws Exception {
+        mockMvc.perform(get("/api/clients/search").param("q", "wanji").param("size", "1").param("page", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[*].name", contains("Grace Wanjiru")))
+                .andExpect(jsonPath("$.page").value(1))
+                .andExpect(jsonPath("$.hasMore").value(false));
+    }
+}
@@ -0,0 +1,102 @@
+package org.ncu.mf_loan_system.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.ncu.mf_loan_system.LoanManagementApplication;
+import org.ncu.mf_loan_system.entities.AuditEvent;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(classes = LoanManagementApplication.class, properties = {
+        "audit.poll-interval=20ms",
+        "audit.max-retry-backoff=100ms"
+})
+@ActiveProfiles("test")
+class AuditTrailTest {
+
+    // Far above the ids of the loans and payments other tests audit into the same table
+    private static final long ENTITY = 990_001L;
+
+    @Autowired
+    private AuditTrail auditTrail;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @AfterEach
+    void removeEvents() {
+        jdbc.update("DELETE FROM audit_events WHERE entity_id >= ?", ENTITY);
+    }
+
+    @Test
+    void onlyCommittedEventsReachTheTrail() throws InterruptedException {
+        transactionTemplate.executeWithoutResult(status -> {
+            auditTrail.record(event(AuditEvent.EventType.PAYMENT_RECORDED, ENTITY));
+            status.setRollbackOnly();
+        });
+        transactionTemplate.executeWithoutResult(status -> {
+            auditTrail.record(event(AuditEvent.EventType.PAYMENT_RECORDED, ENTITY + 1));
+            // Nothing is queued until the transaction has committed
+            assertEquals(0, auditTrail.pending());
+        });
+
+        await(() -> !entityIds(AuditEvent.EventType.PAYMENT_RECORDED).isEmpty());
+        // Had the rolled-back event been queued, it would have been written ahead of this one
+        assertEquals(List.of(ENTITY + 1), entityIds(AuditEvent.EventType.PAYMENT_RECORDED));
+    }
+
+    @Test
+    void aRejectedBatchIsRetriedUntilItIsWritten() throws InterruptedException {
+        double retried = retried();
+        jdbc.execute("ALTER TABLE audit_events RENAME TO audit_events_offline");
+        try {
+            auditTrail.record(event(AuditEvent.EventType.LOAN_DELETED, ENTITY));
+            auditTrail.record(event(AuditEvent.EventType.LOAN_DELETED, ENTITY + 1));
+            await(() -> retried() >= retried + 4);
+        } finally {
+            jdbc.execute("ALTER TABLE audit_events_offline RENAME TO audit_events");
+        }
+
+        await(() -> entityIds(AuditEvent.EventType.LOAN_DELETED).size() == 2);
+        assertEquals(List.of(ENTITY, ENTITY + 1), entityIds(AuditEvent.EventType.LOAN_DELETED));
+        assertEquals(0, auditTrail.pending());
+    }
+
+    private static AuditEvent event(AuditEvent.EventType type, long entityId) {
+        return new AuditEvent(type, entityId, null, BigDecimal.TEN);
+    }
+
+    private double retried() {
+        return meterRegistry.counter("audit.events", "result", "retried").count();
+    }
+
+    private List<Long> entityIds(AuditEvent.EventType type) {
+        return jdbc.queryForList("SELECT entity_id FROM audit_events WHERE event_type = ? AND entity_id >= ? " +
+                "ORDER BY entity_id", Long.class, type.name(), ENTITY);
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!condition.getAsBoolean() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+        }
+        assertTrue(condition.getAsBoolean());
+    }
+}
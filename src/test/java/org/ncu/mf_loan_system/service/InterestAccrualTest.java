@@ -0,0 +1,94 @@
+package org.ncu.mf_loan_system.service;
+
+import org.junit.jupiter.api.Test;
+import org.ncu.mf_loan_system.LoanManagementApplication;
+import org.ncu.mf_loan_system.TestFixtures;
+import org.ncu.mf_loan_system.dto.BulkPaymentRequest;
+import org.ncu.mf_loan_system.entities.Client;
+import org.ncu.mf_loan_system.entities.Loan;
+import org.ncu.mf_loan_system.entities.Payment;
+import org.ncu.mf_loan_system.repository.LoanRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(classes = LoanManagementApplication.class)
+@ActiveProfiles("test")
+class InterestAccrualTest {
+
+    @Autowired
+    private LoanService loanService;
+
+    @Autowired
+    private PaymentService paymentService;
+
+    @Autowired
+    private ClientService clientService;
+
+    @Autowired
+    private InterestAccrualJob accrualJob;
+
+    @Autowired
+    private LoanRepository loanRepository;
+
+    @Test
+    void paymentsSettleAccruedInterestBeforePrincipal() {
+        LocalDate today = LocalDate.now();
+        LocalDate yesterday = today.minusDays(1);
+        Client client = TestFixtures.newClient(clientService, "accrual-settles");
+        Loan loan = TestFixtures.newLoan(loanService, client, 12_000, today.minusDays(20));
+
+        accrualJob.accrue(yesterday);
+        BigDecimal accrued = loanRepository.findById(loan.getId()).orElseThrow().getAccruedInterest();
+        BigDecimal expected = new BigDecimal("12000").multiply(new BigDecimal("12"))
+                .multiply(BigDecimal.valueOf(ChronoUnit.DAYS.between(loan.getStartDate(), yesterday)))
+                .divide(new BigDecimal("36500"), 2, RoundingMode.HALF_UP);
+        assertEquals(0, expected.compareTo(accrued));
+
+        // A payment smaller than the accrued interest goes to interest only...
+        BigDecimal small = accrued.divide(BigDecimal.valueOf(2), 2, RoundingMode.DOWN);
+        Long smallId = paymentService.createPayments(List.of(new BulkPaymentRequest(loan.getId(), small, today)))
+                .get(0).paymentId();
+        Loan afterSmall = loanRepository.findById(loan.getId()).orElseThrow();
+        assertEquals(0, small.compareTo(afterSmall.getInterestRepaid()));
+        assertEquals(0, BigDecimal.ZERO.compareTo(afterSmall.getPrincipalRepaid()));
+
+        // ...and the next one clears the rest of it before reducing principal
+        BigDecimal emi = loanService.calculateEMI(loan.getId());
+        paymentService.createPayments(List.of(new BulkPaymentRequest(loan.getId(), emi, today)));
+        Loan afterEmi = loanRepository.findById(loan.getId()).orElseThrow();
+        assertEquals(0, accrued.compareTo(afterEmi.getInterestRepaid()));
+        assertEquals(0, small.add(emi).subtract(accrued).compareTo(afterEmi.getPrincipalRepaid()));
+
+        // The reduced principal is what the next accrual runs on
+        accrualJob.accrue(today);
+        BigDecimal principalOutstanding = new BigDecimal("12000").subtract(afterEmi.getPrincipalRepaid());
+        BigDecimal daily = principalOutstanding.multiply(new BigDecimal("12"))
+                .divide(new BigDecimal("36500"), 2, RoundingMode.HALF_UP);
+        Loan accruedAgain = loanRepository.findById(loan.getId()).orElseThrow();
+        assertEquals(0, daily.compareTo(accruedAgain.getLastAccrual()));
+        assertTrue(accruedAgain.getAccruedInterest().compareTo(accrued) > 0);
+
+        // Editing an earlier payment keeps the split every payment was posted with, rather than
+        // re-splitting the whole history against the interest accrued since
+        Payment edit = new Payment();
+        edit.setAmount(small);
+        edit.setPaymentDate(yesterday);
+        paymentService.updatePayment(smallId, edit);
+        Loan edited = loanRepository.findById(loan.getId()).orElseThrow();
+        assertEquals(0, afterEmi.getInterestRepaid().compareTo(edited.getInterestRepaid()));
+        assertEquals(0, afterEmi.getPrincipalRepaid().compareTo(edited.getPrincipalRepaid()));
+        assertEquals(0, small.compareTo(paymentService.getPaymentById(smallId).getInterestPart()));
+
+        loanService.deleteLoan(loan.getId());
+    }
+}
@@ -0,0 +1,93 @@
+package org.ncu.mf_loan_system.service;
+
+import org.junit.jupiter.api.Test;
+import org.ncu.mf_loan_system.LoanManagementApplication;
+import org.ncu.mf_loan_system.TestFixtures;
+import org.ncu.mf_loan_system.dto.BulkPaymentRequest;
+import org.ncu.mf_loan_system.dto.CursorPage;
+import org.ncu.mf_loan_system.dto.LoanRow;
+import org.ncu.mf_loan_system.entities.Client;
+import org.ncu.mf_loan_system.entities.Loan;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+@SpringBootTest(classes = LoanManagementApplication.class)
+@ActiveProfiles("test")
+class ListingPageTest {
+
+    @Autowired
+    private LoanService loanService;
+
+    @Autowired
+    private PaymentService paymentService;
+
+    @Autowired
+    private ClientService clientService;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Test
+    void everyFilterCombinationPagesOverRows() {
+        LocalDate today = LocalDate.now();
+        Client first = TestFixtures.newClient(clientService, "listing-first");
+        Client second = TestFixtures.newClient(clientService, "listing-second");
+        Loan early = TestFixtures.newLoan(loanService, first, 12_000, today.minusDays(40));
+        Loan late = TestFixtures.newLoan(loanService, first, 12_000, today.minusDays(5));
+        Loan other = TestFixtures.newLoan(loanService, second, 12_000, today.minusDays(5));
+        jdbc.update("UPDATE loans SET status = 'OVERDUE' WHERE id = ?", early.getId());
+        Long firstPayment = paymentService.createPayments(List.of(
+                new BulkPaymentRequest(early.getId(), BigDecimal.TEN, today.minusDays(3)),
+                new BulkPaymentRequest(early.getId(), BigDecimal.ONE, today),
+                new BulkPaymentRequest(other.getId(), BigDecimal.TEN, today))).get(0).paymentId();
+
+        // Pages start just before this test's rows, so loans other tests left behind stay out of them
+        Long loanCursor = early.getId() - 1;
+        Long paymentCursor = firstPayment - 1;
+
+        assertEquals(List.of(early.getId(), late.getId(), other.getId()), loanIds(loanCursor, null, null, null, null));
+        assertEquals(List.of(early.getId()), loanIds(loanCursor, Loan.LoanStatus.OVERDUE, null, null, null));
+        assertEquals(List.of(early.getId(), late.getId()), loanIds(loanCursor, null, first.getId(), null, null));
+        assertEquals(List.of(late.getId()), loanIds(loanCursor, Loan.LoanStatus.ACTIVE, first.getId(), null, null));
+        assertEquals(List.of(late.getId(), other.getId()), loanIds(loanCursor, null, null, today.minusDays(10), null));
+        assertEquals(List.of(early.getId()), loanIds(loanCursor, null, null, null, today.minusDays(10)));
+        assertEquals(List.of(early.getId()), loanService.getOverdueLoans(loanCursor, null).items().stream()
+                .map(LoanRow::id).toList());
+
+        // Keyset paging: the cursor of a full page picks up after its last row
+        CursorPage<LoanRow> page = loanService.getLoansPage(loanCursor, 2, null, null, null, null);
+        assertEquals(late.getId(), page.nextCursor());
+        CursorPage<LoanRow> rest = loanService.getLoansPage(page.nextCursor(), 2, null, null, null, null);
+        assertEquals(List.of(other.getId()), rest.items().stream().map(LoanRow::id).toList());
+        assertNull(rest.nextCursor());
+
+        assertEquals(3, paymentAmounts(paymentCursor, null, null, null).size());
+        assertEquals(List.of(10, 1), paymentAmounts(paymentCursor, early.getId(), null, null));
+        assertEquals(List.of(10), paymentAmounts(paymentCursor, null, second.getId(), null));
+        assertEquals(List.of(), paymentAmounts(paymentCursor, early.getId(), second.getId(), null));
+        assertEquals(List.of(1, 10), paymentAmounts(paymentCursor, null, null, today));
+
+        loanService.deleteLoan(early.getId());
+        loanService.deleteLoan(late.getId());
+        loanService.deleteLoan(other.getId());
+    }
+
+    private List<Long> loanIds(Long cursor, Loan.LoanStatus status, Long clientId, LocalDate from, LocalDate to) {
+        return loanService.getLoansPage(cursor, null, status, clientId, from, to).items().stream()
+                .map(LoanRow::id).toList();
+    }
+
+    private List<Integer> paymentAmounts(Long cursor, Long loanId, Long clientId, LocalDate from) {
+        return paymentService.getPaymentsPage(cursor, null, loanId, clientId, from, null).items().stream()
+                .map(payment -> payment.amount().intValueExact()).toList();
+    }
+}
@@ -0,0 +1,126 @@
+package org.ncu.mf_loan_system.service;
+
+import org.junit.jupiter.api.Test;
+import org.ncu.mf_loan_system.LoanManagementApplication;
+import org.ncu.mf_loan_system.TestFixtures;
+import org.ncu.mf_loan_system.dto.BulkPaymentRequest;
+import org.ncu.mf_loan_system.dto.PortfolioSummary;
+import org.ncu.mf_loan_system.entities.Client;
+import org.ncu.mf_loan_system.entities.Loan;
+import org.ncu.mf_loan_system.entities.Payment;
+import org.ncu.mf_loan_system.exception.LoanArchivedException;
+import org.ncu.mf_loan_system.exception.LoanNotFoundException;
+import org.ncu.mf_loan_system.exception.ResourceNotFoundException;
+import org.ncu.mf_loan_system.repository.LoanRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(classes = LoanManagementApplication.class)
+@ActiveProfiles("test")
+class LoanArchiveTest {
+
+    @Autowired
+    private LoanService loanService;
+
+    @Autowired
+    private PaymentService paymentService;
+
+    @Autowired
+    private ClientService clientService;
+
+    @Autowired
+    private LoanArchivalJob archivalJob;
+
+    @Autowired
+    private ExportService exportService;
+
+    @Autowired
+    private LoanRepository loanRepository;
+
+    @Test
+    void archivedLoansStayInTheTotalsAndExportButAreReadOnly() throws IOException {
+        LocalDate today = LocalDate.now();
+        // Totals are compared with what the shared database held before this test's loans
+        PortfolioSummary start = loanService.getPortfolioSummary();
+        Client client = TestFixtures.newClient(clientService, "archive-settled");
+        Loan settled = TestFixtures.newLoan(loanService, client, 12_000, today.minusDays(10));
+        Loan open = TestFixtures.newLoan(loanService, client, 12_000, today.minusDays(10));
+        BigDecimal balance = loanRepository.findById(settled.getId()).orElseThrow().getOutstandingBalance();
+        BigDecimal emi = loanService.calculateEMI(open.getId());
+        Long settlingPayment = paymentService.createPayments(List.of(
+                new BulkPaymentRequest(settled.getId(), balance, today),
+                new BulkPaymentRequest(open.getId(), emi, today))).get(0).paymentId();
+        PortfolioSummary before = loanService.getPortfolioSummary();
+
+        assertTrue(archivalJob.archive(today.plusDays(1)) >= 1);
+        assertFalse(loanRepository.existsById(settled.getId()));
+
+        // Moving the settled loan to the archive changes nothing in the totals
+        PortfolioSummary after = loanService.getPortfolioSummary();
+        assertEquals(before.loanCount(), after.loanCount());
+        assertEquals(before.paymentCount(), after.paymentCount());
+        assertEquals(0, before.disbursed().compareTo(after.disbursed()));
+        assertEquals(0, before.outstanding().compareTo(after.outstanding()));
+        assertEquals(start.loanCount() + 2, after.loanCount());
+        assertEquals(start.paymentCount() + 2, after.paymentCount());
+        assertEquals(0, start.collected().add(balance).add(emi).compareTo(after.collected()));
+        PortfolioSummary.StatusBreakdown paidBefore = start.byStatus().get(Loan.LoanStatus.PAID);
+        PortfolioSummary.StatusBreakdown paid = after.byStatus().get(Loan.LoanStatus.PAID);
+        assertEquals((paidBefore == null ? 0 : paidBefore.loanCount()) + 1, paid.loanCount());
+        assertEquals(0, (paidBefore == null ? BigDecimal.ZERO : paidBefore.collected()).add(balance)
+                .compareTo(paid.collected()));
+
+        // ...or in the export, which lists it after the hot book with its payments
+        ByteArrayOutputStream export = new ByteArrayOutputStream();
+        List<String> lines = new ArrayList<>();
+        long exported = exportService.exportLoans(export);
+        export.toString(StandardCharsets.UTF_8).lines().forEach(lines::add);
+        assertEquals(exported, lines.size());
+        int openLine = lineOf(lines, open.getId());
+        int settledLine = lineOf(lines, settled.getId());
+        assertTrue(openLine >= 0 && openLine < settledLine);
+        assertTrue(lines.get(settledLine).contains("\"payments\":[{"));
+
+        // ...but it can no longer be written to
+        assertThrows(LoanArchivedException.class, () -> loanService.updateLoan(settled.getId(), settled));
+        assertThrows(LoanArchivedException.class, () -> loanService.deleteLoan(settled.getId()));
+        assertThrows(LoanNotFoundException.class, () -> loanService.deleteLoan(99999999L));
+        Payment another = new Payment();
+        another.setLoan(settled);
+        another.setAmount(BigDecimal.TEN);
+        assertThrows(LoanArchivedException.class, () -> paymentService.createPayment(another));
+        assertThrows(LoanArchivedException.class, () -> paymentService.deletePayment(settlingPayment));
+        assertThrows(LoanArchivedException.class, () -> paymentService.updatePayment(settlingPayment, another));
+
+        // Reads answer for it like for any other settled loan
+        assertEquals(0, balance.compareTo(paymentService.getPaymentById(settlingPayment).getAmount()));
+        assertEquals(12, loanService.getSchedule(settled.getId()).size());
+        assertEquals(0, BigDecimal.ZERO.compareTo(loanService.getArrears(settled.getId())));
+        assertThrows(ResourceNotFoundException.class, () -> loanService.getNextInstallment(settled.getId()));
+
+        loanService.deleteLoan(open.getId());
+    }
+
+    private static int lineOf(List<String> lines, Long loanId) {
+        for (int i = 0; i < lines.size(); i++) {
+            if (lines.get(i).startsWith("{\"id\":" + loanId + ",")) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,120 @@
+package org.ncu.mf_loan_system.service;
+
+import org.junit.jupiter.api.Test;
+import org.ncu.mf_loan_system.LoanManagementApplication;
+import org.ncu.mf_loan_system.TestFixtures;
+import org.ncu.mf_loan_system.dto.LoanImportReport;
+import org.ncu.mf_loan_system.entities.Client;
+import org.ncu.mf_loan_system.entities.LoanImport;
+import org.ncu.mf_loan_system.entities.LoanImportError;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest(classes = LoanManagementApplication.class, properties = {
+        "loan.import.chunk-size=2"
+})
+@ActiveProfiles("test")
+class LoanImportTest {
+
+    @Autowired
+    private LoanImportService importService;
+
+    @Autowired
+    private LoanService loanService;
+
+    @Autowired
+    private ClientService clientService;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Test
+    void resumesAfterAFailedUploadAndReusesExistingClients() {
+        Client existing = TestFixtures.newClient(clientService, "import-existing", "existing@example.com",
+                "+254711000009");
+
+        String dates = "," + LocalDate.now().minusDays(10) + "," + LocalDate.now().plusMonths(12);
+        List<String> lines = List.of(
+                "client_email,client_name,client_phone,principal_amount,interest_rate,start_date,end_date",
+                "Existing@Example.com,,,12000,12" + dates,
+                "new@example.com,New Client,+254711000010,12000,12" + dates,
+                "new@example.com,New Client,+254711000010,abc,12" + dates,
+                "NEW@example.com,New Client,+254711000010,12000,12" + dates,
+                "other@example.com,Other Client,,12000,12" + dates,
+                "EXISTING@example.com,,,12000,12" + dates);
+
+        // The upload breaks off after the first two chunks (rows 1-4) have committed
+        LoanImportReport failed = importService.importLoans(breaksAfter(lines, 5), "book.csv", null);
+        assertEquals(LoanImport.ImportStatus.FAILED, failed.status());
+        assertEquals(4, failed.rowsCommitted());
+        assertEquals(3, failed.imported());
+        assertEquals(1, failed.rejected());
+
+        // Resuming with the whole file only takes rows 5 and 6
+        LoanImportReport resumed = importService.importLoans(csv(lines), "book.csv", failed.importId());
+        assertEquals(LoanImport.ImportStatus.COMPLETED, resumed.status());
+        assertEquals(6, resumed.rowsCommitted());
+        assertEquals(4, resumed.imported());
+        assertEquals(2, resumed.rejected());
+        assertEquals(1, resumed.clientsCreated());
+        assertEquals(List.of(3L, 5L), resumed.errors().stream().map(LoanImportError::getRowNumber).toList());
+
+        // Whatever the casing in the file, rows land on the one client per email
+        assertEquals(2L, jdbc.queryForObject("SELECT COUNT(*) FROM loans WHERE client_id = ?", Long.class,
+                existing.getId()));
+        assertEquals(2L, jdbc.queryForObject("SELECT COUNT(*) FROM loans l JOIN clients c ON c.id = l.client_id " +
+                "WHERE c.email_key = 'new@example.com'", Long.class));
+        assertEquals(1L, jdbc.queryForObject("SELECT COUNT(*) FROM clients WHERE email_key = 'new@example.com'",
+                Long.class));
+
+        jdbc.queryForList("SELECT l.id FROM loans l JOIN clients c ON c.id = l.client_id " +
+                "WHERE c.email_key IN ('existing@example.com', 'new@example.com')", Long.class)
+                .forEach(loanService::deleteLoan);
+    }
+
+    private static InputStream csv(List<String> lines) {
+        return new ByteArrayInputStream((String.join("\n", lines) + "\n").getBytes(StandardCharsets.UTF_8));
+    }
+
+    // Hands out one line per read, then fails once the first `served` lines are gone, like a
+    // connection dropping mid-upload
+    private static InputStream breaksAfter(List<String> lines, int served) {
+        return new InputStream() {
+            private int line;
+            private byte[] pending = new byte[0];
+            private int position;
+
+            @Override
+            public int read() throws IOException {
+                byte[] one = new byte[1];
+                return read(one, 0, 1) < 0 ? -1 : one[0] & 0xFF;
+            }
+
+            @Override
+            public int read(byte[] buffer, int offset, int length) throws IOException {
+                if (position == pending.length) {
+                    if (line == served) {
+                        throw new IOException("connection reset");
+                    }
+                    pending = (lines.get(line++) + "\n").getBytes(StandardCharsets.UTF_8);
+                    position = 0;
+                }
+                int count = Math.min(length, pending.length - position);
+                System.arraycopy(pending, position, buffer, offset, count);
+                position += count;
+                return count;
+            }
+        };
+    }
+}
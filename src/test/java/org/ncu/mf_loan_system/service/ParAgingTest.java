@@ -0,0 +1,181 @@
+package org.ncu.mf_loan_system.service;
+
+import org.junit.jupiter.api.Test;
+import org.ncu.mf_loan_system.LoanManagementApplication;
+import org.ncu.mf_loan_system.TestFixtures;
+import org.ncu.mf_loan_system.dto.BulkPaymentRequest;
+import org.ncu.mf_loan_system.dto.ParSummary;
+import org.ncu.mf_loan_system.entities.Client;
+import org.ncu.mf_loan_system.entities.Loan;
+import org.ncu.mf_loan_system.entities.LoanParPosition;
+import org.ncu.mf_loan_system.entities.ParBucket;
+import org.ncu.mf_loan_system.repository.LoanParPositionRepository;
+import org.ncu.mf_loan_system.repository.LoanRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest(classes = LoanManagementApplication.class)
+@ActiveProfiles("test")
+class ParAgingTest {
+
+    @Autowired
+    private LoanService loanService;
+
+    @Autowired
+    private PaymentService paymentService;
+
+    @Autowired
+    private ClientService clientService;
+
+    @Autowired
+    private ParAgingService parAgingService;
+
+    @Autowired
+    private ParAgingJob parAgingJob;
+
+    @Autowired
+    private LoanRepository loanRepository;
+
+    @Autowired
+    private LoanParPositionRepository positionRepository;
+
+    @Test
+    void totalsFollowPaymentsDeletesAndDayRollover() {
+        LocalDate today = LocalDate.now();
+        Client first = TestFixtures.newClient(clientService, "par-first");
+        Client second = TestFixtures.newClient(clientService, "par-second");
+        Loan late = TestFixtures.newLoan(loanService, first, 12_000, today.minusDays(100));
+        Loan current = TestFixtures.newLoan(loanService, first, 12_000, today);
+        Loan slipping = TestFixtures.newLoan(loanService, second, 12_000, today.minusDays(40));
+
+        assertEquals(ParBucket.DPD_61_90, positionRepository.findById(late.getId()).orElseThrow().getBucket());
+        assertEquals(ParBucket.CURRENT, positionRepository.findById(current.getId()).orElseThrow().getBucket());
+        assertEquals(ParBucket.DPD_1_30, positionRepository.findById(slipping.getId()).orElseThrow().getBucket());
+        assertConsistent(today);
+
+        // Catch up three installments through the bulk path
+        BigDecimal emi = loanService.calculateEMI(late.getId());
+        paymentService.createPayments(List.of(new BulkPaymentRequest(late.getId(), emi.multiply(BigDecimal.valueOf(3)), today)));
+        assertEquals(ParBucket.CURRENT, positionRepository.findById(late.getId()).orElseThrow().getBucket());
+        assertConsistent(today);
+
+        ParSummary secondClient = parAgingService.getClientPar(second.getId());
+        assertEquals(1, secondClient.loanCount());
+        assertEquals(1, secondClient.byBucket().get(ParBucket.DPD_1_30).loanCount());
+
+        // A month on, the unpaid loan has crossed 30 days and the caught-up one is late again
+        LocalDate later = today.plusDays(30);
+        for (LocalDate day = today.plusDays(1); !day.isAfter(later); day = day.plusDays(1)) {
+            parAgingJob.age(day);
+        }
+        assertEquals(ParBucket.DPD_31_60, positionRepository.findById(slipping.getId()).orElseThrow().getBucket());
+        assertConsistent(later);
+
+        loanService.deleteLoan(slipping.getId());
+        assertEquals(0, parAgingService.getClientPar(second.getId()).loanCount());
+        assertConsistent(later);
+
+        // A rebuild from scratch lands on the same totals the incremental path kept
+        ParSummary incremental = parAgingService.getPortfolioPar();
+        parAgingJob.rebuild();
+        assertEquals(incremental.loanCount(), parAgingService.getPortfolioPar().loanCount());
+        assertEquals(0, incremental.portfolio().compareTo(parAgingService.getPortfolioPar().portfolio()));
+
+        loanService.deleteLoan(late.getId());
+        loanService.deleteLoan(current.getId());
+    }
+
+    @Test
+    void concurrentRefreshesKeepTotalsEqualToPositions() throws Exception {
+        LocalDate today = LocalDate.now();
+        Client client = TestFixtures.newClient(clientService, "par-race");
+        List<Long> loanIds = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            loanIds.add(TestFixtures.newLoan(loanService, client, 12_000, today.minusDays(20 + i)).getId());
+        }
+
+        // Job-style refreshes (outside LoanWriteCoordinator) on alternating dates, so every
+        // call moves the loans between buckets, racing bulk postings on the same loans
+        ExecutorService pool = Executors.newFixedThreadPool(5);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            int thread = t;
+            futures.add(pool.submit(() -> {
+                for (int i = 0; i < 40; i++) {
+                    parAgingService.refresh(loanIds, today.plusDays((i + thread) % 2 == 0 ? 0 : 45));
+                }
+                return null;
+            }));
+        }
+        futures.add(pool.submit(() -> {
+            for (int i = 0; i < 20; i++) {
+                paymentService.createPayments(loanIds.stream()
+                        .map(id -> new BulkPaymentRequest(id, new BigDecimal("1.00"), today))
+                        .toList());
+            }
+            return null;
+        }));
+        try {
+            for (Future<?> future : futures) {
+                future.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        Map<ParBucket, BigDecimal> balances = new EnumMap<>(ParBucket.class);
+        Map<ParBucket, Long> counts = new EnumMap<>(ParBucket.class);
+        for (LoanParPosition position : positionRepository.findAll()) {
+            balances.merge(position.getBucket(), position.getBalance(), BigDecimal::add);
+            counts.merge(position.getBucket(), 1L, Long::sum);
+        }
+        ParSummary summary = parAgingService.getPortfolioPar();
+        for (ParBucket bucket : ParBucket.values()) {
+            ParSummary.BucketBreakdown breakdown = summary.byBucket().get(bucket);
+            assertEquals(counts.getOrDefault(bucket, 0L), breakdown.loanCount(), "loans in " + bucket);
+            assertEquals(0, balances.getOrDefault(bucket, BigDecimal.ZERO).compareTo(breakdown.balance()),
+                    "balance in " + bucket);
+        }
+
+        // Leaves the shared database as the other tests expect it
+        loanIds.forEach(loanService::deleteLoan);
+    }
+
+    // Every loan's position matches its current state and par_totals is the sum of positions; both
+    // hold for the whole table, whatever other tests have left in it
+    private void assertConsistent(LocalDate asOf) {
+        Map<ParBucket, BigDecimal> expected = new EnumMap<>(ParBucket.class);
+        Map<ParBucket, Long> expectedCounts = new EnumMap<>(ParBucket.class);
+        for (Loan loan : loanRepository.findAll()) {
+            LoanParPosition position = positionRepository.findById(loan.getId()).orElseThrow();
+            ParBucket bucket = ParAgingServiceImpl.bucketOf(loan.getNextPaymentDate(), asOf);
+            BigDecimal balance = loan.getPrincipalAmount().subtract(loan.getPrincipalRepaid());
+            assertEquals(bucket, position.getBucket(), "bucket of loan " + loan.getId());
+            assertEquals(0, balance.compareTo(position.getBalance()), "balance of loan " + loan.getId());
+            expected.merge(bucket, balance, BigDecimal::add);
+            expectedCounts.merge(bucket, 1L, Long::sum);
+        }
+
+        ParSummary summary = parAgingService.getPortfolioPar();
+        for (ParBucket bucket : ParBucket.values()) {
+            ParSummary.BucketBreakdown breakdown = summary.byBucket().get(bucket);
+            assertEquals(expectedCounts.getOrDefault(bucket, 0L), breakdown.loanCount(), "loans in " + bucket);
+            assertEquals(0, expected.getOrDefault(bucket, BigDecimal.ZERO).compareTo(breakdown.balance()),
+                    "balance in " + bucket);
+        }
+    }
+}
@@ -0,0 +1,187 @@
+package org.ncu.mf_loan_system.service;
+
+import org.junit.jupiter.api.Test;
+import org.ncu.mf_loan_system.LoanManagementApplication;
+import org.ncu.mf_loan_system.TestFixtures;
+import org.ncu.mf_loan_system.entities.Loan;
+import org.ncu.mf_loan_system.entities.Payment;
+import org.ncu.mf_loan_system.repository.LoanRepository;
+import org.ncu.mf_loan_system.repository.PaymentRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(classes = LoanManagementApplication.class)
+@ActiveProfiles("test")
+class PaymentConcurrencyTest {
+
+    private static final int THREADS = 8;
+    private static final int PAYMENTS_PER_THREAD = 25;
+    private static final BigDecimal AMOUNT = new BigDecimal("10.00");
+
+    @Autowired
+    private LoanService loanService;
+
+    @Autowired
+    private PaymentService paymentService;
+
+    @Autowired
+    private ClientService clientService;
+
+    @Autowired
+    private LoanRepository loanRepository;
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @Autowired
+    private LoanWriteCoordinator writeCoordinator;
+
+    @Test
+    void sameLoanPaymentsAreNotLost() throws Exception {
+        Loan loan = newLoan("same-loan");
+
+        runConcurrently(THREADS, PAYMENTS_PER_THREAD, (thread, i) -> {
+            // Mix both write paths; they share the same per-loan stripe
+            if (i % 2 == 0) {
+                loanService.processPayment(loan.getId(), AMOUNT);
+            } else {
+                Payment payment = new Payment();
+                payment.setLoan(loan);
+                payment.setAmount(AMOUNT);
+                payment.setPaymentDate(LocalDate.now());
+                paymentService.createPayment(payment);
+            }
+        });
+
+        int expected = THREADS * PAYMENTS_PER_THREAD;
+        assertPosted(loan.getId(), expected, AMOUNT.multiply(BigDecimal.valueOf(expected)));
+        loanService.deleteLoan(loan.getId());
+    }
+
+    @Test
+    void distinctLoansProceedInParallel() throws Exception {
+        List<Loan> loans = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            loans.add(newLoan("distinct-" + t));
+        }
+
+        // Only correctness is asserted; wall-clock comparisons with the same-loan run are too noisy
+        // on shared CI machines to fail a build on
+        runConcurrently(THREADS, PAYMENTS_PER_THREAD,
+                (thread, i) -> loanService.processPayment(loans.get(thread).getId(), AMOUNT));
+
+        for (Loan loan : loans) {
+            assertPosted(loan.getId(), PAYMENTS_PER_THREAD, AMOUNT.multiply(BigDecimal.valueOf(PAYMENTS_PER_THREAD)));
+            loanService.deleteLoan(loan.getId());
+        }
+    }
+
+    @Test
+    void versionConflictsAreRetriedWithoutLocks() throws Exception {
+        // Skips the stripes to behave like writers on separate instances; @Version plus retry
+        // must still account for every payment that reports success
+        Loan loan = newLoan("unlocked");
+        AtomicInteger posted = new AtomicInteger();
+        AtomicInteger gaveUp = new AtomicInteger();
+
+        runConcurrently(4, 10, (thread, i) -> {
+            try {
+                writeCoordinator.executeWithRetry(() -> {
+                    Loan current = loanRepository.findById(loan.getId()).orElseThrow();
+                    Payment payment = new Payment();
+                    payment.setAmount(AMOUNT);
+                    payment.setPaymentDate(LocalDate.now());
+                    current.applyPayment(payment);
+                    paymentRepository.save(payment);
+                    return loanRepository.saveAndFlush(current);
+                });
+                posted.incrementAndGet();
+            } catch (OptimisticLockingFailureException ex) {
+                gaveUp.incrementAndGet();
+            }
+        });
+
+        assertEquals(40, posted.get() + gaveUp.get());
+        assertTrue(posted.get() > 0, "no writer got through the retries");
+        assertPosted(loan.getId(), posted.get(), AMOUNT.multiply(BigDecimal.valueOf(posted.get())));
+        loanService.deleteLoan(loan.getId());
+    }
+
+    @Test
+    void editsAndPostingsShareTheLoanStripe() throws Exception {
+        Loan loan = newLoan("edited");
+        Payment first = new Payment();
+        first.setLoan(loan);
+        first.setAmount(AMOUNT);
+        first.setPaymentDate(LocalDate.now());
+        Long editedId = paymentService.createPayment(first).getId();
+
+        runConcurrently(THREADS, PAYMENTS_PER_THREAD, (thread, i) -> {
+            if (thread == 0) {
+                // Rebuilds the ledger from history while the other threads post against it
+                Payment edit = new Payment();
+                edit.setAmount(AMOUNT.add(BigDecimal.valueOf(i)));
+                edit.setPaymentDate(LocalDate.now());
+                paymentService.updatePayment(editedId, edit);
+            } else {
+                loanService.processPayment(loan.getId(), AMOUNT);
+            }
+        });
+
+        int postings = (THREADS - 1) * PAYMENTS_PER_THREAD;
+        BigDecimal lastEdit = AMOUNT.add(BigDecimal.valueOf(PAYMENTS_PER_THREAD - 1));
+        assertPosted(loan.getId(), postings + 1, AMOUNT.multiply(BigDecimal.valueOf(postings)).add(lastEdit));
+        loanService.deleteLoan(loan.getId());
+    }
+
+    private Loan newLoan(String name) {
+        return TestFixtures.newLoan(loanService, TestFixtures.newClient(clientService, name), 100_000, LocalDate.now());
+    }
+
+    private void assertPosted(Long loanId, int count, BigDecimal total) {
+        Loan loan = loanRepository.findById(loanId).orElseThrow();
+        assertEquals(0, total.compareTo(loan.getTotalPaid()), "running total drifted from posted payments");
+        assertEquals(count, paymentRepository.findRowsByLoanIds(List.of(loanId)).size());
+    }
+
+    private void runConcurrently(int threads, int perThread, Work work) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int thread = t;
+            futures.add(pool.submit(() -> {
+                start.await();
+                for (int i = 0; i < perThread; i++) {
+                    work.run(thread, i);
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        try {
+            for (Future<?> future : futures) {
+                future.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @FunctionalInterface
+    private interface Work {
+        void run(int thread, int i) throws Exception;
+    }
+}
@@ -0,0 +1,84 @@
+package org.ncu.mf_loan_system.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.ncu.mf_loan_system.LoanManagementApplication;
+import org.ncu.mf_loan_system.TestFixtures;
+import org.ncu.mf_loan_system.entities.JournalExceptionItem;
+import org.ncu.mf_loan_system.entities.Loan;
+import org.ncu.mf_loan_system.repository.JournalCheckpointRepository;
+import org.ncu.mf_loan_system.repository.LoanRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest(classes = LoanManagementApplication.class, properties = {
+        "payment.journal.enabled=true",
+        "payment.journal.name=test-node"
+})
+@ActiveProfiles("test")
+class PaymentJournalApplierTest {
+
+    @TempDir
+    static Path journalDirectory;
+
+    @DynamicPropertySource
+    static void journalProperties(DynamicPropertyRegistry registry) {
+        registry.add("payment.journal.directory", journalDirectory::toString);
+    }
+
+    @Autowired
+    private PaymentJournal journal;
+
+    @Autowired
+    private PaymentService paymentService;
+
+    @Autowired
+    private LoanService loanService;
+
+    @Autowired
+    private ClientService clientService;
+
+    @Autowired
+    private LoanRepository loanRepository;
+
+    @Autowired
+    private JournalCheckpointRepository checkpointRepository;
+
+    @Test
+    void refusedEntriesAreKeptWithTheCheckpoint() throws Exception {
+        Loan loan = TestFixtures.newLoan(loanService, TestFixtures.newClient(clientService, "journal-client"), 5_000,
+                LocalDate.now());
+        journal.append(loan.getId(), new BigDecimal("25.00"), LocalDate.now());
+        PaymentJournal.Entry unknown = journal.append(Long.MAX_VALUE, new BigDecimal("40.00"), LocalDate.now());
+        PaymentJournal.Entry last = journal.append(loan.getId(), new BigDecimal("15.00"), LocalDate.now());
+
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (checkpoint() < last.sequence() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+        }
+        assertEquals(last.sequence(), checkpoint());
+
+        assertEquals(0, new BigDecimal("40.00").compareTo(loanRepository.findById(loan.getId()).orElseThrow().getTotalPaid()));
+        List<JournalExceptionItem> exceptions = paymentService.getJournalExceptions("test-node", null, 10).items();
+        assertEquals(1, exceptions.size());
+        assertEquals(unknown.sequence(), exceptions.get(0).getSequence());
+        assertEquals(Long.MAX_VALUE, exceptions.get(0).getLoanId());
+        assertEquals(0, new BigDecimal("40.00").compareTo(exceptions.get(0).getAmount()));
+
+        loanService.deleteLoan(loan.getId());
+    }
+
+    private long checkpoint() {
+        return checkpointRepository.findById("test-node").orElseThrow().getLastSequence();
+    }
+}
@@ -0,0 +1,141 @@
+package org.ncu.mf_loan_system.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.ncu.mf_loan_system.config.PaymentJournalProperties;
+import org.ncu.mf_loan_system.exception.PaymentJournalUnavailableException;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class PaymentJournalTest {
+
+    private static final LocalDate DAY = LocalDate.of(2026, 3, 2);
+
+    @TempDir
+    private Path directory;
+
+    @Test
+    void replaysOnlyEntriesAfterTheCheckpoint() throws Exception {
+        PaymentJournal journal = open(0);
+        for (long loanId = 1; loanId <= 5; loanId++) {
+            journal.append(loanId, new BigDecimal("10.50"), DAY);
+        }
+        journal.close();
+
+        PaymentJournal reopened = open(3);
+        List<PaymentJournal.Entry> replayed = reopened.takeBatch(100, 1, TimeUnit.SECONDS);
+        assertEquals(List.of(4L, 5L), replayed.stream().map(PaymentJournal.Entry::sequence).toList());
+        assertEquals(new PaymentJournal.Entry(4, 4L, new BigDecimal("10.50"), DAY), replayed.get(0));
+
+        // Numbering carries on after the last entry on disk, not after the checkpoint
+        assertEquals(6, reopened.append(9L, BigDecimal.ONE, DAY).sequence());
+        reopened.close();
+    }
+
+    @Test
+    void stopsReplayAtATornRecord() throws Exception {
+        PaymentJournal journal = open(0);
+        for (long loanId = 1; loanId <= 3; loanId++) {
+            journal.append(loanId, new BigDecimal("7.00"), DAY);
+        }
+        journal.close();
+
+        // Damage the amount of the third record as a write cut short by a crash would
+        Path segment = segments().get(0);
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[] {0x7F, 0x7F}), 2L * PaymentJournal.RECORD_SIZE + 20);
+        }
+
+        PaymentJournal reopened = open(0);
+        List<PaymentJournal.Entry> replayed = reopened.takeBatch(100, 1, TimeUnit.SECONDS);
+        assertEquals(List.of(1L, 2L), replayed.stream().map(PaymentJournal.Entry::sequence).toList());
+
+        // The torn sequence was never acknowledged, so it is reused by the next append
+        assertEquals(3, reopened.append(3L, BigDecimal.ONE, DAY).sequence());
+        reopened.close();
+
+        PaymentJournal again = open(0);
+        List<PaymentJournal.Entry> all = again.takeBatch(100, 1, TimeUnit.SECONDS);
+        assertEquals(List.of(1L, 2L, 3L), all.stream().map(PaymentJournal.Entry::sequence).toList());
+        assertEquals(BigDecimal.ONE.setScale(2), all.get(2).amount());
+        again.close();
+    }
+
+    @Test
+    void aFailedFlushFailsWaitingAndLaterAppends() throws Exception {
+        PaymentJournal journal = new PaymentJournal(properties()) {
+            @Override
+            void force(MappedByteBuffer buffer, int from, int length) {
+                throw new UncheckedIOException(new IOException("disk gone"));
+            }
+        };
+        journal.open(0);
+
+        assertThrows(PaymentJournalUnavailableException.class, () -> journal.append(1L, BigDecimal.TEN, DAY));
+        assertThrows(PaymentJournalUnavailableException.class, () -> journal.append(2L, BigDecimal.TEN, DAY));
+        assertEquals(0, journal.backlog());
+        journal.close();
+    }
+
+    @Test
+    void anAppendGivesUpWhenTheFlushStalls() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        PaymentJournalProperties properties = properties();
+        properties.setAppendTimeout(Duration.ofMillis(200));
+        PaymentJournal journal = new PaymentJournal(properties) {
+            @Override
+            void force(MappedByteBuffer buffer, int from, int length) {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                super.force(buffer, from, length);
+            }
+        };
+        journal.open(0);
+
+        assertThrows(PaymentJournalUnavailableException.class, () -> journal.append(1L, BigDecimal.TEN, DAY));
+
+        // The entry still becomes durable once the disk catches up
+        release.countDown();
+        assertEquals(1, journal.takeBatch(100, 1, TimeUnit.SECONDS).size());
+        journal.close();
+    }
+
+    private PaymentJournal open(long checkpoint) throws IOException {
+        PaymentJournal journal = new PaymentJournal(properties());
+        journal.open(checkpoint);
+        return journal;
+    }
+
+    private PaymentJournalProperties properties() {
+        PaymentJournalProperties properties = new PaymentJournalProperties();
+        properties.setDirectory(directory.toString());
+        properties.setSegmentEntries(16);
+        return properties;
+    }
+
+    private List<Path> segments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.sorted().toList();
+        }
+    }
+}
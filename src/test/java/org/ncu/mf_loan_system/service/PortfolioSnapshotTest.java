@@ -0,0 +1,98 @@
+package org.ncu.mf_loan_system.service;
+
+import org.junit.jupiter.api.Test;
+import org.ncu.mf_loan_system.LoanManagementApplication;
+import org.ncu.mf_loan_system.TestFixtures;
+import org.ncu.mf_loan_system.dto.BulkPaymentRequest;
+import org.ncu.mf_loan_system.entities.Client;
+import org.ncu.mf_loan_system.entities.Loan;
+import org.ncu.mf_loan_system.entities.LoanDailySnapshot;
+import org.ncu.mf_loan_system.repository.LoanDailySnapshotRepository;
+import org.ncu.mf_loan_system.repository.LoanRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+@SpringBootTest(classes = LoanManagementApplication.class)
+@ActiveProfiles("test")
+class PortfolioSnapshotTest {
+
+    @Autowired
+    private LoanService loanService;
+
+    @Autowired
+    private PaymentService paymentService;
+
+    @Autowired
+    private ClientService clientService;
+
+    @Autowired
+    private PortfolioSnapshotJob snapshotJob;
+
+    @Autowired
+    private LoanRepository loanRepository;
+
+    @Autowired
+    private LoanDailySnapshotRepository snapshotRepository;
+
+    @Test
+    void backdatedPaymentsAreCollectedOnTheDayTheyArePosted() {
+        LocalDate today = LocalDate.now();
+        LocalDate yesterday = today.minusDays(1);
+        Client client = TestFixtures.newClient(clientService, "snapshot-backdated");
+        Loan late = TestFixtures.newLoan(loanService, client, 12_000, today.minusDays(70));
+        Loan settled = TestFixtures.newLoan(loanService, client, 12_000, today.minusDays(10));
+        BigDecimal settledBalance = loanRepository.findById(settled.getId()).orElseThrow().getOutstandingBalance();
+
+        snapshotJob.snapshot(yesterday);
+        LoanDailySnapshot before = snapshotOf(late, yesterday);
+
+        // Both entered today but dated yesterday; the second one pays the loan off
+        BigDecimal emi = loanService.calculateEMI(late.getId());
+        paymentService.createPayments(List.of(
+                new BulkPaymentRequest(late.getId(), emi, yesterday),
+                new BulkPaymentRequest(settled.getId(), settledBalance, yesterday)));
+
+        // Yesterday's rerun still shows the ledger as it stood at close of business
+        snapshotJob.snapshot(yesterday);
+        LoanDailySnapshot rerun = snapshotOf(late, yesterday);
+        assertEquals(0, BigDecimal.ZERO.compareTo(rerun.getCollected()));
+        assertEquals(0, before.getTotalPaid().compareTo(rerun.getTotalPaid()));
+        assertEquals(0, before.getOutstandingBalance().compareTo(rerun.getOutstandingBalance()));
+        assertEquals(before.getNextPaymentDate(), rerun.getNextPaymentDate());
+        assertEquals(before.getDaysPastDue(), rerun.getDaysPastDue());
+
+        LoanDailySnapshot unsettled = snapshotOf(settled, yesterday);
+        assertEquals(Loan.LoanStatus.ACTIVE, unsettled.getStatus());
+        assertEquals(0, settledBalance.compareTo(unsettled.getOutstandingBalance()));
+        assertEquals(settled.getStartDate().plusMonths(1), unsettled.getNextPaymentDate());
+
+        // ...and today's picks the payments up
+        snapshotJob.snapshot(today);
+        LoanDailySnapshot posted = snapshotOf(late, today);
+        assertEquals(0, emi.compareTo(posted.getCollected()));
+        assertEquals(0, before.getTotalPaid().add(emi).compareTo(posted.getTotalPaid()));
+        assertEquals(late.getStartDate().plusMonths(2), posted.getNextPaymentDate());
+
+        LoanDailySnapshot paidOff = snapshotOf(settled, today);
+        assertEquals(Loan.LoanStatus.PAID, paidOff.getStatus());
+        assertEquals(0, settledBalance.compareTo(paidOff.getCollected()));
+        assertNull(paidOff.getNextPaymentDate());
+
+        loanService.deleteLoan(late.getId());
+        loanService.deleteLoan(settled.getId());
+    }
+
+    private LoanDailySnapshot snapshotOf(Loan loan, LocalDate day) {
+        List<LoanDailySnapshot> rows = snapshotRepository.findHistory(loan.getId(), day, day);
+        assertEquals(1, rows.size());
+        return rows.get(0);
+    }
+}
@@ -0,0 +1,112 @@
+package org.ncu.mf_loan_system.service;
+
+import org.junit.jupiter.api.Test;
+import org.ncu.mf_loan_system.LoanManagementApplication;
+import org.ncu.mf_loan_system.TestFixtures;
+import org.ncu.mf_loan_system.dto.ReconciliationReport;
+import org.ncu.mf_loan_system.entities.Client;
+import org.ncu.mf_loan_system.entities.Loan;
+import org.ncu.mf_loan_system.entities.ReconciliationExceptionItem;
+import org.ncu.mf_loan_system.entities.StatementReconciliation;
+import org.ncu.mf_loan_system.repository.StatementReconciliationRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest(classes = LoanManagementApplication.class, properties = {
+        "loan.reconciliation.posting-batch-size=2",
+        "loan.reconciliation.posting-threads=1"
+})
+@ActiveProfiles("test")
+class ReconciliationTest {
+
+    @Autowired
+    private ReconciliationService reconciliationService;
+
+    @Autowired
+    private LoanService loanService;
+
+    @Autowired
+    private ClientService clientService;
+
+    @Autowired
+    private StatementReconciliationRepository reconciliationRepository;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void referencesArePostedOnceAcrossStatementsAndResumes() {
+        Loan first = newLoan(newClient("recon-first", "+254711000001"));
+        Loan second = newLoan(newClient("recon-second", "+254711000002"));
+        LocalDate today = LocalDate.now();
+        List<String> lines = List.of(
+                "R1,LN-" + first.getId() + ",,10.00," + today,
+                "R2,LN-" + second.getId() + ",,20.00," + today,
+                "R1,LN-" + second.getId() + ",,10.00," + today,
+                "U1,LN-99999999,,5.00," + today,
+                ",LN-" + first.getId() + ",,5.00," + today,
+                "R3,,0711000002,30.00," + today);
+
+        // A run that got through the first four lines and then died
+        ReconciliationReport partial = reconciliationService.reconcile(statement(lines.subList(0, 4)), "partial.csv");
+        assertEquals(2, partial.posted());
+        assertEquals(1, partial.duplicates());
+        assertEquals(1, partial.exceptions());
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> reconciliationRepository.finish(
+                partial.reconciliationId(), StatementReconciliation.RunStatus.FAILED, "node lost", LocalDateTime.now()));
+
+        // Resuming with the whole file posts only what is new and records each exception once
+        ReconciliationReport resumed = reconciliationService.resume(partial.reconciliationId(), statement(lines));
+        assertEquals(StatementReconciliation.RunStatus.COMPLETED, resumed.status());
+        assertEquals(3, resumed.posted());
+        assertEquals(0, new BigDecimal("60.00").compareTo(resumed.amountPosted()));
+        assertEquals(4, resumed.duplicates());
+        assertEquals(2, resumed.exceptions());
+        assertEquals(List.of(ReconciliationExceptionItem.Reason.UNMATCHED, ReconciliationExceptionItem.Reason.UNREADABLE),
+                resumed.firstExceptions().stream().map(ReconciliationExceptionItem::getReason).toList());
+        assertEquals(3L, jdbc.queryForObject("SELECT COUNT(*) FROM payments WHERE statement_reference IS NOT NULL " +
+                "AND loan_id IN (?, ?)", Long.class, first.getId(), second.getId()));
+
+        // A second delivery of the same statement posts nothing
+        ReconciliationReport again = reconciliationService.reconcile(statement(lines), "again.csv");
+        assertEquals(0, again.posted());
+        assertEquals(4, again.duplicates());
+
+        assertThrows(IllegalStateException.class,
+                () -> reconciliationService.resume(again.reconciliationId(), statement(lines)));
+
+        loanService.deleteLoan(first.getId());
+        loanService.deleteLoan(second.getId());
+    }
+
+    private static InputStream statement(List<String> lines) {
+        String csv = "reference,loan_reference,phone,amount,value_date\n" + String.join("\n", lines) + "\n";
+        return new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private Client newClient(String name, String phone) {
+        return TestFixtures.newClient(clientService, name, name + "@example.com", phone);
+    }
+
+    private Loan newLoan(Client client) {
+        return TestFixtures.newLoan(loanService, client, 12_000, LocalDate.now().minusDays(10));
+    }
+}